@@ -0,0 +1,74 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import android.databinding.ObservableField;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Plain {@link ObservableField} and {@link BehaviorSubject} updates with the same subscriber counts
+ * as {@link RxPropertyBenchmark}, to put the cost of a property update in perspective.
+ */
+@State(Scope.Thread)
+public class BaselineBenchmark {
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    private final String[] values = {"RxProperty", "Android"};
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private ObservableField<String> field;
+
+    private Subject<String> subject;
+
+    private Subject<String> serializedSubject;
+
+    private int index;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        field = new ObservableField<>(values[0]);
+        subject = BehaviorSubject.createDefault(values[0]);
+        serializedSubject = BehaviorSubject.createDefault(values[0]).toSerialized();
+        for (int i = 0; i < subscribers; ++i) {
+            field.addOnPropertyChangedCallback(Sinks.callback(blackhole));
+            disposables.add(subject.subscribe(Sinks.<String>consumer(blackhole)));
+            disposables.add(serializedSubject.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+    }
+
+    @Benchmark
+    public void observableFieldSet() {
+        field.set(nextValue());
+    }
+
+    @Benchmark
+    public void behaviorSubjectOnNext() {
+        subject.onNext(nextValue());
+    }
+
+    @Benchmark
+    public void serializedBehaviorSubjectOnNext() {
+        serializedSubject.onNext(nextValue());
+    }
+
+    private String nextValue() {
+        index ^= 1;
+        return values[index];
+    }
+}
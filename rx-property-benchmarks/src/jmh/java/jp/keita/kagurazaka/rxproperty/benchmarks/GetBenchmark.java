@@ -0,0 +1,63 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import android.databinding.ObservableField;
+import android.databinding.ObservableInt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jp.keita.kagurazaka.rxproperty.IntRxProperty;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Measures reading the value of {@link RxProperty} and {@link IntRxProperty} against plain
+ * {@link ObservableField} and {@link ObservableInt}, which shows the cost of recording dependencies
+ * of computed properties and of looking up values pending in a transaction on every read.
+ */
+@State(Scope.Thread)
+public class GetBenchmark {
+    private ObservableField<String> field;
+
+    private ObservableInt intField;
+
+    private RxProperty<String> property;
+
+    private IntRxProperty intProperty;
+
+    @Setup
+    public void setUp() {
+        field = new ObservableField<>("RxProperty");
+        intField = new ObservableInt(1);
+        property = new RxProperty<>("RxProperty");
+        intProperty = new IntRxProperty(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        property.dispose();
+        intProperty.dispose();
+    }
+
+    @Benchmark
+    public String observableFieldGet() {
+        return field.get();
+    }
+
+    @Benchmark
+    public String rxPropertyGet() {
+        return property.get();
+    }
+
+    @Benchmark
+    public int observableIntGet() {
+        return intField.get();
+    }
+
+    @Benchmark
+    public int intRxPropertyGet() {
+        return intProperty.get();
+    }
+}
@@ -0,0 +1,92 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import android.databinding.BaseObservable;
+import android.databinding.ObservableArrayList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.functions.Consumer;
+import jp.keita.kagurazaka.rxproperty.ListChange;
+import jp.keita.kagurazaka.rxproperty.Observe;
+import jp.keita.kagurazaka.rxproperty.PropertyChange;
+
+/**
+ * Measures inserting and removing an item of a list whose items are observed, with
+ * {@link Observe#itemsOf(android.databinding.ObservableList)} against re-subscribing
+ * {@link Observe#allPropertiesOf(android.databinding.Observable)} to every item on each change of
+ * the list.
+ */
+@State(Scope.Thread)
+public class ItemsOfBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private final CompositeDisposable itemDisposables = new CompositeDisposable();
+
+    private ObservableArrayList<BaseObservable> itemsOfList;
+
+    private ObservableArrayList<BaseObservable> resubscribeList;
+
+    private BaseObservable item;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        itemsOfList = new ObservableArrayList<>();
+        resubscribeList = new ObservableArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            itemsOfList.add(new BaseObservable());
+            resubscribeList.add(new BaseObservable());
+        }
+        item = new BaseObservable();
+
+        disposables.add(Observe.itemsOf(itemsOfList)
+                .subscribe(Sinks.<PropertyChange<BaseObservable>>consumer(blackhole)));
+
+        resubscribe();
+        disposables.add(Observe.listChangesOf(resubscribeList)
+                .subscribe(new Consumer<ListChange>() {
+                    @Override
+                    public void accept(ListChange change) {
+                        resubscribe();
+                    }
+                }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        itemDisposables.clear();
+    }
+
+    @Benchmark
+    public void itemsOf() {
+        itemsOfList.add(item);
+        itemsOfList.remove(size);
+    }
+
+    @Benchmark
+    public void resubscribeAllPropertiesOf() {
+        resubscribeList.add(item);
+        resubscribeList.remove(size);
+    }
+
+    private void resubscribe() {
+        itemDisposables.clear();
+        for (BaseObservable item : resubscribeList) {
+            itemDisposables.add(Observe.allPropertiesOf(item)
+                    .subscribe(Sinks.<BaseObservable>consumer(blackhole)));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jp.keita.kagurazaka.rxproperty.ListDiff;
+import jp.keita.kagurazaka.rxproperty.RxListProperty;
+
+/**
+ * Measures {@link ListDiff#calculate(List, List)} and {@link RxListProperty#replace(List)} on
+ * large lists with a few random insertions and removals, against clearing and re-adding all items.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListDiffBenchmark {
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"1", "10", "100"})
+    public int edits;
+
+    private List<Integer> oldList;
+
+    private List<Integer> newList;
+
+    private RxListProperty<Integer> property;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        oldList = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            oldList.add(i);
+        }
+
+        newList = new ArrayList<>(oldList);
+        for (int i = 0; i < edits; ++i) {
+            if (random.nextBoolean()) {
+                newList.remove(random.nextInt(newList.size()));
+            } else {
+                newList.add(random.nextInt(newList.size() + 1), -i - 1);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetProperty() {
+        property = new RxListProperty<>(oldList);
+    }
+
+    @Benchmark
+    public ListDiff calculate() {
+        return ListDiff.calculate(oldList, newList);
+    }
+
+    @Benchmark
+    public RxListProperty<Integer> replace() {
+        property.replace(newList);
+        return property;
+    }
+
+    @Benchmark
+    public RxListProperty<Integer> clearAndAddAll() {
+        property.clear();
+        property.addAll(newList);
+        return property;
+    }
+}
@@ -0,0 +1,101 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import android.databinding.BaseObservable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.disposables.CompositeDisposable;
+import jp.keita.kagurazaka.rxproperty.Observe;
+import jp.keita.kagurazaka.rxproperty.PropertyChange;
+
+/**
+ * Measures dispatch of {@link Observe#propertyOf(android.databinding.Observable, int)} and
+ * {@link Observe#allPropertiesOf(android.databinding.Observable)} subscriptions against plain
+ * {@link android.databinding.Observable.OnPropertyChangedCallback}s, and observing several
+ * properties with {@link Observe#propertiesOf(android.databinding.Observable, int...)} against one
+ * {@code propertyOf} subscription per property.
+ */
+@State(Scope.Thread)
+public class ObserveBenchmark {
+    static final int ID_TARGET = 1;
+    static final int ID_OTHER = 2;
+    static final int[] ID_GROUP = {3, 4, 5, 6, 7};
+
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private BaseObservable propertyOfTarget;
+
+    private BaseObservable allPropertiesOfTarget;
+
+    private BaseObservable callbackTarget;
+
+    private BaseObservable propertyOfEachTarget;
+
+    private BaseObservable propertiesOfTarget;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        propertyOfTarget = new BaseObservable();
+        allPropertiesOfTarget = new BaseObservable();
+        callbackTarget = new BaseObservable();
+        propertyOfEachTarget = new BaseObservable();
+        propertiesOfTarget = new BaseObservable();
+        for (int i = 0; i < subscribers; ++i) {
+            disposables.add(Observe.propertyOf(propertyOfTarget, ID_TARGET)
+                    .subscribe(Sinks.<BaseObservable>consumer(blackhole)));
+            disposables.add(Observe.allPropertiesOf(allPropertiesOfTarget)
+                    .subscribe(Sinks.<BaseObservable>consumer(blackhole)));
+            callbackTarget.addOnPropertyChangedCallback(Sinks.callback(blackhole));
+            for (int id : ID_GROUP) {
+                disposables.add(Observe.propertyOf(propertyOfEachTarget, id)
+                        .subscribe(Sinks.<BaseObservable>consumer(blackhole)));
+            }
+            disposables.add(Observe.propertiesOf(propertiesOfTarget, ID_GROUP)
+                    .subscribe(Sinks.<PropertyChange<BaseObservable>>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+    }
+
+    @Benchmark
+    public void propertyOfTargetChanged() {
+        propertyOfTarget.notifyPropertyChanged(ID_TARGET);
+    }
+
+    @Benchmark
+    public void propertyOfOtherChanged() {
+        propertyOfTarget.notifyPropertyChanged(ID_OTHER);
+    }
+
+    @Benchmark
+    public void allPropertiesOf() {
+        allPropertiesOfTarget.notifyPropertyChanged(ID_TARGET);
+    }
+
+    @Benchmark
+    public void propertyOfEachChanged() {
+        propertyOfEachTarget.notifyPropertyChanged(ID_GROUP[0]);
+    }
+
+    @Benchmark
+    public void propertiesOfChanged() {
+        propertiesOfTarget.notifyPropertyChanged(ID_GROUP[0]);
+    }
+
+    @Benchmark
+    public void baselineCallback() {
+        callbackTarget.notifyPropertyChanged(ID_TARGET);
+    }
+}
@@ -0,0 +1,188 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import jp.keita.kagurazaka.rxproperty.ReadOnlyRxProperty;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Compares derived properties built from Rx operators with computed properties on graphs where
+ * nodes are reachable from the source through several paths.
+ * <p>
+ * In the deep graph, each level depends on the previous level and the source. In the wide graph,
+ * every middle node depends on the source and the sink depends on all middle nodes. The
+ * {@code emissions} counter reports values emitted by all derived properties, which is the number
+ * of nodes per update for computed properties and grows with glitches for Rx operators.
+ */
+@State(Scope.Thread)
+public class PropagationBenchmark {
+    @Param({"deep", "wide"})
+    public String shape;
+
+    @Param({"10", "100"})
+    public int size;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private final List<ReadOnlyRxProperty<Integer>> nodes = new ArrayList<>();
+
+    private RxProperty<Integer> rxSource;
+
+    private RxProperty<Integer> computedSource;
+
+    private int value;
+
+    private long emitted;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Emissions {
+        public long emissions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            emissions = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rxSource = new RxProperty<>(0);
+        computedSource = new RxProperty<>(0);
+        if ("deep".equals(shape)) {
+            buildDeepGraph();
+        } else {
+            buildWideGraph();
+        }
+
+        Consumer<Integer> counting = new Consumer<Integer>() {
+            @Override
+            public void accept(Integer value) {
+                ++emitted;
+            }
+        };
+        for (ReadOnlyRxProperty<Integer> node : nodes) {
+            disposables.add(node.subscribe(counting));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        for (ReadOnlyRxProperty<Integer> node : nodes) {
+            node.dispose();
+        }
+        nodes.clear();
+        rxSource.dispose();
+        computedSource.dispose();
+    }
+
+    @Benchmark
+    public void rxOperators(Emissions counter) {
+        rxSource.set(++value);
+        counter.emissions += emitted;
+        emitted = 0;
+    }
+
+    @Benchmark
+    public void computed(Emissions counter) {
+        computedSource.set(++value);
+        counter.emissions += emitted;
+        emitted = 0;
+    }
+
+    private void buildDeepGraph() {
+        BiFunction<Integer, Integer, Integer> add = new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer previous, Integer source) {
+                return previous + source;
+            }
+        };
+
+        Observable<Integer> rxPrevious = rxSource;
+        ReadOnlyRxProperty<Integer> computedPrevious = null;
+        for (int i = 0; i < size; ++i) {
+            ReadOnlyRxProperty<Integer> rxNode = new ReadOnlyRxProperty<>(
+                    Observable.combineLatest(rxPrevious, rxSource, add));
+            nodes.add(rxNode);
+            rxPrevious = rxNode;
+
+            final ReadOnlyRxProperty<Integer> previous = computedPrevious;
+            ReadOnlyRxProperty<Integer> computedNode = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            int source = computedSource.get();
+                            return (previous != null ? previous.get() : source) + source;
+                        }
+                    });
+            nodes.add(computedNode);
+            computedPrevious = computedNode;
+        }
+    }
+
+    private void buildWideGraph() {
+        final List<Observable<Integer>> rxMiddles = new ArrayList<>();
+        final List<ReadOnlyRxProperty<Integer>> computedMiddles = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            final int factor = i + 1;
+            ReadOnlyRxProperty<Integer> rxNode = new ReadOnlyRxProperty<>(
+                    rxSource.map(new Function<Integer, Integer>() {
+                        @Override
+                        public Integer apply(Integer source) {
+                            return source * factor;
+                        }
+                    }));
+            nodes.add(rxNode);
+            rxMiddles.add(rxNode);
+
+            ReadOnlyRxProperty<Integer> computedNode = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return computedSource.get() * factor;
+                        }
+                    });
+            nodes.add(computedNode);
+            computedMiddles.add(computedNode);
+        }
+
+        nodes.add(new ReadOnlyRxProperty<>(Observable.combineLatest(rxMiddles,
+                new Function<Object[], Integer>() {
+                    @Override
+                    public Integer apply(Object[] values) {
+                        int sum = 0;
+                        for (Object value : values) {
+                            sum += (Integer) value;
+                        }
+                        return sum;
+                    }
+                })));
+        nodes.add(ReadOnlyRxProperty.computed(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int sum = 0;
+                for (ReadOnlyRxProperty<Integer> middle : computedMiddles) {
+                    sum += middle.get();
+                }
+                return sum;
+            }
+        }));
+    }
+}
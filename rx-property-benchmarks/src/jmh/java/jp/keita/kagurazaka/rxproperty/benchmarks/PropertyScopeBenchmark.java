@@ -0,0 +1,72 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.disposables.CompositeDisposable;
+import jp.keita.kagurazaka.rxproperty.PropertyScope;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Measures registering and tearing down many row properties, each with a subscription, in
+ * {@link PropertyScope} against {@link CompositeDisposable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PropertyScopeBenchmark {
+    @Param({"5000"})
+    public int rows;
+
+    private List<RxProperty<String>> properties;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        properties = new ArrayList<>(rows);
+    }
+
+    @Setup(Level.Invocation)
+    public void createProperties() {
+        properties.clear();
+        for (int i = 0; i < rows; ++i) {
+            properties.add(new RxProperty<>("RxProperty"));
+        }
+    }
+
+    @Benchmark
+    public PropertyScope propertyScope() {
+        PropertyScope scope = new PropertyScope();
+        for (RxProperty<String> property : properties) {
+            scope.add(property);
+            scope.add(property.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+        scope.dispose();
+        return scope;
+    }
+
+    @Benchmark
+    public CompositeDisposable compositeDisposable() {
+        CompositeDisposable disposables = new CompositeDisposable();
+        for (RxProperty<String> property : properties) {
+            disposables.add(property);
+            disposables.add(property.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+        disposables.dispose();
+        return disposables;
+    }
+}
@@ -0,0 +1,69 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.subjects.PublishSubject;
+import jp.keita.kagurazaka.rxproperty.ReadOnlyRxProperty;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Measures updates of {@link ReadOnlyRxProperty} driven by its source
+ * {@link io.reactivex.Observable}.
+ */
+@State(Scope.Thread)
+public class ReadOnlyRxPropertyBenchmark {
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    @Param({"true", "false"})
+    public boolean distinctUntilChanged;
+
+    private final String[] values = {"RxProperty", "Android"};
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private PublishSubject<String> source;
+
+    private ReadOnlyRxProperty<String> property;
+
+    private int index;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        EnumSet<RxProperty.Mode> mode = distinctUntilChanged ?
+                RxProperty.Mode.DEFAULT :
+                EnumSet.of(RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE);
+        source = PublishSubject.create();
+        property = new ReadOnlyRxProperty<>(source, values[0], mode);
+        property.addOnPropertyChangedCallback(Sinks.callback(blackhole));
+        for (int i = 0; i < subscribers; ++i) {
+            disposables.add(property.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        property.dispose();
+    }
+
+    @Benchmark
+    public void sourceOnNext() {
+        index ^= 1;
+        source.onNext(values[index]);
+    }
+
+    @Benchmark
+    public void sourceOnNextSameValue() {
+        source.onNext(values[0]);
+    }
+}
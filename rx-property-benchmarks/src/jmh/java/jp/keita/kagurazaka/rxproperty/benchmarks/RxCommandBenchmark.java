@@ -0,0 +1,55 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.subjects.PublishSubject;
+import jp.keita.kagurazaka.rxproperty.NoParameter;
+import jp.keita.kagurazaka.rxproperty.RxCommand;
+
+/**
+ * Measures {@link RxCommand#execute(Object)} and executions kicked through
+ * {@link RxCommand#bindTrigger(io.reactivex.Observable)}.
+ */
+@State(Scope.Thread)
+public class RxCommandBenchmark {
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private PublishSubject<NoParameter> trigger;
+
+    private RxCommand<NoParameter> command;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        trigger = PublishSubject.create();
+        command = new RxCommand<NoParameter>().bindTrigger(trigger);
+        for (int i = 0; i < subscribers; ++i) {
+            disposables.add(command.subscribe(Sinks.<NoParameter>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        command.dispose();
+    }
+
+    @Benchmark
+    public void execute() {
+        command.execute(NoParameter.INSTANCE);
+    }
+
+    @Benchmark
+    public void trigger() {
+        trigger.onNext(NoParameter.INSTANCE);
+    }
+}
@@ -0,0 +1,73 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+
+import io.reactivex.disposables.CompositeDisposable;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Measures {@link RxProperty#set(Object)} and {@link RxProperty#setWithoutViewUpdate(Object)}
+ * with a view callback and the given number of Rx subscribers attached.
+ */
+@State(Scope.Thread)
+public class RxPropertyBenchmark {
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    @Param({"true", "false"})
+    public boolean distinctUntilChanged;
+
+    private final String[] values = {"RxProperty", "Android"};
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private RxProperty<String> property;
+
+    private int index;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        EnumSet<RxProperty.Mode> mode = distinctUntilChanged ?
+                RxProperty.Mode.DEFAULT :
+                EnumSet.of(RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE);
+        property = new RxProperty<>(values[0], mode);
+        property.addOnPropertyChangedCallback(Sinks.callback(blackhole));
+        for (int i = 0; i < subscribers; ++i) {
+            disposables.add(property.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        property.dispose();
+    }
+
+    @Benchmark
+    public void set() {
+        property.set(nextValue());
+    }
+
+    @Benchmark
+    public void setWithoutViewUpdate() {
+        property.setWithoutViewUpdate(nextValue());
+    }
+
+    @Benchmark
+    public void setSameValue() {
+        property.set(values[0]);
+    }
+
+    private String nextValue() {
+        index ^= 1;
+        return values[index];
+    }
+}
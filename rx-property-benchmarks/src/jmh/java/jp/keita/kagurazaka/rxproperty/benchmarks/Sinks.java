@@ -0,0 +1,34 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import android.databinding.Observable;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.functions.Consumer;
+
+/**
+ * Subscribers and callbacks which hand every notification to a {@link Blackhole}.
+ */
+final class Sinks {
+    static <T> Consumer<T> consumer(final Blackhole blackhole) {
+        return new Consumer<T>() {
+            @Override
+            public void accept(T value) {
+                blackhole.consume(value);
+            }
+        };
+    }
+
+    static Observable.OnPropertyChangedCallback callback(final Blackhole blackhole) {
+        return new Observable.OnPropertyChangedCallback() {
+            @Override
+            public void onPropertyChanged(Observable sender, int propertyId) {
+                blackhole.consume(propertyId);
+            }
+        };
+    }
+
+    private Sinks() {
+        throw new AssertionError("No instances.");
+    }
+}
@@ -0,0 +1,70 @@
+package jp.keita.kagurazaka.rxproperty.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.disposables.CompositeDisposable;
+import jp.keita.kagurazaka.rxproperty.RxProperty;
+
+/**
+ * Measures {@link RxProperty#set(Object)} on a property with a validator set by
+ * {@link RxProperty#setValidator(RxProperty.SimpleValidator)}, alternating between a valid and an
+ * invalid value.
+ */
+@State(Scope.Thread)
+public class ValidationBenchmark {
+    @Param({"0", "1", "10", "100"})
+    public int subscribers;
+
+    private final String[] values = {"RxProperty", ""};
+
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    private RxProperty<String> property;
+
+    private RxProperty<String> unvalidatedProperty;
+
+    private int index;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        property = new RxProperty<>(values[0])
+                .setValidator(new RxProperty.SimpleValidator<String>() {
+                    @Override
+                    public String validate(String value) {
+                        return value.isEmpty() ? "Empty isn't allowed." : null;
+                    }
+                });
+        unvalidatedProperty = new RxProperty<>(values[0]);
+        for (int i = 0; i < subscribers; ++i) {
+            disposables.add(property.onErrorsChanged()
+                    .subscribe(Sinks.<Object>consumer(blackhole)));
+            disposables.add(property.subscribe(Sinks.<String>consumer(blackhole)));
+            disposables.add(unvalidatedProperty.subscribe(Sinks.<String>consumer(blackhole)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        disposables.clear();
+        property.dispose();
+        unvalidatedProperty.dispose();
+    }
+
+    @Benchmark
+    public void setWithValidator() {
+        index ^= 1;
+        property.set(values[index]);
+    }
+
+    @Benchmark
+    public void setWithoutValidator() {
+        index ^= 1;
+        unvalidatedProperty.set(values[index]);
+    }
+}
@@ -0,0 +1,185 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableBoolean;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+
+import io.reactivex.Observable;
+
+/**
+ * Two-way bindable and observable {@code boolean} property for Android Data Binding.
+ * <p>
+ * Unlike {@code RxProperty<Boolean>}, the value is stored unboxed and {@link
+ * RxProperty.Mode#DISTINCT_UNTIL_CHANGED} compares values with {@code ==}. The value is boxed only
+ * for Rx observers, so use {@link #addOnValueChangedListener(OnValueChangedListener)} to observe
+ * frequent changes without allocation.
+ */
+public class BooleanRxProperty extends PrimitiveRxProperty<Boolean> {
+    /**
+     * Listener to receive the new value of {@link BooleanRxProperty} without boxing.
+     */
+    public interface OnValueChangedListener {
+        /**
+         * Called when the value of {@link BooleanRxProperty} is changed.
+         *
+         * @param value the new value
+         */
+        void onValueChanged(boolean value);
+    }
+
+    @NonNull
+    private final BooleanRxPropertyValueField valueField;
+
+    /**
+     * Creates {@code BooleanRxProperty} with {@code false} as the initial value.
+     */
+    public BooleanRxProperty() {
+        this(false);
+    }
+
+    /**
+     * Creates {@code BooleanRxProperty} with the initial value.
+     *
+     * @param initialValue the initial value of this {@code BooleanRxProperty}
+     */
+    public BooleanRxProperty(boolean initialValue) {
+        this(Observable.<Boolean>never(), false, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code BooleanRxProperty} with the initial value and the specified mode.
+     *
+     * @param initialValue the initial value of this {@code BooleanRxProperty}
+     * @param mode         mode of this {@code BooleanRxProperty}
+     */
+    public BooleanRxProperty(boolean initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(Observable.<Boolean>never(), false, initialValue, mode);
+    }
+
+    /**
+     * Creates {@code BooleanRxProperty} from the specified {@link Observable} with the initial
+     * value.
+     *
+     * @param source       a source {@link Observable} of this {@code BooleanRxProperty}
+     * @param initialValue the initial value of this {@code BooleanRxProperty}
+     */
+    public BooleanRxProperty(@NonNull Observable<Boolean> source, boolean initialValue) {
+        this(source, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code BooleanRxProperty} from the specified {@link Observable} with the initial
+     * value and the specified mode.
+     *
+     * @param source       a source {@link Observable} of this {@code BooleanRxProperty}
+     * @param initialValue the initial value of this {@code BooleanRxProperty}
+     * @param mode         mode of this {@code BooleanRxProperty}
+     */
+    public BooleanRxProperty(@NonNull Observable<Boolean> source, boolean initialValue,
+                             @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(source, true, initialValue, mode);
+    }
+
+    private BooleanRxProperty(@NonNull Observable<Boolean> source, boolean hasSource,
+                              boolean initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        super(mode);
+        valueField = new BooleanRxPropertyValueField(this);
+        initialize(valueField, initialValue ? 1 : 0, source, hasSource);
+    }
+
+    /**
+     * Gets the latest value of this {@code BooleanRxProperty}.
+     *
+     * @return the latest value stored in this {@code BooleanRxProperty}
+     */
+    public boolean get() {
+        return readValue() != 0;
+    }
+
+    /**
+     * Sets the specified value to this {@code BooleanRxProperty}. The change will be notified to
+     * both bound view and observers of this {@code BooleanRxProperty}.
+     *
+     * @param value a value to set
+     */
+    public void set(boolean value) {
+        setValue(value ? 1 : 0, true);
+    }
+
+    /**
+     * Sets the specified value to this {@code BooleanRxProperty}. The change will be notified to
+     * observers of this {@code BooleanRxProperty} but not affect the bound view.
+     *
+     * @param value a value to set
+     */
+    public void setWithoutViewUpdate(boolean value) {
+        setValue(value ? 1 : 0, false);
+    }
+
+    /**
+     * Adds the specified listener which receives the new value without boxing.
+     *
+     * @param listener a listener to be called when the value is changed
+     */
+    public void addOnValueChangedListener(@NonNull OnValueChangedListener listener) {
+        addListener(listener);
+    }
+
+    /**
+     * Removes the specified listener.
+     *
+     * @param listener a listener to be removed
+     */
+    public void removeOnValueChangedListener(@Nullable OnValueChangedListener listener) {
+        removeListener(listener);
+    }
+
+    /**
+     * @deprecated This is a magic method for Data Binding. Don't call it in your code. To get the
+     * latest value of this property, use {@link BooleanRxProperty#get()} instead of this method.
+     */
+    @Deprecated
+    public ObservableBoolean getValue() {
+        return valueField;
+    }
+
+    @NonNull
+    @Override
+    Boolean box(long value) {
+        return value != 0;
+    }
+
+    @Override
+    long unbox(@NonNull Boolean value) {
+        return value ? 1 : 0;
+    }
+
+    @Override
+    void notifyListener(@NonNull Object listener, long value) {
+        ((OnValueChangedListener) listener).onValueChanged(value != 0);
+    }
+
+    /**
+     * Specialized {@link ObservableBoolean} to represent a value of {@link BooleanRxProperty},
+     * which is used in view binding.
+     */
+    private static class BooleanRxPropertyValueField extends ObservableBoolean {
+        private final BooleanRxProperty parent;
+
+        BooleanRxPropertyValueField(BooleanRxProperty parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean get() {
+            return parent.getRawValue() != 0;
+        }
+
+        @Override
+        public void set(boolean value) {
+            parent.dispatchValue(value ? 1 : 0, false);
+        }
+    }
+}
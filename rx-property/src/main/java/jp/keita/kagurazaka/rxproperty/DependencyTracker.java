@@ -0,0 +1,85 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+
+/**
+ * Records properties read on the current thread while a computed property is evaluated.
+ * <p>
+ * Frames are nested, so a computed property which reads another computed property records only
+ * its direct dependencies.
+ */
+final class DependencyTracker {
+    private static final AtomicInteger activeCount = new AtomicInteger();
+
+    private static final ThreadLocal<DependencyTracker> current = new ThreadLocal<>();
+
+    @Nullable
+    private final DependencyTracker parent;
+
+    @NonNull
+    private final Map<Observable<?>, Boolean> recorded = new IdentityHashMap<>();
+
+    @NonNull
+    private final List<Observable<?>> dependencies = new ArrayList<>();
+
+    private DependencyTracker(@Nullable DependencyTracker parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Records the specified property as a dependency of the computation running on the current
+     * thread, if any.
+     *
+     * @param property a property being read
+     */
+    static void record(@NonNull Observable<?> property) {
+        // Skip the thread local lookup while no computation is running on any thread.
+        if (activeCount.get() == 0) {
+            return;
+        }
+
+        DependencyTracker tracker = current.get();
+        if (tracker != null && tracker.recorded.put(property, Boolean.TRUE) == null) {
+            tracker.dependencies.add(property);
+        }
+    }
+
+    /**
+     * Starts a new frame on the current thread. {@link #stop()} must be called in a finally
+     * block.
+     *
+     * @return a new frame
+     */
+    @NonNull
+    static DependencyTracker start() {
+        DependencyTracker tracker = new DependencyTracker(current.get());
+        current.set(tracker);
+        activeCount.incrementAndGet();
+        return tracker;
+    }
+
+    /**
+     * Finishes this frame and restores the enclosing one.
+     *
+     * @return properties read in this frame in the order of the first read
+     */
+    @NonNull
+    List<Observable<?>> stop() {
+        activeCount.decrementAndGet();
+        if (parent != null) {
+            current.set(parent);
+        } else {
+            current.remove();
+        }
+        return dependencies;
+    }
+}
@@ -0,0 +1,186 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableDouble;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+
+import io.reactivex.Observable;
+
+/**
+ * Two-way bindable and observable {@code double} property for Android Data Binding.
+ * <p>
+ * Unlike {@code RxProperty<Double>}, the value is stored unboxed and
+ * {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} compares values by
+ * {@link Double#compare(double, double)}, so {@code NaN} is equal to itself. The value is boxed
+ * only for Rx observers, so use {@link #addOnValueChangedListener(OnValueChangedListener)} to
+ * observe frequent changes without allocation.
+ */
+public class DoubleRxProperty extends PrimitiveRxProperty<Double> {
+    /**
+     * Listener to receive the new value of {@link DoubleRxProperty} without boxing.
+     */
+    public interface OnValueChangedListener {
+        /**
+         * Called when the value of {@link DoubleRxProperty} is changed.
+         *
+         * @param value the new value
+         */
+        void onValueChanged(double value);
+    }
+
+    @NonNull
+    private final DoubleRxPropertyValueField valueField;
+
+    /**
+     * Creates {@code DoubleRxProperty} with {@code 0.0} as the initial value.
+     */
+    public DoubleRxProperty() {
+        this(0.0);
+    }
+
+    /**
+     * Creates {@code DoubleRxProperty} with the initial value.
+     *
+     * @param initialValue the initial value of this {@code DoubleRxProperty}
+     */
+    public DoubleRxProperty(double initialValue) {
+        this(Observable.<Double>never(), false, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code DoubleRxProperty} with the initial value and the specified mode.
+     *
+     * @param initialValue the initial value of this {@code DoubleRxProperty}
+     * @param mode         mode of this {@code DoubleRxProperty}
+     */
+    public DoubleRxProperty(double initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(Observable.<Double>never(), false, initialValue, mode);
+    }
+
+    /**
+     * Creates {@code DoubleRxProperty} from the specified {@link Observable} with the initial
+     * value.
+     *
+     * @param source       a source {@link Observable} of this {@code DoubleRxProperty}
+     * @param initialValue the initial value of this {@code DoubleRxProperty}
+     */
+    public DoubleRxProperty(@NonNull Observable<Double> source, double initialValue) {
+        this(source, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code DoubleRxProperty} from the specified {@link Observable} with the initial value
+     * and the specified mode.
+     *
+     * @param source       a source {@link Observable} of this {@code DoubleRxProperty}
+     * @param initialValue the initial value of this {@code DoubleRxProperty}
+     * @param mode         mode of this {@code DoubleRxProperty}
+     */
+    public DoubleRxProperty(@NonNull Observable<Double> source, double initialValue,
+                            @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(source, true, initialValue, mode);
+    }
+
+    private DoubleRxProperty(@NonNull Observable<Double> source, boolean hasSource,
+                             double initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        super(mode);
+        valueField = new DoubleRxPropertyValueField(this);
+        initialize(valueField, Double.doubleToLongBits(initialValue), source, hasSource);
+    }
+
+    /**
+     * Gets the latest value of this {@code DoubleRxProperty}.
+     *
+     * @return the latest value stored in this {@code DoubleRxProperty}
+     */
+    public double get() {
+        return Double.longBitsToDouble(readValue());
+    }
+
+    /**
+     * Sets the specified value to this {@code DoubleRxProperty}. The change will be notified to
+     * both bound view and observers of this {@code DoubleRxProperty}.
+     *
+     * @param value a value to set
+     */
+    public void set(double value) {
+        setValue(Double.doubleToLongBits(value), true);
+    }
+
+    /**
+     * Sets the specified value to this {@code DoubleRxProperty}. The change will be notified to
+     * observers of this {@code DoubleRxProperty} but not affect the bound view.
+     *
+     * @param value a value to set
+     */
+    public void setWithoutViewUpdate(double value) {
+        setValue(Double.doubleToLongBits(value), false);
+    }
+
+    /**
+     * Adds the specified listener which receives the new value without boxing.
+     *
+     * @param listener a listener to be called when the value is changed
+     */
+    public void addOnValueChangedListener(@NonNull OnValueChangedListener listener) {
+        addListener(listener);
+    }
+
+    /**
+     * Removes the specified listener.
+     *
+     * @param listener a listener to be removed
+     */
+    public void removeOnValueChangedListener(@Nullable OnValueChangedListener listener) {
+        removeListener(listener);
+    }
+
+    /**
+     * @deprecated This is a magic method for Data Binding. Don't call it in your code. To get the
+     * latest value of this property, use {@link DoubleRxProperty#get()} instead of this method.
+     */
+    @Deprecated
+    public ObservableDouble getValue() {
+        return valueField;
+    }
+
+    @NonNull
+    @Override
+    Double box(long value) {
+        return Double.longBitsToDouble(value);
+    }
+
+    @Override
+    long unbox(@NonNull Double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    @Override
+    void notifyListener(@NonNull Object listener, long value) {
+        ((OnValueChangedListener) listener).onValueChanged(Double.longBitsToDouble(value));
+    }
+
+    /**
+     * Specialized {@link ObservableDouble} to represent a value of {@link DoubleRxProperty}, which
+     * is used in view binding.
+     */
+    private static class DoubleRxPropertyValueField extends ObservableDouble {
+        private final DoubleRxProperty parent;
+
+        DoubleRxPropertyValueField(DoubleRxProperty parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public double get() {
+            return Double.longBitsToDouble(parent.getRawValue());
+        }
+
+        @Override
+        public void set(double value) {
+            parent.dispatchValue(Double.doubleToLongBits(value), false);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Strategy to decide whether a new value of a property is same as the current one in
+ * {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} mode.
+ *
+ * @param <T> the type of values to compare
+ * @see EqualityComparers
+ */
+public interface EqualityComparer<T> {
+    /**
+     * Compares the specified values.
+     *
+     * @param value   a new value
+     * @param current the current value
+     * @return true if the new value doesn't have to be notified; otherwise false
+     */
+    boolean areEqual(@NonNull T value, @NonNull T current);
+}
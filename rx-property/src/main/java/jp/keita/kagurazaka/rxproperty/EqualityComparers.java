@@ -0,0 +1,86 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Factory of common {@link EqualityComparer}s.
+ */
+public final class EqualityComparers {
+    private static final EqualityComparer<Object> EQUALITY = new EqualityComparer<Object>() {
+        @Override
+        public boolean areEqual(@NonNull Object value, @NonNull Object current) {
+            return value.equals(current);
+        }
+    };
+
+    private static final EqualityComparer<Object> IDENTITY = new EqualityComparer<Object>() {
+        @Override
+        public boolean areEqual(@NonNull Object value, @NonNull Object current) {
+            return value == current;
+        }
+    };
+
+    private static final EqualityComparer<Object> HASH_FIRST = new EqualityComparer<Object>() {
+        @Override
+        public boolean areEqual(@NonNull Object value, @NonNull Object current) {
+            return value == current
+                    || (value.hashCode() == current.hashCode() && value.equals(current));
+        }
+    };
+
+    /**
+     * Gets the comparer using {@link Object#equals(Object)}, which is the default one of
+     * properties.
+     *
+     * @param <T> the type of values to compare
+     * @return the comparer using {@link Object#equals(Object)}
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> EqualityComparer<T> equality() {
+        return (EqualityComparer<T>) EQUALITY;
+    }
+
+    /**
+     * Gets the comparer using the reference equality. This is the cheapest one for properties
+     * holding immutable values which are replaced on every change.
+     *
+     * @param <T> the type of values to compare
+     * @return the comparer using {@code ==}
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> EqualityComparer<T> identity() {
+        return (EqualityComparer<T>) IDENTITY;
+    }
+
+    /**
+     * Gets the comparer which compares hash codes before calling {@link Object#equals(Object)}.
+     * <p>
+     * Properties using this comparer cache the hash code of their current value, so only the
+     * new value is hashed on each set and {@code equals} is called only when the hash codes
+     * match. This suits large values, e.g. lists and maps, whose {@code equals} is expensive when
+     * they differ. A value mutated in place after it is set may be notified again even if the
+     * next value equals it, because the cached hash code is stale.
+     *
+     * @param <T> the type of values to compare
+     * @return the comparer comparing hash codes first
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> EqualityComparer<T> hashFirst() {
+        return (EqualityComparer<T>) HASH_FIRST;
+    }
+
+    /**
+     * Returns whether the specified comparer is {@link #hashFirst()}, for which properties use
+     * the cached hash code of their current value.
+     */
+    static boolean isHashFirst(@NonNull EqualityComparer<?> comparer) {
+        return comparer == HASH_FIRST;
+    }
+
+    private EqualityComparers() {
+        throw new AssertionError("No instances.");
+    }
+}
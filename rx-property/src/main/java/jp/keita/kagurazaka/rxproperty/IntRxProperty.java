@@ -0,0 +1,184 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+
+import io.reactivex.Observable;
+
+/**
+ * Two-way bindable and observable {@code int} property for Android Data Binding.
+ * <p>
+ * Unlike {@code RxProperty<Integer>}, the value is stored unboxed and {@link
+ * RxProperty.Mode#DISTINCT_UNTIL_CHANGED} compares values with {@code ==}. The value is boxed only
+ * for Rx observers, so use {@link #addOnValueChangedListener(OnValueChangedListener)} to observe
+ * frequent changes without allocation.
+ */
+public class IntRxProperty extends PrimitiveRxProperty<Integer> {
+    /**
+     * Listener to receive the new value of {@link IntRxProperty} without boxing.
+     */
+    public interface OnValueChangedListener {
+        /**
+         * Called when the value of {@link IntRxProperty} is changed.
+         *
+         * @param value the new value
+         */
+        void onValueChanged(int value);
+    }
+
+    @NonNull
+    private final IntRxPropertyValueField valueField;
+
+    /**
+     * Creates {@code IntRxProperty} with {@code 0} as the initial value.
+     */
+    public IntRxProperty() {
+        this(0);
+    }
+
+    /**
+     * Creates {@code IntRxProperty} with the initial value.
+     *
+     * @param initialValue the initial value of this {@code IntRxProperty}
+     */
+    public IntRxProperty(int initialValue) {
+        this(Observable.<Integer>never(), false, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code IntRxProperty} with the initial value and the specified mode.
+     *
+     * @param initialValue the initial value of this {@code IntRxProperty}
+     * @param mode         mode of this {@code IntRxProperty}
+     */
+    public IntRxProperty(int initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(Observable.<Integer>never(), false, initialValue, mode);
+    }
+
+    /**
+     * Creates {@code IntRxProperty} from the specified {@link Observable} with the initial value.
+     *
+     * @param source       a source {@link Observable} of this {@code IntRxProperty}
+     * @param initialValue the initial value of this {@code IntRxProperty}
+     */
+    public IntRxProperty(@NonNull Observable<Integer> source, int initialValue) {
+        this(source, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code IntRxProperty} from the specified {@link Observable} with the initial value
+     * and the specified mode.
+     *
+     * @param source       a source {@link Observable} of this {@code IntRxProperty}
+     * @param initialValue the initial value of this {@code IntRxProperty}
+     * @param mode         mode of this {@code IntRxProperty}
+     */
+    public IntRxProperty(@NonNull Observable<Integer> source, int initialValue,
+                         @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(source, true, initialValue, mode);
+    }
+
+    private IntRxProperty(@NonNull Observable<Integer> source, boolean hasSource,
+                          int initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        super(mode);
+        valueField = new IntRxPropertyValueField(this);
+        initialize(valueField, initialValue, source, hasSource);
+    }
+
+    /**
+     * Gets the latest value of this {@code IntRxProperty}.
+     *
+     * @return the latest value stored in this {@code IntRxProperty}
+     */
+    public int get() {
+        return (int) readValue();
+    }
+
+    /**
+     * Sets the specified value to this {@code IntRxProperty}. The change will be notified to both
+     * bound view and observers of this {@code IntRxProperty}.
+     *
+     * @param value a value to set
+     */
+    public void set(int value) {
+        setValue(value, true);
+    }
+
+    /**
+     * Sets the specified value to this {@code IntRxProperty}. The change will be notified to
+     * observers of this {@code IntRxProperty} but not affect the bound view.
+     *
+     * @param value a value to set
+     */
+    public void setWithoutViewUpdate(int value) {
+        setValue(value, false);
+    }
+
+    /**
+     * Adds the specified listener which receives the new value without boxing.
+     *
+     * @param listener a listener to be called when the value is changed
+     */
+    public void addOnValueChangedListener(@NonNull OnValueChangedListener listener) {
+        addListener(listener);
+    }
+
+    /**
+     * Removes the specified listener.
+     *
+     * @param listener a listener to be removed
+     */
+    public void removeOnValueChangedListener(@Nullable OnValueChangedListener listener) {
+        removeListener(listener);
+    }
+
+    /**
+     * @deprecated This is a magic method for Data Binding. Don't call it in your code. To get the
+     * latest value of this property, use {@link IntRxProperty#get()} instead of this method.
+     */
+    @Deprecated
+    public ObservableInt getValue() {
+        return valueField;
+    }
+
+    @NonNull
+    @Override
+    Integer box(long value) {
+        return (int) value;
+    }
+
+    @Override
+    long unbox(@NonNull Integer value) {
+        return value;
+    }
+
+    @Override
+    void notifyListener(@NonNull Object listener, long value) {
+        ((OnValueChangedListener) listener).onValueChanged((int) value);
+    }
+
+    /**
+     * Specialized {@link ObservableInt} to represent a value of {@link IntRxProperty}, which is
+     * used in view binding.
+     */
+    private static class IntRxPropertyValueField extends ObservableInt {
+        private final IntRxProperty parent;
+
+        IntRxPropertyValueField(IntRxProperty parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public int get() {
+            return (int) parent.getRawValue();
+        }
+
+        @Override
+        public void set(int value) {
+            parent.dispatchValue(value, false);
+        }
+    }
+}
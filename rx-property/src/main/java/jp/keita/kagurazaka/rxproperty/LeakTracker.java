@@ -0,0 +1,261 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Opt-in detector of properties and commands which are never disposed, intended for tests and
+ * debug builds.
+ * <p>
+ * While enabled, every {@link RxProperty}, {@link ReadOnlyRxProperty}, primitive specialized
+ * property and {@link RxCommand} created is tracked by a weak reference with its creation site.
+ * An instance which becomes unreachable before {@code dispose()} while it was subscribing a source
+ * or bound to a view is reported by {@link #pollLeaks()}. Instances which are still reachable and
+ * not disposed are counted per creation site by {@link #getLiveCounts()}, which reveals instances
+ * kept alive by their sources.
+ * <p>
+ * Capturing creation sites is expensive, so don't enable it in release builds.
+ */
+public final class LeakTracker {
+    private static volatile boolean isEnabled = false;
+
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    private static final Set<Record> live
+            = Collections.newSetFromMap(new ConcurrentHashMap<Record, Boolean>());
+
+    /**
+     * Starts tracking properties and commands created after this call.
+     */
+    public static void enable() {
+        isEnabled = true;
+    }
+
+    /**
+     * Stops tracking and forgets all tracked instances.
+     */
+    public static void disable() {
+        isEnabled = false;
+        live.clear();
+        while (queue.poll() != null) {
+            // Drop records of collected instances.
+        }
+    }
+
+    /**
+     * Returns whether tracking is enabled.
+     *
+     * @return true if properties and commands are tracked; otherwise false
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Returns instances found unreachable without being disposed since the last call, while they
+     * were subscribing a source or bound to a view. Run the garbage collector beforehand to find
+     * them.
+     *
+     * @return a list of leaks
+     */
+    @NonNull
+    public static List<Leak> pollLeaks() {
+        List<Leak> leaks = new ArrayList<>();
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            Record record = (Record) reference;
+            if (live.remove(record) && (record.hasSource || record.hasCancellable)) {
+                leaks.add(new Leak(record));
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * Counts reachable instances which haven't been disposed for each creation site.
+     *
+     * @return a map from creation sites to the numbers of live instances, sorted by the sites
+     */
+    @NonNull
+    public static Map<String, Integer> getLiveCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Record record : live) {
+            if (record.get() == null) {
+                continue;
+            }
+            Integer count = counts.get(record.creationSite);
+            counts.put(record.creationSite, count != null ? count + 1 : 1);
+        }
+        return counts;
+    }
+
+    /**
+     * Starts tracking the specified instance if enabled. This must be called at the end of the
+     * constructor.
+     *
+     * @param instance  a property or a command
+     * @param hasSource whether the instance subscribes a source
+     * @return a record to be updated by the instance, or null if disabled
+     */
+    @Nullable
+    static Record track(@NonNull Object instance, boolean hasSource) {
+        if (!isEnabled) {
+            return null;
+        }
+
+        Record record = new Record(instance, hasSource);
+        live.add(record);
+        return record;
+    }
+
+    /**
+     * Stops tracking the instance of the specified record because it has been disposed.
+     *
+     * @param record a record returned by {@link #track(Object, boolean)} or null
+     */
+    static void untrack(@Nullable Record record) {
+        if (record != null) {
+            live.remove(record);
+        }
+    }
+
+    private LeakTracker() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Property or command which was not disposed before becoming unreachable.
+     */
+    public static final class Leak {
+        @NonNull
+        private final String type;
+
+        @NonNull
+        private final String creationSite;
+
+        @NonNull
+        private final StackTraceElement[] creationTrace;
+
+        private final boolean hasSource;
+
+        private final boolean hasCancellable;
+
+        Leak(@NonNull Record record) {
+            type = record.type;
+            creationSite = record.creationSite;
+            creationTrace = record.creationTrace;
+            hasSource = record.hasSource;
+            hasCancellable = record.hasCancellable;
+        }
+
+        /**
+         * Gets the class name of the leaked instance.
+         *
+         * @return the class name
+         */
+        @NonNull
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Gets the stack frame which created the leaked instance.
+         *
+         * @return the creation site
+         */
+        @NonNull
+        public String getCreationSite() {
+            return creationSite;
+        }
+
+        /**
+         * Gets the stack trace which created the leaked instance, starting from the creation site.
+         *
+         * @return the creation stack trace
+         */
+        @NonNull
+        public StackTraceElement[] getCreationTrace() {
+            return creationTrace.clone();
+        }
+
+        /**
+         * Returns whether the leaked instance was subscribing a source.
+         *
+         * @return true if the instance had a source subscription; otherwise false
+         */
+        public boolean hasSource() {
+            return hasSource;
+        }
+
+        /**
+         * Returns whether the leaked instance was bound to a view.
+         *
+         * @return true if the instance held a binding {@link io.reactivex.functions.Cancellable};
+         * otherwise false
+         */
+        public boolean hasCancellable() {
+            return hasCancellable;
+        }
+
+        @Override
+        public String toString() {
+            return type + " created at " + creationSite + " was not disposed"
+                    + (hasSource ? " (source subscribed)" : "")
+                    + (hasCancellable ? " (bound to a view)" : "");
+        }
+    }
+
+    /**
+     * Tracking state of a property or a command.
+     */
+    static final class Record extends WeakReference<Object> {
+        @NonNull
+        final String type;
+
+        @NonNull
+        final String creationSite;
+
+        @NonNull
+        final StackTraceElement[] creationTrace;
+
+        volatile boolean hasSource;
+
+        volatile boolean hasCancellable = false;
+
+        Record(@NonNull Object instance, boolean hasSource) {
+            super(instance, queue);
+            this.type = instance.getClass().getName();
+            this.hasSource = hasSource;
+
+            // Skip frames of the tracker and constructors or factories of the instance.
+            Set<String> internals = new HashSet<>();
+            internals.add(LeakTracker.class.getName());
+            internals.add(Record.class.getName());
+            for (Class<?> c = instance.getClass(); c != null; c = c.getSuperclass()) {
+                internals.add(c.getName());
+            }
+
+            StackTraceElement[] trace = new Throwable().getStackTrace();
+            int start = 0;
+            while (start < trace.length - 1 && internals.contains(trace[start].getClassName())) {
+                ++start;
+            }
+            creationTrace = Arrays.copyOfRange(trace, start, trace.length);
+            creationSite = creationTrace.length != 0 ? creationTrace[0].toString() : "unknown";
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Change of a range of {@link RxListProperty} or an {@link android.databinding.ObservableList},
+ * which corresponds to a method of
+ * {@link android.databinding.ObservableList.OnListChangedCallback}.
+ */
+public final class ListChange {
+    /**
+     * Type of {@link ListChange}.
+     */
+    public enum Type {
+        /**
+         * Items in the range are replaced.
+         */
+        CHANGED,
+        /**
+         * Items are inserted at the position.
+         */
+        INSERTED,
+        /**
+         * Items in the range are removed.
+         */
+        REMOVED,
+        /**
+         * Items in the range are moved to another position.
+         */
+        MOVED,
+        /**
+         * The whole list may have changed. The range covers the whole list after the change.
+         * {@link RxListProperty} never emits this type.
+         */
+        RESET
+    }
+
+    @NonNull
+    private final Type type;
+
+    private final int position;
+
+    private final int toPosition;
+
+    private final int count;
+
+    private ListChange(@NonNull Type type, int position, int toPosition, int count) {
+        this.type = type;
+        this.position = position;
+        this.toPosition = toPosition;
+        this.count = count;
+    }
+
+    @NonNull
+    static ListChange changed(int position, int count) {
+        return new ListChange(Type.CHANGED, position, -1, count);
+    }
+
+    @NonNull
+    static ListChange inserted(int position, int count) {
+        return new ListChange(Type.INSERTED, position, -1, count);
+    }
+
+    @NonNull
+    static ListChange removed(int position, int count) {
+        return new ListChange(Type.REMOVED, position, -1, count);
+    }
+
+    @NonNull
+    static ListChange moved(int fromPosition, int toPosition, int count) {
+        return new ListChange(Type.MOVED, fromPosition, toPosition, count);
+    }
+
+    @NonNull
+    static ListChange reset(int count) {
+        return new ListChange(Type.RESET, 0, -1, count);
+    }
+
+    /**
+     * Gets the type of this change.
+     *
+     * @return the type of this change
+     */
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the start position of the changed range. For {@link Type#MOVED}, this is the position
+     * before the move.
+     *
+     * @return the start position of the changed range
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the position after the move.
+     *
+     * @return the position after the move if the type is {@link Type#MOVED}; otherwise -1
+     */
+    public int getToPosition() {
+        return toPosition;
+    }
+
+    /**
+     * Gets the number of changed items.
+     *
+     * @return the number of changed items
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ListChange)) {
+            return false;
+        }
+
+        ListChange other = (ListChange) obj;
+        return type == other.type
+                && position == other.position
+                && toPosition == other.toPosition
+                && count == other.count;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + position;
+        result = 31 * result + toPosition;
+        result = 31 * result + count;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ListChange{type=" + type
+                + ", position=" + position
+                + ", toPosition=" + toPosition
+                + ", count=" + count
+                + "}";
+    }
+}
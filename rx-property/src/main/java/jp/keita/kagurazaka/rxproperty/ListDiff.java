@@ -0,0 +1,337 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+
+/**
+ * Minimal edit script between two lists calculated by the Myers difference algorithm.
+ * <p>
+ * The calculation takes O((N + M) D) time and O(N + M) space, where N and M are the sizes of the
+ * lists and D is the number of inserted and removed items, so a small change of a large list is
+ * cheap. It doesn't touch any Android API and can run on any thread.
+ *
+ * @see RxListProperty#replace(List, EqualityComparer)
+ */
+public final class ListDiff {
+    @NonNull
+    private final List<ListChange> changes;
+
+    private ListDiff(@NonNull List<ListChange> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Calculates the difference between the specified lists, comparing items with
+     * {@link Object#equals(Object)}.
+     *
+     * @param oldList a list before the change
+     * @param newList a list after the change
+     * @param <T>     the type of items
+     * @return the difference between the lists
+     */
+    @NonNull
+    public static <T> ListDiff calculate(@NonNull List<? extends T> oldList,
+                                         @NonNull List<? extends T> newList) {
+        return calculate(oldList, newList, EqualityComparers.<T>equality());
+    }
+
+    /**
+     * Calculates the difference between the specified lists.
+     * <p>
+     * Items are matched by the specified comparer, e.g. by comparing their keys. Matched items
+     * which aren't equal by {@link Object#equals(Object)} are reported as
+     * {@link ListChange.Type#CHANGED}.
+     *
+     * @param oldList  a list before the change
+     * @param newList  a list after the change
+     * @param comparer a strategy to decide whether two items represent the same item
+     * @param <T>      the type of items
+     * @return the difference between the lists
+     */
+    @NonNull
+    public static <T> ListDiff calculate(@NonNull List<? extends T> oldList,
+                                         @NonNull List<? extends T> newList,
+                                         @NonNull EqualityComparer<? super T> comparer) {
+        Helper.checkNull(oldList, "oldList");
+        Helper.checkNull(newList, "newList");
+        Helper.checkNull(comparer, "comparer");
+
+        Matcher<T> matcher = new Matcher<>(oldList, newList, comparer);
+        matcher.run();
+        return new ListDiff(matcher.toChanges());
+    }
+
+    /**
+     * Gets the changes to turn the old list into the new one. Positions of each change assume
+     * that all preceding changes have been applied.
+     *
+     * @return an unmodifiable list of changes
+     */
+    @NonNull
+    public List<ListChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Finds matched items of two lists by the linear space variant of the Myers algorithm.
+     *
+     * @param <T> the type of items
+     */
+    private static final class Matcher<T> {
+        @NonNull
+        private final List<? extends T> oldList;
+
+        @NonNull
+        private final List<? extends T> newList;
+
+        @NonNull
+        private final EqualityComparer<? super T> comparer;
+
+        private final boolean checksContents;
+
+        @NonNull
+        private final int[] forward;
+
+        @NonNull
+        private final int[] backward;
+
+        private final int offset;
+
+        // Matched diagonals stored as (old position, new position, length) in ascending order.
+        @NonNull
+        private int[] snakes = new int[48];
+
+        private int snakeCount = 0;
+
+        // The result of the last middle snake search.
+        private int snakeStartX;
+        private int snakeStartY;
+        private int snakeEndX;
+        private int snakeEndY;
+
+        Matcher(@NonNull List<? extends T> oldList, @NonNull List<? extends T> newList,
+                @NonNull EqualityComparer<? super T> comparer) {
+            this.oldList = oldList;
+            this.newList = newList;
+            this.comparer = comparer;
+            this.checksContents = comparer != EqualityComparers.equality();
+
+            int max = (oldList.size() + newList.size() + 1) / 2 + 1;
+            offset = max;
+            forward = new int[2 * max + 2];
+            backward = new int[2 * max + 2];
+        }
+
+        void run() {
+            match(0, oldList.size(), 0, newList.size());
+        }
+
+        private void match(int oldStart, int oldEnd, int newStart, int newEnd) {
+            // Common items at the beginning and the end are matched without searching.
+            int prefix = 0;
+            while (oldStart + prefix < oldEnd && newStart + prefix < newEnd
+                    && isSame(oldStart + prefix, newStart + prefix)) {
+                ++prefix;
+            }
+            int suffix = 0;
+            while (oldEnd - suffix > oldStart + prefix && newEnd - suffix > newStart + prefix
+                    && isSame(oldEnd - suffix - 1, newEnd - suffix - 1)) {
+                ++suffix;
+            }
+
+            addSnake(oldStart, newStart, prefix);
+
+            int innerOldStart = oldStart + prefix;
+            int innerOldEnd = oldEnd - suffix;
+            int innerNewStart = newStart + prefix;
+            int innerNewEnd = newEnd - suffix;
+            if (innerOldStart < innerOldEnd && innerNewStart < innerNewEnd) {
+                // Both ranges are not empty and start and end with different items, so the edit
+                // distance is at least 2 and the middle snake splits them into smaller problems.
+                findMiddleSnake(innerOldStart, innerOldEnd, innerNewStart, innerNewEnd);
+                int startX = snakeStartX;
+                int startY = snakeStartY;
+                int endX = snakeEndX;
+                int endY = snakeEndY;
+
+                match(innerOldStart, startX, innerNewStart, startY);
+                addSnake(startX, startY, endX - startX);
+                match(endX, innerOldEnd, endY, innerNewEnd);
+            }
+
+            addSnake(oldEnd - suffix, newEnd - suffix, suffix);
+        }
+
+        private void findMiddleSnake(int oldStart, int oldEnd, int newStart, int newEnd) {
+            int n = oldEnd - oldStart;
+            int m = newEnd - newStart;
+            int delta = n - m;
+            boolean isOdd = (delta & 1) != 0;
+            int max = (n + m + 1) / 2;
+
+            // forward[k] is the furthest x on diagonal k = x - y from the beginning, and
+            // backward[c] is the furthest u on diagonal c = u - v from the end, where
+            // (u, v) = (n - x, m - y).
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+
+            for (int d = 0; d <= max; ++d) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x;
+                    if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])) {
+                        x = forward[offset + k + 1];
+                    } else {
+                        x = forward[offset + k - 1] + 1;
+                    }
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && isSame(oldStart + x, newStart + y)) {
+                        ++x;
+                        ++y;
+                    }
+                    forward[offset + k] = x;
+
+                    int c = delta - k;
+                    if (isOdd && c >= -(d - 1) && c <= d - 1
+                            && x + backward[offset + c] >= n) {
+                        setSnake(oldStart + startX, newStart + startY,
+                                oldStart + x, newStart + y);
+                        return;
+                    }
+                }
+
+                for (int c = -d; c <= d; c += 2) {
+                    int u;
+                    if (c == -d
+                            || (c != d && backward[offset + c - 1] < backward[offset + c + 1])) {
+                        u = backward[offset + c + 1];
+                    } else {
+                        u = backward[offset + c - 1] + 1;
+                    }
+                    int v = u - c;
+                    int startU = u;
+                    int startV = v;
+                    while (u < n && v < m
+                            && isSame(oldStart + n - u - 1, newStart + m - v - 1)) {
+                        ++u;
+                        ++v;
+                    }
+                    backward[offset + c] = u;
+
+                    int k = delta - c;
+                    if (!isOdd && k >= -d && k <= d && forward[offset + k] + u >= n) {
+                        setSnake(oldStart + n - u, newStart + m - v,
+                                oldStart + n - startU, newStart + m - startV);
+                        return;
+                    }
+                }
+            }
+
+            throw new IllegalStateException("The middle snake must be found.");
+        }
+
+        private void setSnake(int startX, int startY, int endX, int endY) {
+            snakeStartX = startX;
+            snakeStartY = startY;
+            snakeEndX = endX;
+            snakeEndY = endY;
+        }
+
+        private boolean isSame(int oldPosition, int newPosition) {
+            T oldItem = oldList.get(oldPosition);
+            T newItem = newList.get(newPosition);
+            if (oldItem == null || newItem == null) {
+                return oldItem == newItem;
+            }
+            return comparer.areEqual(newItem, oldItem);
+        }
+
+        private void addSnake(int x, int y, int length) {
+            if (length == 0) {
+                return;
+            }
+
+            // Merge with the previous snake if they are contiguous.
+            if (snakeCount > 0) {
+                int last = (snakeCount - 1) * 3;
+                if (snakes[last] + snakes[last + 2] == x
+                        && snakes[last + 1] + snakes[last + 2] == y) {
+                    snakes[last + 2] += length;
+                    return;
+                }
+            }
+
+            if (snakes.length < (snakeCount + 1) * 3) {
+                int[] next = new int[snakes.length * 2];
+                System.arraycopy(snakes, 0, next, 0, snakes.length);
+                snakes = next;
+            }
+            int index = snakeCount * 3;
+            snakes[index] = x;
+            snakes[index + 1] = y;
+            snakes[index + 2] = length;
+            ++snakeCount;
+        }
+
+        @NonNull
+        List<ListChange> toChanges() {
+            List<ListChange> changes = new ArrayList<>();
+            int x = 0;
+            int y = 0;
+            for (int i = 0; i <= snakeCount; ++i) {
+                int snakeX;
+                int snakeY;
+                int length;
+                if (i < snakeCount) {
+                    snakeX = snakes[i * 3];
+                    snakeY = snakes[i * 3 + 1];
+                    length = snakes[i * 3 + 2];
+                } else {
+                    snakeX = oldList.size();
+                    snakeY = newList.size();
+                    length = 0;
+                }
+
+                // Positions are in the new list because preceding changes are already applied.
+                if (snakeX > x) {
+                    changes.add(ListChange.removed(y, snakeX - x));
+                }
+                if (snakeY > y) {
+                    changes.add(ListChange.inserted(y, snakeY - y));
+                }
+                if (checksContents) {
+                    addContentChanges(changes, snakeX, snakeY, length);
+                }
+
+                x = snakeX + length;
+                y = snakeY + length;
+            }
+            return Collections.unmodifiableList(changes);
+        }
+
+        private void addContentChanges(@NonNull List<ListChange> changes, int x, int y,
+                                       int length) {
+            int start = -1;
+            for (int i = 0; i <= length; ++i) {
+                boolean isChanged = i < length && !isEqual(oldList.get(x + i), newList.get(y + i));
+                if (isChanged && start < 0) {
+                    start = i;
+                } else if (!isChanged && start >= 0) {
+                    changes.add(ListChange.changed(y + start, i - start));
+                    start = -1;
+                }
+            }
+        }
+
+        private static boolean isEqual(@Nullable Object oldItem, @Nullable Object newItem) {
+            return oldItem == newItem || (oldItem != null && oldItem.equals(newItem));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.Observable;
+import android.databinding.ObservableList;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import io.reactivex.ObservableEmitter;
+import io.reactivex.functions.Cancellable;
+
+/**
+ * Observer of an {@link ObservableList} which keeps a property callback attached to each item
+ * and emits changes of the items, for {@link Observe#itemsOf(ObservableList)}.
+ * <p>
+ * A mirror of the list is updated on each change of a range, so callbacks are attached and
+ * detached only for inserted, replaced and removed items. An item contained more than once is
+ * counted and observed by a single callback.
+ *
+ * @param <T> the type of items
+ */
+final class ListItemObserver<T extends Observable>
+        extends ObservableList.OnListChangedCallback<ObservableList<T>> {
+    @NonNull
+    private final ObservableEmitter<PropertyChange<T>> emitter;
+
+    // The mirror and the callbacks are guarded by this. Callbacks of items must not be added or
+    // removed while holding the lock, because an item may notify callbacks under its own lock.
+    @NonNull
+    private final ArrayList<T> items = new ArrayList<>();
+
+    @NonNull
+    private final IdentityHashMap<T, ItemCallback<T>> callbacks = new IdentityHashMap<>();
+
+    private boolean isDisposed = false;
+
+    /**
+     * Starts observing the specified list and its items until the emitter is disposed.
+     *
+     * @param list    the {@link ObservableList} to be observed
+     * @param emitter an emitter of changes of the items
+     * @param <T>     the type of items
+     */
+    static <T extends Observable> void observe(
+            @NonNull final ObservableList<T> list,
+            @NonNull ObservableEmitter<PropertyChange<T>> emitter
+    ) {
+        final ListItemObserver<T> observer = new ListItemObserver<>(emitter);
+        list.addOnListChangedCallback(observer);
+        observer.onChanged(list);
+        emitter.setCancellable(new Cancellable() {
+            @Override
+            public void cancel() throws Exception {
+                list.removeOnListChangedCallback(observer);
+                observer.dispose();
+            }
+        });
+    }
+
+    private ListItemObserver(@NonNull ObservableEmitter<PropertyChange<T>> emitter) {
+        this.emitter = emitter;
+    }
+
+    private void dispose() {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            isDisposed = true;
+            for (ItemCallback<T> callback : callbacks.values()) {
+                callback.isDetached = true;
+                changes.detached.add(callback);
+            }
+            callbacks.clear();
+            items.clear();
+        }
+        apply(changes);
+    }
+
+    @Override
+    public void onChanged(ObservableList<T> sender) {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            resync(sender, changes);
+        }
+        apply(changes);
+    }
+
+    @Override
+    public void onItemRangeChanged(ObservableList<T> sender, int positionStart, int itemCount) {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            if (items.size() != sender.size()) {
+                resync(sender, changes);
+            } else {
+                for (int i = positionStart; i < positionStart + itemCount; ++i) {
+                    T item = sender.get(i);
+                    T old = items.set(i, item);
+                    if (item != old) {
+                        attach(item, changes);
+                        detach(old, changes);
+                    }
+                }
+            }
+        }
+        apply(changes);
+    }
+
+    @Override
+    public void onItemRangeInserted(ObservableList<T> sender, int positionStart, int itemCount) {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            if (items.size() + itemCount != sender.size()) {
+                resync(sender, changes);
+            } else {
+                List<T> inserted = sender.subList(positionStart, positionStart + itemCount);
+                items.addAll(positionStart, inserted);
+                for (T item : inserted) {
+                    attach(item, changes);
+                }
+            }
+        }
+        apply(changes);
+    }
+
+    @Override
+    public void onItemRangeMoved(ObservableList<T> sender, int fromPosition, int toPosition,
+                                 int itemCount) {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            if (items.size() != sender.size()) {
+                resync(sender, changes);
+            } else {
+                // Moved items are still contained, so only the mirror is updated.
+                int start = Math.min(fromPosition, toPosition);
+                int end = Math.min(Math.max(fromPosition, toPosition) + itemCount, items.size());
+                for (int i = start; i < end; ++i) {
+                    items.set(i, sender.get(i));
+                }
+            }
+        }
+        apply(changes);
+    }
+
+    @Override
+    public void onItemRangeRemoved(ObservableList<T> sender, int positionStart, int itemCount) {
+        Changes<T> changes = new Changes<>();
+        synchronized (this) {
+            if (isDisposed) {
+                return;
+            }
+            if (items.size() - itemCount != sender.size()) {
+                resync(sender, changes);
+            } else {
+                List<T> removed = items.subList(positionStart, positionStart + itemCount);
+                for (T item : removed) {
+                    detach(item, changes);
+                }
+                removed.clear();
+            }
+        }
+        apply(changes);
+    }
+
+    private void resync(@NonNull List<T> list, @NonNull Changes<T> changes) {
+        ArrayList<T> old = new ArrayList<>(items);
+        items.clear();
+        items.addAll(list);
+        for (T item : items) {
+            attach(item, changes);
+        }
+        for (T item : old) {
+            detach(item, changes);
+        }
+    }
+
+    private void attach(@Nullable T item, @NonNull Changes<T> changes) {
+        if (item == null) {
+            return;
+        }
+        ItemCallback<T> callback = callbacks.get(item);
+        if (callback == null) {
+            callback = new ItemCallback<>(item, emitter);
+            callbacks.put(item, callback);
+            changes.attached.add(callback);
+        }
+        ++callback.count;
+    }
+
+    private void detach(@Nullable T item, @NonNull Changes<T> changes) {
+        if (item == null) {
+            return;
+        }
+        ItemCallback<T> callback = callbacks.get(item);
+        if (callback != null && --callback.count == 0) {
+            callbacks.remove(item);
+            callback.isDetached = true;
+            changes.detached.add(callback);
+        }
+    }
+
+    private static <T extends Observable> void apply(@NonNull Changes<T> changes) {
+        for (ItemCallback<T> callback : changes.attached) {
+            callback.item.addOnPropertyChangedCallback(callback);
+            // The item may have been detached by another thread before the callback was added.
+            if (callback.isDetached) {
+                callback.item.removeOnPropertyChangedCallback(callback);
+            }
+        }
+        for (ItemCallback<T> callback : changes.detached) {
+            callback.item.removeOnPropertyChangedCallback(callback);
+        }
+    }
+
+    /**
+     * Callbacks to be added to or removed from items after the lock is released.
+     */
+    private static final class Changes<T extends Observable> {
+        @NonNull
+        final List<ItemCallback<T>> attached = new ArrayList<>();
+
+        @NonNull
+        final List<ItemCallback<T>> detached = new ArrayList<>();
+    }
+
+    /**
+     * Callback attached to an item, which is added once and removed once.
+     */
+    private static final class ItemCallback<T extends Observable>
+            extends Observable.OnPropertyChangedCallback {
+        @NonNull
+        final T item;
+
+        @NonNull
+        private final ObservableEmitter<PropertyChange<T>> emitter;
+
+        // The number of occurrences of the item in the list, guarded by the observer.
+        int count = 0;
+
+        volatile boolean isDetached = false;
+
+        ItemCallback(@NonNull T item, @NonNull ObservableEmitter<PropertyChange<T>> emitter) {
+            this.item = item;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onPropertyChanged(Observable sender, int propertyId) {
+            if (!isDetached) {
+                emitter.onNext(new PropertyChange<>(item, propertyId));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableLong;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+
+import io.reactivex.Observable;
+
+/**
+ * Two-way bindable and observable {@code long} property for Android Data Binding.
+ * <p>
+ * Unlike {@code RxProperty<Long>}, the value is stored unboxed and {@link
+ * RxProperty.Mode#DISTINCT_UNTIL_CHANGED} compares values with {@code ==}. The value is boxed only
+ * for Rx observers, so use {@link #addOnValueChangedListener(OnValueChangedListener)} to observe
+ * frequent changes without allocation.
+ */
+public class LongRxProperty extends PrimitiveRxProperty<Long> {
+    /**
+     * Listener to receive the new value of {@link LongRxProperty} without boxing.
+     */
+    public interface OnValueChangedListener {
+        /**
+         * Called when the value of {@link LongRxProperty} is changed.
+         *
+         * @param value the new value
+         */
+        void onValueChanged(long value);
+    }
+
+    @NonNull
+    private final LongRxPropertyValueField valueField;
+
+    /**
+     * Creates {@code LongRxProperty} with {@code 0L} as the initial value.
+     */
+    public LongRxProperty() {
+        this(0L);
+    }
+
+    /**
+     * Creates {@code LongRxProperty} with the initial value.
+     *
+     * @param initialValue the initial value of this {@code LongRxProperty}
+     */
+    public LongRxProperty(long initialValue) {
+        this(Observable.<Long>never(), false, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code LongRxProperty} with the initial value and the specified mode.
+     *
+     * @param initialValue the initial value of this {@code LongRxProperty}
+     * @param mode         mode of this {@code LongRxProperty}
+     */
+    public LongRxProperty(long initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(Observable.<Long>never(), false, initialValue, mode);
+    }
+
+    /**
+     * Creates {@code LongRxProperty} from the specified {@link Observable} with the initial value.
+     *
+     * @param source       a source {@link Observable} of this {@code LongRxProperty}
+     * @param initialValue the initial value of this {@code LongRxProperty}
+     */
+    public LongRxProperty(@NonNull Observable<Long> source, long initialValue) {
+        this(source, initialValue, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code LongRxProperty} from the specified {@link Observable} with the initial value
+     * and the specified mode.
+     *
+     * @param source       a source {@link Observable} of this {@code LongRxProperty}
+     * @param initialValue the initial value of this {@code LongRxProperty}
+     * @param mode         mode of this {@code LongRxProperty}
+     */
+    public LongRxProperty(@NonNull Observable<Long> source, long initialValue,
+                          @NonNull EnumSet<RxProperty.Mode> mode) {
+        this(source, true, initialValue, mode);
+    }
+
+    private LongRxProperty(@NonNull Observable<Long> source, boolean hasSource,
+                           long initialValue, @NonNull EnumSet<RxProperty.Mode> mode) {
+        super(mode);
+        valueField = new LongRxPropertyValueField(this);
+        initialize(valueField, initialValue, source, hasSource);
+    }
+
+    /**
+     * Gets the latest value of this {@code LongRxProperty}.
+     *
+     * @return the latest value stored in this {@code LongRxProperty}
+     */
+    public long get() {
+        return readValue();
+    }
+
+    /**
+     * Sets the specified value to this {@code LongRxProperty}. The change will be notified to both
+     * bound view and observers of this {@code LongRxProperty}.
+     *
+     * @param value a value to set
+     */
+    public void set(long value) {
+        setValue(value, true);
+    }
+
+    /**
+     * Sets the specified value to this {@code LongRxProperty}. The change will be notified to
+     * observers of this {@code LongRxProperty} but not affect the bound view.
+     *
+     * @param value a value to set
+     */
+    public void setWithoutViewUpdate(long value) {
+        setValue(value, false);
+    }
+
+    /**
+     * Adds the specified listener which receives the new value without boxing.
+     *
+     * @param listener a listener to be called when the value is changed
+     */
+    public void addOnValueChangedListener(@NonNull OnValueChangedListener listener) {
+        addListener(listener);
+    }
+
+    /**
+     * Removes the specified listener.
+     *
+     * @param listener a listener to be removed
+     */
+    public void removeOnValueChangedListener(@Nullable OnValueChangedListener listener) {
+        removeListener(listener);
+    }
+
+    /**
+     * @deprecated This is a magic method for Data Binding. Don't call it in your code. To get the
+     * latest value of this property, use {@link LongRxProperty#get()} instead of this method.
+     */
+    @Deprecated
+    public ObservableLong getValue() {
+        return valueField;
+    }
+
+    @NonNull
+    @Override
+    Long box(long value) {
+        return value;
+    }
+
+    @Override
+    long unbox(@NonNull Long value) {
+        return value;
+    }
+
+    @Override
+    void notifyListener(@NonNull Object listener, long value) {
+        ((OnValueChangedListener) listener).onValueChanged(value);
+    }
+
+    /**
+     * Specialized {@link ObservableLong} to represent a value of {@link LongRxProperty}, which is
+     * used in view binding.
+     */
+    private static class LongRxPropertyValueField extends ObservableLong {
+        private final LongRxProperty parent;
+
+        LongRxPropertyValueField(LongRxProperty parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public long get() {
+            return parent.getRawValue();
+        }
+
+        @Override
+        public void set(long value) {
+            parent.dispatchValue(value, false);
+        }
+    }
+}
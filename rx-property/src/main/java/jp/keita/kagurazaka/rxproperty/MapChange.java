@@ -0,0 +1,87 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Change of an entry of an {@link android.databinding.ObservableMap}, which corresponds to a call
+ * of {@link android.databinding.ObservableMap.OnMapChangedCallback#onMapChanged}.
+ *
+ * @param <K> the type of keys
+ */
+public final class MapChange<K> {
+    /**
+     * Type of {@link MapChange}.
+     */
+    public enum Type {
+        /**
+         * An entry of the key is added or replaced.
+         */
+        PUT,
+        /**
+         * An entry of the key is removed.
+         */
+        REMOVED,
+        /**
+         * All entries are removed. The key is null.
+         * <p>
+         * Clearing a map whose only entry has the null key is reported as {@link #REMOVED} of
+         * that key instead.
+         */
+        CLEARED
+    }
+
+    @NonNull
+    private final Type type;
+
+    @Nullable
+    private final K key;
+
+    MapChange(@NonNull Type type, @Nullable K key) {
+        this.type = type;
+        this.key = key;
+    }
+
+    /**
+     * Gets the type of this change.
+     *
+     * @return the type of this change
+     */
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the key of the changed entry.
+     *
+     * @return the key of the changed entry, or null if the type is {@link Type#CLEARED}
+     */
+    @Nullable
+    public K getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MapChange)) {
+            return false;
+        }
+
+        MapChange<?> other = (MapChange<?>) obj;
+        return type == other.type && (key != null ? key.equals(other.key) : other.key == null);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + (key != null ? key.hashCode() : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "MapChange{type=" + type + ", key=" + key + "}";
+    }
+}
@@ -1,15 +1,28 @@
 package jp.keita.kagurazaka.rxproperty;
 
 import android.databinding.Observable;
+import android.databinding.ObservableList;
+import android.databinding.ObservableMap;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
 
 import io.reactivex.ObservableEmitter;
 import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.Scheduler;
 import io.reactivex.functions.Cancellable;
 import io.reactivex.functions.Function;
+import io.reactivex.observers.DisposableObserver;
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
 
 /**
  * Converter from {@link Observable} to {@link io.reactivex.Observable}.
+ * <p>
+ * All subscriptions to the same target share a single
+ * {@link Observable.OnPropertyChangedCallback}, which dispatches a change only to the
+ * subscriptions of the changed property and of all properties. The target is referenced weakly
+ * by the shared callback, which is removed from the target when the last subscription is disposed.
  */
 public final class Observe {
     /**
@@ -59,31 +72,13 @@ public final class Observe {
             final int targetPropertyId,
             @NonNull final Function<T, R> getter
     ) {
+        final int[] propertyIds = {targetPropertyId};
         return io.reactivex.Observable.create(
                 new ObservableOnSubscribe<R>() {
                     @Override
                     public void subscribe(final ObservableEmitter<R> emitter) throws Exception {
-                        final Observable.OnPropertyChangedCallback callback
-                                = new Observable.OnPropertyChangedCallback() {
-                            @Override
-                            public void onPropertyChanged(Observable sender, int propertyId) {
-                                try {
-                                    if (propertyId == targetPropertyId) {
-                                        emitter.onNext(getter.apply(target));
-                                    }
-                                } catch (Throwable e) {
-                                    emitter.onError(e);
-                                }
-                            }
-                        };
-
-                        target.addOnPropertyChangedCallback(callback);
-                        emitter.setCancellable(new Cancellable() {
-                            @Override
-                            public void cancel() throws Exception {
-                                target.removeOnPropertyChangedCallback(callback);
-                            }
-                        });
+                        PropertyMultiplexer.subscribe(target, propertyIds,
+                                new PropertySubscriber<>(emitter, getter));
                     }
                 }
         );
@@ -108,23 +103,262 @@ public final class Observe {
                 new ObservableOnSubscribe<T>() {
                     @Override
                     public void subscribe(final ObservableEmitter<T> emitter) throws Exception {
-                        final Observable.OnPropertyChangedCallback callback
-                                = new Observable.OnPropertyChangedCallback() {
+                        PropertyMultiplexer.subscribe(target, null,
+                                new AllPropertiesSubscriber<>(emitter));
+                    }
+                }
+        );
+    }
+
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link PropertyChange} when one of the
+     * specified properties of the target {@link Observable} changes.
+     * <p>
+     * Unlike subscribing {@link #propertyOf(Observable, int)} for each property, a single
+     * subscriber is registered for all the specified properties. When all properties of the target
+     * change, i.e. the target notifies {@link PropertyChange#ALL_PROPERTIES} ({@code BR._all}),
+     * a change with that id is emitted once.
+     * <p>
+     * The created {@link io.reactivex.Observable} never emits {@code onComplete} notification,
+     * so {@link io.reactivex.Observer} must dispose the connection to avoid leak.
+     *
+     * @param target      the {@link Observable} to be observed
+     * @param propertyIds the property ids of the target {@link Observable}
+     *                    (e.g. BR.some_property)
+     * @param <T>         the type of {@code target}
+     * @return an {@link io.reactivex.Observable} that emits a {@link PropertyChange} when one of
+     * the specified properties of the target {@link Observable} changes
+     */
+    public static <T extends Observable> io.reactivex.Observable<PropertyChange<T>> propertiesOf(
+            @NonNull final T target, @NonNull int... propertyIds
+    ) {
+        Helper.checkNull(target, "target");
+        Helper.checkNull(propertyIds, "propertyIds");
+
+        // The ids are built once and shared by all subscriptions.
+        final int[] distinctIds = toDistinctIds(propertyIds);
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<PropertyChange<T>>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<PropertyChange<T>> emitter)
+                            throws Exception {
+                        PropertyMultiplexer.subscribe(target, distinctIds,
+                                new PropertiesSubscriber<>(emitter));
+                    }
+                }
+        );
+    }
+
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link PropertyChangeSet} of the
+     * target {@link Observable} once per burst of changes.
+     * <p>
+     * Changed property ids are accumulated, and the first change after an emission schedules the
+     * next emission on the specified {@link Scheduler}. Therefore a handler which updates many
+     * properties at once causes a single emission on the scheduler, instead of one emission per
+     * property as {@link #allPropertiesOf(Observable)} does. The sets are emitted serially even if
+     * the scheduler runs tasks in parallel.
+     * <p>
+     * The created {@link io.reactivex.Observable} never emits {@code onComplete} notification,
+     * so {@link io.reactivex.Observer} must dispose the connection to avoid leak.
+     *
+     * @param target    the {@link Observable} to be observed
+     * @param scheduler a scheduler to emit the change sets on
+     * @param <T>       the type of {@code target}
+     * @return an {@link io.reactivex.Observable} that emits a {@link PropertyChangeSet} of the
+     * target {@link Observable} once per burst of changes
+     */
+    public static <T extends Observable> io.reactivex.Observable<PropertyChangeSet<T>> changeSetsOf(
+            @NonNull final T target, @NonNull final Scheduler scheduler
+    ) {
+        Helper.checkNull(target, "target");
+        Helper.checkNull(scheduler, "scheduler");
+
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<PropertyChangeSet<T>>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<PropertyChangeSet<T>> emitter)
+                            throws Exception {
+                        PropertyMultiplexer.subscribe(target, null,
+                                new ScheduledChangeSetSubscriber<T>(emitter, scheduler));
+                    }
+                }
+        );
+    }
+
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link PropertyChangeSet} of the
+     * target {@link Observable} whenever {@code flushes} emits, if any property has changed since
+     * the previous set.
+     * <p>
+     * The created {@link io.reactivex.Observable} emits the pending changes and completes when
+     * {@code flushes} completes, and emits {@code onError} when {@code flushes} does.
+     *
+     * @param target  the {@link Observable} to be observed
+     * @param flushes an {@link io.reactivex.Observable} which triggers emissions of the change
+     *                sets
+     * @param <T>     the type of {@code target}
+     * @return an {@link io.reactivex.Observable} that emits a {@link PropertyChangeSet} of the
+     * target {@link Observable} whenever {@code flushes} emits
+     */
+    public static <T extends Observable> io.reactivex.Observable<PropertyChangeSet<T>> changeSetsOf(
+            @NonNull final T target, @NonNull final io.reactivex.Observable<?> flushes
+    ) {
+        Helper.checkNull(target, "target");
+        Helper.checkNull(flushes, "flushes");
+
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<PropertyChangeSet<T>>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<PropertyChangeSet<T>> emitter)
+                            throws Exception {
+                        if (emitter.isDisposed()) {
+                            return;
+                        }
+                        TriggeredChangeSetSubscriber<T> subscriber
+                                = new TriggeredChangeSetSubscriber<>(emitter);
+                        PropertyMultiplexer.subscribe(target, null, subscriber);
+
+                        // Flushes are subscribed last, because they may be emitted on subscribe.
+                        if (emitter.isDisposed()) {
+                            return;
+                        }
+                        flushes.subscribe(subscriber.flushObserver);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link ListChange} for each change of
+     * the target {@link ObservableList}.
+     * <p>
+     * Each method of {@link ObservableList.OnListChangedCallback} is converted into a change of the
+     * range, and {@link ObservableList.OnListChangedCallback#onChanged(ObservableList)} is
+     * converted into {@link ListChange.Type#RESET} covering the whole list.
+     * <p>
+     * The created {@link io.reactivex.Observable} never emits {@code onComplete} notification,
+     * so {@link io.reactivex.Observer} must dispose the connection to avoid leak.
+     *
+     * @param target the {@link ObservableList} to be observed
+     * @param <T>    the type of items
+     * @return an {@link io.reactivex.Observable} that emits a {@link ListChange} for each change
+     * of the target {@link ObservableList}
+     */
+    public static <T> io.reactivex.Observable<ListChange> listChangesOf(
+            @NonNull final ObservableList<T> target
+    ) {
+        Helper.checkNull(target, "target");
+
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<ListChange>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<ListChange> emitter)
+                            throws Exception {
+                        final ObservableList.OnListChangedCallback<ObservableList<T>> callback
+                                = new ObservableList.OnListChangedCallback<ObservableList<T>>() {
+                            @Override
+                            public void onChanged(ObservableList<T> sender) {
+                                emitter.onNext(ListChange.reset(sender.size()));
+                            }
+
+                            @Override
+                            public void onItemRangeChanged(
+                                    ObservableList<T> sender, int positionStart, int itemCount) {
+                                emitter.onNext(ListChange.changed(positionStart, itemCount));
+                            }
+
+                            @Override
+                            public void onItemRangeInserted(
+                                    ObservableList<T> sender, int positionStart, int itemCount) {
+                                emitter.onNext(ListChange.inserted(positionStart, itemCount));
+                            }
+
+                            @Override
+                            public void onItemRangeMoved(ObservableList<T> sender,
+                                                         int fromPosition, int toPosition,
+                                                         int itemCount) {
+                                emitter.onNext(
+                                        ListChange.moved(fromPosition, toPosition, itemCount));
+                            }
+
+                            @Override
+                            public void onItemRangeRemoved(
+                                    ObservableList<T> sender, int positionStart, int itemCount) {
+                                emitter.onNext(ListChange.removed(positionStart, itemCount));
+                            }
+                        };
+
+                        target.addOnListChangedCallback(callback);
+                        emitter.setCancellable(new Cancellable() {
                             @Override
-                            public void onPropertyChanged(Observable sender, int propertyId) {
-                                try {
-                                    emitter.onNext(target);
-                                } catch (Throwable e) {
-                                    emitter.onError(e);
+                            public void cancel() throws Exception {
+                                target.removeOnListChangedCallback(callback);
+                            }
+                        });
+                    }
+                }
+        );
+    }
+
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link MapChange} for each change of
+     * the target {@link ObservableMap}.
+     * <p>
+     * {@link ObservableMap.OnMapChangedCallback} reports only the changed key, so the type of the
+     * change is determined from the map when it is notified: {@link MapChange.Type#PUT} if the map
+     * contains the key, {@link MapChange.Type#CLEARED} if the key is null and the map has become
+     * empty unless its only entry had the null key, and {@link MapChange.Type#REMOVED} otherwise.
+     * Clearing a map whose only entry has the null key is reported as removal of that entry,
+     * because both leave the map in the same state.
+     * <p>
+     * The created {@link io.reactivex.Observable} never emits {@code onComplete} notification,
+     * so {@link io.reactivex.Observer} must dispose the connection to avoid leak.
+     *
+     * @param target the {@link ObservableMap} to be observed
+     * @param <K>    the type of keys
+     * @param <V>    the type of values
+     * @return an {@link io.reactivex.Observable} that emits a {@link MapChange} for each change
+     * of the target {@link ObservableMap}
+     */
+    public static <K, V> io.reactivex.Observable<MapChange<K>> mapChangesOf(
+            @NonNull final ObservableMap<K, V> target
+    ) {
+        Helper.checkNull(target, "target");
+
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<MapChange<K>>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<MapChange<K>> emitter)
+                            throws Exception {
+                        final MapCallback<K, V> callback = new MapCallback<K, V>() {
+                            // Whether the only entry of the map had the null key before the
+                            // change, which distinguishes its removal from clearing the map.
+                            private boolean hasOnlyNullKey = hasOnlyNullKey(target);
+
+                            @Override
+                            public void onMapChanged(ObservableMap<K, V> sender, K key) {
+                                MapChange.Type type;
+                                synchronized (this) {
+                                    if (sender.containsKey(key)) {
+                                        type = MapChange.Type.PUT;
+                                    } else if (key == null && sender.isEmpty()
+                                            && !hasOnlyNullKey) {
+                                        type = MapChange.Type.CLEARED;
+                                    } else {
+                                        type = MapChange.Type.REMOVED;
+                                    }
+                                    hasOnlyNullKey = hasOnlyNullKey(sender);
                                 }
+                                emitter.onNext(new MapChange<>(type, key));
                             }
                         };
 
-                        target.addOnPropertyChangedCallback(callback);
+                        target.addOnMapChangedCallback(callback);
                         emitter.setCancellable(new Cancellable() {
                             @Override
                             public void cancel() throws Exception {
-                                target.removeOnPropertyChangedCallback(callback);
+                                target.removeOnMapChangedCallback(callback);
                             }
                         });
                     }
@@ -132,7 +366,273 @@ public final class Observe {
         );
     }
 
+    /**
+     * Create an {@link io.reactivex.Observable} that emits a {@link PropertyChange} when a property
+     * of an item of the target {@link ObservableList} changes.
+     * <p>
+     * A callback is attached to each item on subscription, and then callbacks are attached to and
+     * detached from only the inserted, replaced and removed items as the list changes. An item
+     * contained more than once emits each of its changes once.
+     * <p>
+     * The created {@link io.reactivex.Observable} never emits {@code onComplete} notification,
+     * so {@link io.reactivex.Observer} must dispose the connection to avoid leak.
+     *
+     * @param target the {@link ObservableList} to be observed
+     * @param <T>    the type of items
+     * @return an {@link io.reactivex.Observable} that emits a {@link PropertyChange} when a
+     * property of an item of the target {@link ObservableList} changes
+     */
+    public static <T extends Observable> io.reactivex.Observable<PropertyChange<T>> itemsOf(
+            @NonNull final ObservableList<T> target
+    ) {
+        Helper.checkNull(target, "target");
+
+        return io.reactivex.Observable.create(
+                new ObservableOnSubscribe<PropertyChange<T>>() {
+                    @Override
+                    public void subscribe(final ObservableEmitter<PropertyChange<T>> emitter)
+                            throws Exception {
+                        ListItemObserver.observe(target, emitter);
+                    }
+                }
+        );
+    }
+
+    private static boolean hasOnlyNullKey(@NonNull ObservableMap<?, ?> map) {
+        // Checks the key by iteration, because containsKey(null) may throw for some maps.
+        return map.size() == 1 && map.keySet().iterator().next() == null;
+    }
+
+    /**
+     * Returns the sorted distinct ids of the specified ones and
+     * {@link PropertyChange#ALL_PROPERTIES}.
+     */
+    @NonNull
+    private static int[] toDistinctIds(@NonNull int[] propertyIds) {
+        int[] ids = Arrays.copyOf(propertyIds, propertyIds.length + 1);
+        ids[propertyIds.length] = PropertyChange.ALL_PROPERTIES;
+        for (int id : propertyIds) {
+            if (id < 0) {
+                throw new IllegalArgumentException("propertyIds must not be negative.");
+            }
+        }
+        Arrays.sort(ids);
+
+        int count = 1;
+        for (int i = 1; i < ids.length; ++i) {
+            if (ids[i] != ids[count - 1]) {
+                ids[count++] = ids[i];
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
     private Observe() {
         throw new AssertionError("No instances.");
     }
+
+    // Shortens the type of map callbacks.
+    private abstract static class MapCallback<K, V>
+            extends ObservableMap.OnMapChangedCallback<ObservableMap<K, V>, K, V> {
+    }
+
+    // Subscribers are static classes and receive the target on each change, so that they don't
+    // keep the weakly referenced target alive.
+
+    private static final class PropertySubscriber<T extends Observable, R>
+            extends PropertyMultiplexer.Subscriber<R> {
+        @NonNull
+        private final Function<T, R> getter;
+
+        PropertySubscriber(@NonNull ObservableEmitter<R> emitter, @NonNull Function<T, R> getter) {
+            super(emitter);
+            this.getter = getter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void onPropertyChanged(@NonNull Observable target, int propertyId) throws Exception {
+            emitter.onNext(getter.apply((T) target));
+        }
+    }
+
+    private static final class AllPropertiesSubscriber<T extends Observable>
+            extends PropertyMultiplexer.Subscriber<T> {
+        AllPropertiesSubscriber(@NonNull ObservableEmitter<T> emitter) {
+            super(emitter);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void onPropertyChanged(@NonNull Observable target, int propertyId) {
+            emitter.onNext((T) target);
+        }
+    }
+
+    private static final class PropertiesSubscriber<T extends Observable>
+            extends PropertyMultiplexer.Subscriber<PropertyChange<T>> {
+        PropertiesSubscriber(@NonNull ObservableEmitter<PropertyChange<T>> emitter) {
+            super(emitter);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void onPropertyChanged(@NonNull Observable target, int propertyId) {
+            emitter.onNext(new PropertyChange<>((T) target, propertyId));
+        }
+    }
+
+    private abstract static class ChangeSetSubscriber<T extends Observable>
+            extends PropertyMultiplexer.Subscriber<PropertyChangeSet<T>> {
+        // Ids below this are kept in the bit set, so that a large id doesn't grow it unboundedly.
+        private static final int MAX_DENSE_ID = 1023;
+
+        private static final int[] NO_IDS = new int[0];
+
+        // Pending changes guarded by this.
+        @Nullable
+        private T pendingTarget = null;
+
+        @NonNull
+        private long[] pendingIds = new long[1];
+
+        // Sorted ids beyond MAX_DENSE_ID, whose first pendingLargeIdCount elements are used.
+        @NonNull
+        private int[] pendingLargeIds = NO_IDS;
+
+        private int pendingLargeIdCount = 0;
+
+        ChangeSetSubscriber(@NonNull ObservableEmitter<PropertyChangeSet<T>> emitter) {
+            super(emitter);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void onPropertyChanged(@NonNull Observable target, int propertyId) {
+            if (propertyId < 0) {
+                return;
+            }
+
+            boolean isFirst;
+            synchronized (this) {
+                isFirst = pendingTarget == null;
+                pendingTarget = (T) target;
+                if (propertyId <= MAX_DENSE_ID) {
+                    int index = propertyId >>> 6;
+                    if (index >= pendingIds.length) {
+                        pendingIds = Arrays.copyOf(pendingIds, index + 1);
+                    }
+                    pendingIds[index] |= 1L << propertyId;
+                } else {
+                    addLargeId(propertyId);
+                }
+            }
+
+            if (isFirst) {
+                onFirstChange();
+            }
+        }
+
+        /**
+         * Called when a property changes while no change is pending.
+         */
+        void onFirstChange() {
+        }
+
+        final void flush() {
+            T target;
+            long[] ids;
+            int[] largeIds;
+            synchronized (this) {
+                target = pendingTarget;
+                if (target == null) {
+                    return;
+                }
+                ids = pendingIds;
+                largeIds = pendingLargeIdCount == 0
+                        ? NO_IDS : Arrays.copyOf(pendingLargeIds, pendingLargeIdCount);
+                pendingTarget = null;
+                pendingIds = new long[ids.length];
+                pendingLargeIdCount = 0;
+            }
+            emitter.onNext(new PropertyChangeSet<>(target, ids, largeIds));
+        }
+
+        private void addLargeId(int propertyId) {
+            int index = Arrays.binarySearch(pendingLargeIds, 0, pendingLargeIdCount, propertyId);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (pendingLargeIdCount == pendingLargeIds.length) {
+                pendingLargeIds = Arrays.copyOf(pendingLargeIds,
+                        Math.max(4, pendingLargeIdCount * 2));
+            }
+            System.arraycopy(pendingLargeIds, index, pendingLargeIds, index + 1,
+                    pendingLargeIdCount - index);
+            pendingLargeIds[index] = propertyId;
+            ++pendingLargeIdCount;
+        }
+    }
+
+    private static final class ScheduledChangeSetSubscriber<T extends Observable>
+            extends ChangeSetSubscriber<T> implements Runnable {
+        // Tasks of a worker never overlap, so the sets are emitted serially.
+        @NonNull
+        private final Scheduler.Worker worker;
+
+        ScheduledChangeSetSubscriber(
+                @NonNull ObservableEmitter<PropertyChangeSet<T>> emitter,
+                @NonNull Scheduler scheduler
+        ) {
+            super(emitter);
+            worker = scheduler.createWorker();
+        }
+
+        @Override
+        void onFirstChange() {
+            worker.schedule(this);
+        }
+
+        @Override
+        public void run() {
+            flush();
+        }
+
+        @Override
+        void onDisposed() {
+            worker.dispose();
+        }
+    }
+
+    private static final class TriggeredChangeSetSubscriber<T extends Observable>
+            extends ChangeSetSubscriber<T> {
+        @NonNull
+        final DisposableObserver<Object> flushObserver = new DisposableObserver<Object>() {
+            @Override
+            public void onNext(Object o) {
+                flush();
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                emitter.onError(e);
+            }
+
+            @Override
+            public void onComplete() {
+                flush();
+                emitter.onComplete();
+            }
+        };
+
+        TriggeredChangeSetSubscriber(@NonNull ObservableEmitter<PropertyChangeSet<T>> emitter) {
+            super(emitter);
+        }
+
+        @Override
+        void onDisposed() {
+            flushObserver.dispose();
+        }
+    }
 }
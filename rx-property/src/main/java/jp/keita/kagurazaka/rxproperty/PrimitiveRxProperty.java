@@ -0,0 +1,375 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.BaseObservable;
+import android.databinding.PropertyChangeRegistry;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.observers.DisposableObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.PropertyEmitter;
+
+/**
+ * Common implementation of the primitive specialized properties such as {@link IntRxProperty}.
+ * <p>
+ * The value is boxed only when it is emitted to Rx observers, so a property without observers
+ * never allocates on update. Subclasses encode their value into a {@code long}, and
+ * {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} compares the encoded values.
+ *
+ * @param <T> the boxed type of the inner property
+ */
+abstract class PrimitiveRxProperty<T>
+        extends Observable<T>
+        implements android.databinding.Observable, Disposable {
+    private static final Object[] NO_LISTENERS = new Object[0];
+
+    private final boolean isDistinctUntilChanged;
+
+    private final boolean isCoalescingViewNotifications;
+
+    @NonNull
+    final PropertyEmitter<T> valueEmitter;
+
+    @NonNull
+    private final Notifier notifier = new Notifier();
+
+    // Set by initialize().
+    private BaseObservable valueField;
+
+    private long value;
+
+    @Nullable
+    private volatile PropertyChangeRegistry callbacks = null;
+
+    @NonNull
+    private volatile Object[] listeners = NO_LISTENERS;
+
+    @NonNull
+    private final AtomicBoolean isDisposed = new AtomicBoolean(false);
+
+    @Nullable
+    private Cancellable cancellable = null;
+
+    @Nullable
+    private Disposable sourceDisposable = null;
+
+    @Nullable
+    private LeakTracker.Record leakRecord = null;
+
+    PrimitiveRxProperty(@NonNull EnumSet<RxProperty.Mode> mode) {
+        Helper.checkNull(mode, "mode");
+
+        // Set modes.
+        isDistinctUntilChanged
+                = !mode.contains(RxProperty.Mode.NONE)
+                && mode.contains(RxProperty.Mode.DISTINCT_UNTIL_CHANGED);
+        boolean isRaiseLatestValueOnSubscribe
+                = !mode.contains(RxProperty.Mode.NONE)
+                && mode.contains(RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE);
+        isCoalescingViewNotifications
+                = !mode.contains(RxProperty.Mode.NONE)
+                && mode.contains(RxProperty.Mode.COALESCE_VIEW_NOTIFICATIONS);
+
+        // Create an emitter which boxes the latest value only on subscribe.
+        valueEmitter = new PropertyEmitter<T>(isRaiseLatestValueOnSubscribe) {
+            @Nullable
+            @Override
+            protected T getLatest() {
+                return box(value);
+            }
+        };
+    }
+
+    /**
+     * Stops receiving notifications by the source {@link Observable} and send notifications to
+     * observers of this property.
+     */
+    @Override
+    public void dispose() {
+        if (isDisposed.compareAndSet(false, true)) {
+            // Terminate the internal emitter.
+            valueEmitter.onComplete();
+
+            // Dispose the source subscription.
+            Helper.safeDispose(sourceDisposable);
+
+            // Unbind a view observer.
+            Helper.safeCancel(cancellable);
+            cancellable = null;
+            ViewNotifications.cancel(notifier);
+
+            LeakTracker.untrack(leakRecord);
+        }
+    }
+
+    /**
+     * Indicates whether this property is currently disposed.
+     *
+     * @return {@code true} if this property has no {@link Observable} as source or is currently
+     * disposed, {@code false} otherwise
+     */
+    @Override
+    public boolean isDisposed() {
+        return isDisposed.get();
+    }
+
+    @Override
+    public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+        PropertyChangeRegistry callbacks = this.callbacks;
+        if (callbacks == null) {
+            synchronized (isDisposed) {
+                callbacks = this.callbacks;
+                if (callbacks == null) {
+                    callbacks = new PropertyChangeRegistry();
+                    this.callbacks = callbacks;
+                }
+            }
+        }
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+        PropertyChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Forcibly notifies the latest value of this property to all observers including the bound
+     * view. This method ignores {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED}.
+     */
+    public void forceNotify() {
+        dispatchValue(value, true);
+    }
+
+    /**
+     * @deprecated This is a magic method for Data Binding. Don't call it in your code except
+     * in {@link android.databinding.BindingAdapter} implementation.
+     */
+    @Deprecated
+    public void setCancellable(@Nullable Cancellable cancellable) {
+        Helper.safeCancel(this.cancellable);
+        this.cancellable = cancellable;
+        LeakTracker.Record leakRecord = this.leakRecord;
+        if (leakRecord != null) {
+            leakRecord.hasCancellable = cancellable != null;
+        }
+    }
+
+    /**
+     * Converts this property into a {@link Flowable} which conflates values for slow
+     * subscribers, in the same way as {@link RxProperty#toFlowable()}.
+     *
+     * @return a {@link Flowable} to emit values of this property with the latest value
+     * conflation
+     */
+    @NonNull
+    public Flowable<T> toFlowable() {
+        return toFlowable(BackpressureStrategy.LATEST);
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        valueEmitter.subscribe(observer);
+    }
+
+    /**
+     * Boxes the specified encoded value.
+     */
+    @NonNull
+    abstract T box(long value);
+
+    /**
+     * Encodes the specified boxed value.
+     */
+    abstract long unbox(@NonNull T value);
+
+    /**
+     * Calls the specified {@code OnValueChangedListener} of the subclass with the encoded value.
+     */
+    abstract void notifyListener(@NonNull Object listener, long value);
+
+    /**
+     * Subscribes the specified source and registers this property to RxJava plugins. This must be
+     * called at the end of the constructor of subclasses.
+     *
+     * @param valueField   the field bound to the view, which reads and writes the value of this
+     *                     property
+     * @param initialValue the encoded initial value
+     * @param source       a source {@link Observable} of this property
+     * @param hasSource    whether the source was specified by the user rather than a placeholder
+     */
+    void initialize(@NonNull BaseObservable valueField, long initialValue,
+                    @NonNull Observable<T> source, boolean hasSource) {
+        Helper.checkNull(source, "source");
+        this.valueField = valueField;
+        value = initialValue;
+
+        sourceDisposable = source.subscribeWith(new DisposableObserver<T>() {
+            @Override
+            public void onNext(T value) {
+                if (!isDisposed()) {
+                    setValue(unbox(value), true);
+                }
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                valueEmitter.onError(e);
+                PrimitiveRxProperty.this.dispose();
+            }
+
+            @Override
+            public void onComplete() {
+                valueEmitter.onComplete();
+                PrimitiveRxProperty.this.dispose();
+            }
+        });
+
+        if (!isDisposed()) {
+            leakRecord = LeakTracker.track(this, hasSource);
+        }
+        RxJavaPlugins.onAssembly(this);
+    }
+
+    /**
+     * Gets the encoded value and records this property as a dependency of a computed property
+     * being evaluated.
+     */
+    long readValue() {
+        DependencyTracker.record(this);
+        return getRawValue();
+    }
+
+    /**
+     * Gets the encoded value without recording a dependency, e.g. for the bound view. A value
+     * pending in a transaction on the current thread is returned instead of the published one.
+     */
+    long getRawValue() {
+        Object pending = PropertyTransaction.pendingValueOf(notifier);
+        return pending != null ? (Long) pending : value;
+    }
+
+    /**
+     * Sets the specified encoded value, which is deferred in a {@link PropertyTransaction} and
+     * skipped in {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} mode if it isn't changed.
+     */
+    void setValue(long value, boolean viewUpdate) {
+        if (isDisposed()) {
+            return;
+        }
+
+        PropertyTransaction transaction = PropertyTransaction.current();
+        if (transaction != null) {
+            transaction.enlist(notifier, this.value, value, viewUpdate);
+            return;
+        }
+
+        if (isDistinctUntilChanged && value == this.value) {
+            return;
+        }
+        dispatchValue(value, viewUpdate);
+    }
+
+    /**
+     * Dispatches the specified encoded value to callbacks of this property, the bound view,
+     * listeners and Rx observers in this order.
+     */
+    void dispatchValue(long value, boolean viewUpdate) {
+        this.value = value;
+
+        PropertyChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyCallbacks(this, 0, null);
+        }
+
+        if (viewUpdate) {
+            if (isCoalescingViewNotifications) {
+                ViewNotifications.post(notifier);
+            } else {
+                valueField.notifyChange();
+            }
+        }
+
+        for (Object listener : listeners) {
+            notifyListener(listener, value);
+        }
+
+        if (valueEmitter.hasObservers()) {
+            valueEmitter.onNext(box(value));
+        }
+    }
+
+    void addListener(@NonNull Object listener) {
+        Helper.checkNull(listener, "listener");
+        synchronized (isDisposed) {
+            Object[] current = listeners;
+            Object[] next = new Object[current.length + 1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = listener;
+            listeners = next;
+        }
+    }
+
+    void removeListener(@Nullable Object listener) {
+        synchronized (isDisposed) {
+            Object[] current = listeners;
+            for (int i = 0; i < current.length; ++i) {
+                if (current[i] == listener) {
+                    if (current.length == 1) {
+                        listeners = NO_LISTENERS;
+                    } else {
+                        Object[] next = new Object[current.length - 1];
+                        System.arraycopy(current, 0, next, 0, i);
+                        System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                        listeners = next;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deferred notifications of the value, which are committed by a {@link PropertyTransaction}
+     * or posted to {@link ViewNotifications}.
+     */
+    private final class Notifier
+            implements PropertyTransaction.Participant, ViewNotifications.Target {
+        @Override
+        public void commit(@Nullable Object initialValue, @NonNull Object value,
+                           boolean viewUpdate, boolean validate, boolean isReset) {
+            if (PrimitiveRxProperty.this.isDisposed()) {
+                return;
+            }
+
+            long next = (Long) value;
+            if (isDistinctUntilChanged && initialValue != null && next == (Long) initialValue) {
+                return;
+            }
+            dispatchValue(next, viewUpdate);
+        }
+
+        @Override
+        public void notifyView() {
+            valueField.notifyChange();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return PrimitiveRxProperty.this.isDisposed();
+        }
+    }
+}
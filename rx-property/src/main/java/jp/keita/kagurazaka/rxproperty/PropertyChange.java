@@ -0,0 +1,80 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.Observable;
+import android.support.annotation.NonNull;
+
+/**
+ * Change of a property of an {@link Observable}, which corresponds to a call of
+ * {@link Observable.OnPropertyChangedCallback#onPropertyChanged(Observable, int)}.
+ *
+ * @param <T> the type of the changed {@link Observable}
+ */
+public final class PropertyChange<T extends Observable> {
+    /**
+     * Property id notified when all properties of an {@link Observable} change, which is the
+     * same as {@code BR._all}.
+     */
+    public static final int ALL_PROPERTIES = 0;
+
+    @NonNull
+    private final T target;
+
+    private final int propertyId;
+
+    PropertyChange(@NonNull T target, int propertyId) {
+        this.target = target;
+        this.propertyId = propertyId;
+    }
+
+    /**
+     * Gets the {@link Observable} whose property has changed.
+     *
+     * @return the changed {@link Observable}
+     */
+    @NonNull
+    public T getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the id of the changed property, or {@link #ALL_PROPERTIES} if all properties have
+     * changed.
+     *
+     * @return the changed property id (e.g. BR.some_property)
+     */
+    public int getPropertyId() {
+        return propertyId;
+    }
+
+    /**
+     * Returns whether this change affects the specified property.
+     *
+     * @param propertyId a property id (e.g. BR.some_property)
+     * @return true if the property has changed or all properties have changed; otherwise false
+     */
+    public boolean affects(int propertyId) {
+        return this.propertyId == ALL_PROPERTIES || this.propertyId == propertyId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof PropertyChange)) {
+            return false;
+        }
+        PropertyChange<?> other = (PropertyChange<?>) obj;
+        return target == other.target && propertyId == other.propertyId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(target) + propertyId;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyChange{target=" + target + ", propertyId=" + propertyId + "}";
+    }
+}
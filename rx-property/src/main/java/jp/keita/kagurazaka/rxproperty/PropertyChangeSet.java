@@ -0,0 +1,104 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.Observable;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Set of properties of an {@link Observable} which have changed since the previous set was
+ * emitted.
+ *
+ * @param <T> the type of the changed {@link Observable}
+ */
+public final class PropertyChangeSet<T extends Observable> {
+    @NonNull
+    private final T target;
+
+    // Bit set of the changed property ids.
+    @NonNull
+    private final long[] ids;
+
+    // Sorted changed property ids beyond the bit set.
+    @NonNull
+    private final int[] largeIds;
+
+    PropertyChangeSet(@NonNull T target, @NonNull long[] ids, @NonNull int[] largeIds) {
+        this.target = target;
+        this.ids = ids;
+        this.largeIds = largeIds;
+    }
+
+    /**
+     * Gets the {@link Observable} whose properties have changed.
+     *
+     * @return the changed {@link Observable}
+     */
+    @NonNull
+    public T getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the ids of the changed properties in ascending order. It contains
+     * {@link PropertyChange#ALL_PROPERTIES} if all properties have changed.
+     *
+     * @return the changed property ids (e.g. BR.some_property)
+     */
+    @NonNull
+    public int[] getPropertyIds() {
+        int count = 0;
+        for (long bits : ids) {
+            count += Long.bitCount(bits);
+        }
+
+        int[] result = new int[count + largeIds.length];
+        int index = 0;
+        for (int i = 0; i < ids.length; ++i) {
+            for (long bits = ids[i]; bits != 0; bits &= bits - 1) {
+                result[index++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        System.arraycopy(largeIds, 0, result, index, largeIds.length);
+        return result;
+    }
+
+    /**
+     * Returns whether the specified property has changed.
+     *
+     * @param propertyId a property id (e.g. BR.some_property)
+     * @return true if the property has changed or all properties have changed; otherwise false
+     */
+    public boolean affects(int propertyId) {
+        return contains(ids, PropertyChange.ALL_PROPERTIES) || contains(ids, propertyId)
+                || Arrays.binarySearch(largeIds, propertyId) >= 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof PropertyChangeSet)) {
+            return false;
+        }
+        PropertyChangeSet<?> other = (PropertyChangeSet<?>) obj;
+        return target == other.target && Arrays.equals(getPropertyIds(), other.getPropertyIds());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(target) + Arrays.hashCode(getPropertyIds());
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyChangeSet{target=" + target
+                + ", propertyIds=" + Arrays.toString(getPropertyIds()) + "}";
+    }
+
+    private static boolean contains(@NonNull long[] set, int propertyId) {
+        int index = propertyId >>> 6;
+        return propertyId >= 0 && index < set.length && (set[index] & (1L << propertyId)) != 0;
+    }
+}
@@ -0,0 +1,384 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.Observable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.reactivex.ObservableEmitter;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Cancellable;
+
+/**
+ * Single {@link Observable.OnPropertyChangedCallback} shared by all subscriptions created by
+ * {@link Observe} for the same target.
+ * <p>
+ * Subscribers are kept in an immutable array map keyed by property id, so a notification is
+ * dispatched only to the subscribers of the changed property and to those of all properties, in
+ * the order of subscription. The target is referenced weakly, and the callback is removed from the
+ * target when the last subscriber is disposed.
+ */
+final class PropertyMultiplexer extends Observable.OnPropertyChangedCallback {
+    private static final Subscriber<?>[] NO_SUBSCRIBERS = new Subscriber<?>[0];
+
+    private static final State EMPTY
+            = new State(new int[0], new Subscriber<?>[0][], NO_SUBSCRIBERS);
+
+    // Guards the map and the subscribers of all multiplexers. Callbacks of targets must not be
+    // added or removed while holding it, because a target may notify callbacks under its own lock.
+    private static final Object lock = new Object();
+
+    private static final ReferenceQueue<Observable> queue = new ReferenceQueue<>();
+
+    private static final Map<TargetKey, PropertyMultiplexer> multiplexers = new HashMap<>();
+
+    private static long nextOrder = 0;
+
+    @NonNull
+    private final TargetKey key;
+
+    @NonNull
+    private volatile State state = EMPTY;
+
+    private int subscriberCount = 0;
+
+    private PropertyMultiplexer(@NonNull TargetKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Starts dispatching changes of the target to the specified subscriber until its emitter is
+     * disposed.
+     *
+     * @param target      the {@link Observable} to be observed
+     * @param propertyIds distinct property ids to be observed, or null to observe all properties
+     * @param subscriber  a subscriber
+     */
+    static void subscribe(
+            @NonNull Observable target,
+            @Nullable int[] propertyIds,
+            @NonNull final Subscriber<?> subscriber
+    ) {
+        subscriber.propertyIds = propertyIds;
+        PropertyMultiplexer found;
+        synchronized (lock) {
+            purge();
+            found = multiplexers.get(new TargetKey(target, null));
+            if (found != null) {
+                found.add(subscriber);
+            }
+        }
+
+        if (found == null) {
+            // The callback is added before the multiplexer is published, so that no subscriber
+            // finding it misses changes. The subscriber is added first to receive changes
+            // notified by the target when the callback is added. The callback is added without
+            // the lock, because the target may notify callbacks under its own lock.
+            PropertyMultiplexer created = new PropertyMultiplexer(new TargetKey(target, queue));
+            synchronized (lock) {
+                created.add(subscriber);
+            }
+            target.addOnPropertyChangedCallback(created);
+
+            synchronized (lock) {
+                purge();
+                found = multiplexers.get(new TargetKey(target, null));
+                if (found == null) {
+                    multiplexers.put(created.key, created);
+                    found = created;
+                } else {
+                    // Another thread has published a multiplexer in the meantime.
+                    created.state = created.state.remove(subscriber);
+                    created.subscriberCount = 0;
+                    found.add(subscriber);
+                }
+            }
+            if (found != created) {
+                target.removeOnPropertyChangedCallback(created);
+            }
+        }
+
+        final PropertyMultiplexer multiplexer = found;
+        subscriber.emitter.setCancellable(new Cancellable() {
+            @Override
+            public void cancel() throws Exception {
+                multiplexer.remove(subscriber);
+                subscriber.onDisposed();
+            }
+        });
+    }
+
+    @Override
+    public void onPropertyChanged(Observable sender, int propertyId) {
+        Observable target = key.get();
+        if (target == null) {
+            return;
+        }
+
+        State state = this.state;
+        Subscriber<?>[] some = state.get(propertyId);
+        Subscriber<?>[] all = state.all;
+
+        // Merge both arrays, which are sorted by subscription order.
+        int i = 0;
+        int j = 0;
+        while (i < some.length || j < all.length) {
+            Subscriber<?> subscriber;
+            if (j == all.length || (i < some.length && some[i].order < all[j].order)) {
+                subscriber = some[i++];
+            } else {
+                subscriber = all[j++];
+            }
+            subscriber.dispatch(target, propertyId);
+        }
+    }
+
+    // Must be called under the lock.
+    private void add(@NonNull Subscriber<?> subscriber) {
+        subscriber.order = nextOrder++;
+        state = state.add(subscriber);
+        ++subscriberCount;
+    }
+
+    private void remove(@NonNull Subscriber<?> subscriber) {
+        Observable target = null;
+        synchronized (lock) {
+            State next = state.remove(subscriber);
+            if (next == state) {
+                return;
+            }
+            state = next;
+            if (--subscriberCount == 0) {
+                if (multiplexers.get(key) == this) {
+                    multiplexers.remove(key);
+                }
+                target = key.get();
+            }
+        }
+
+        if (target != null) {
+            target.removeOnPropertyChangedCallback(this);
+        }
+    }
+
+    private static void purge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            multiplexers.remove(reference);
+        }
+    }
+
+    /**
+     * Receiver of changes of a target, which is bound to an emitter.
+     *
+     * @param <T> the type of the emitted value
+     */
+    abstract static class Subscriber<T> {
+        @NonNull
+        final ObservableEmitter<T> emitter;
+
+        // Set on subscription before the subscriber is added under the lock.
+        @Nullable
+        int[] propertyIds;
+
+        long order;
+
+        Subscriber(@NonNull ObservableEmitter<T> emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Called when an observed property of the target changes.
+         *
+         * @param target     the observed {@link Observable}
+         * @param propertyId the changed property id
+         */
+        abstract void onPropertyChanged(@NonNull Observable target, int propertyId)
+                throws Exception;
+
+        /**
+         * Called when the emitter is disposed, after this subscriber is removed.
+         */
+        void onDisposed() {
+        }
+
+        private void dispatch(@NonNull Observable target, int propertyId) {
+            if (emitter.isDisposed()) {
+                return;
+            }
+            try {
+                onPropertyChanged(target, propertyId);
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                emitter.onError(e);
+            }
+        }
+    }
+
+    /**
+     * Immutable subscribers of a multiplexer.
+     */
+    private static final class State {
+        // Sorted property ids and their subscribers, which are sorted by subscription order.
+        @NonNull
+        final int[] ids;
+
+        @NonNull
+        final Subscriber<?>[][] subscribers;
+
+        @NonNull
+        final Subscriber<?>[] all;
+
+        State(@NonNull int[] ids, @NonNull Subscriber<?>[][] subscribers,
+              @NonNull Subscriber<?>[] all) {
+            this.ids = ids;
+            this.subscribers = subscribers;
+            this.all = all;
+        }
+
+        @NonNull
+        Subscriber<?>[] get(int propertyId) {
+            int index = Arrays.binarySearch(ids, propertyId);
+            return index >= 0 ? subscribers[index] : NO_SUBSCRIBERS;
+        }
+
+        @NonNull
+        State add(@NonNull Subscriber<?> subscriber) {
+            if (subscriber.propertyIds == null) {
+                return new State(ids, subscribers, append(all, subscriber));
+            }
+
+            int[] nextIds = ids;
+            Subscriber<?>[][] nextSubscribers = subscribers;
+            for (int id : subscriber.propertyIds) {
+                int index = Arrays.binarySearch(nextIds, id);
+                if (index >= 0) {
+                    if (nextSubscribers == subscribers) {
+                        nextSubscribers = subscribers.clone();
+                    }
+                    nextSubscribers[index] = append(nextSubscribers[index], subscriber);
+                } else {
+                    index = -index - 1;
+                    int length = nextIds.length;
+                    int[] ids = new int[length + 1];
+                    Subscriber<?>[][] subscribers = new Subscriber<?>[length + 1][];
+                    System.arraycopy(nextIds, 0, ids, 0, index);
+                    System.arraycopy(nextIds, index, ids, index + 1, length - index);
+                    System.arraycopy(nextSubscribers, 0, subscribers, 0, index);
+                    System.arraycopy(nextSubscribers, index, subscribers, index + 1,
+                            length - index);
+                    ids[index] = id;
+                    subscribers[index] = new Subscriber<?>[]{subscriber};
+                    nextIds = ids;
+                    nextSubscribers = subscribers;
+                }
+            }
+            return new State(nextIds, nextSubscribers, all);
+        }
+
+        /**
+         * Returns a state without the specified subscriber, or this state if it isn't contained.
+         */
+        @NonNull
+        State remove(@NonNull Subscriber<?> subscriber) {
+            if (subscriber.propertyIds == null) {
+                Subscriber<?>[] nextAll = removeFrom(all, subscriber);
+                return nextAll != all ? new State(ids, subscribers, nextAll) : this;
+            }
+
+            int[] nextIds = ids;
+            Subscriber<?>[][] nextSubscribers = subscribers;
+            for (int id : subscriber.propertyIds) {
+                int index = Arrays.binarySearch(nextIds, id);
+                if (index < 0) {
+                    continue;
+                }
+                Subscriber<?>[] rest = removeFrom(nextSubscribers[index], subscriber);
+                if (rest == nextSubscribers[index]) {
+                    continue;
+                }
+                if (rest.length != 0) {
+                    if (nextSubscribers == subscribers) {
+                        nextSubscribers = subscribers.clone();
+                    }
+                    nextSubscribers[index] = rest;
+                } else {
+                    int length = nextIds.length;
+                    int[] ids = new int[length - 1];
+                    Subscriber<?>[][] subscribers = new Subscriber<?>[length - 1][];
+                    System.arraycopy(nextIds, 0, ids, 0, index);
+                    System.arraycopy(nextIds, index + 1, ids, index, length - index - 1);
+                    System.arraycopy(nextSubscribers, 0, subscribers, 0, index);
+                    System.arraycopy(nextSubscribers, index + 1, subscribers, index,
+                            length - index - 1);
+                    nextIds = ids;
+                    nextSubscribers = subscribers;
+                }
+            }
+            return nextIds != ids || nextSubscribers != subscribers ?
+                    new State(nextIds, nextSubscribers, all) : this;
+        }
+
+        @NonNull
+        private static Subscriber<?>[] append(
+                @NonNull Subscriber<?>[] array, @NonNull Subscriber<?> subscriber
+        ) {
+            Subscriber<?>[] next = Arrays.copyOf(array, array.length + 1);
+            next[array.length] = subscriber;
+            return next;
+        }
+
+        @NonNull
+        private static Subscriber<?>[] removeFrom(
+                @NonNull Subscriber<?>[] array, @NonNull Subscriber<?> subscriber
+        ) {
+            for (int i = 0; i < array.length; ++i) {
+                if (array[i] == subscriber) {
+                    if (array.length == 1) {
+                        return NO_SUBSCRIBERS;
+                    }
+                    Subscriber<?>[] next = new Subscriber<?>[array.length - 1];
+                    System.arraycopy(array, 0, next, 0, i);
+                    System.arraycopy(array, i + 1, next, i, array.length - i - 1);
+                    return next;
+                }
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Weak reference to a target which is compared by identity.
+     */
+    private static final class TargetKey extends WeakReference<Observable> {
+        private final int hash;
+
+        TargetKey(@NonNull Observable target, @Nullable ReferenceQueue<Observable> queue) {
+            super(target, queue);
+            hash = System.identityHashCode(target);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof TargetKey)) {
+                return false;
+            }
+            Observable target = get();
+            return target != null && target == ((TargetKey) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
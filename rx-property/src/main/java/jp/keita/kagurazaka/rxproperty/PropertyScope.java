@@ -0,0 +1,146 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.exceptions.Exceptions;
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+
+/**
+ * Container of properties, commands and subscriptions to be disposed together, e.g. when a screen
+ * is torn down.
+ * <p>
+ * Unlike {@link io.reactivex.disposables.CompositeDisposable}, items are appended to an array
+ * without hashing and can't be removed one by one. {@link #dispose()} disposes them in the reverse
+ * order of registration, so subscriptions and derived properties registered after their sources
+ * are released before the sources complete, and completion isn't cascaded to each of them.
+ */
+public final class PropertyScope implements Disposable {
+    private static final Disposable[] DISPOSED = new Disposable[0];
+
+    @NonNull
+    private Disposable[] items;
+
+    private int size = 0;
+
+    /**
+     * Creates an empty {@code PropertyScope}.
+     */
+    public PropertyScope() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty {@code PropertyScope} with the specified initial capacity.
+     *
+     * @param initialCapacity the number of items which can be added without growing the array
+     */
+    public PropertyScope(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative.");
+        }
+        items = new Disposable[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Adds the specified item to this scope. If this scope is already disposed, the item is
+     * disposed immediately.
+     *
+     * @param item a property, a command or a subscription to be disposed with this scope
+     * @param <T>  the type of the item
+     * @return the specified item
+     */
+    @NonNull
+    public <T extends Disposable> T add(@NonNull T item) {
+        Helper.checkNull(item, "item");
+
+        synchronized (this) {
+            if (items != DISPOSED) {
+                if (size == items.length) {
+                    Disposable[] next = new Disposable[size * 2];
+                    System.arraycopy(items, 0, next, 0, size);
+                    items = next;
+                }
+                items[size++] = item;
+                return item;
+            }
+        }
+
+        item.dispose();
+        return item;
+    }
+
+    /**
+     * Adds the specified items to this scope in order.
+     *
+     * @param items properties, commands or subscriptions to be disposed with this scope
+     */
+    public void addAll(@NonNull Disposable... items) {
+        Helper.checkNull(items, "items");
+        for (Disposable item : items) {
+            add(item);
+        }
+    }
+
+    /**
+     * Returns the number of items in this scope.
+     *
+     * @return the number of items which haven't been disposed by this scope
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Disposes all items in the reverse order of registration. Items added after this call are
+     * disposed immediately.
+     * <p>
+     * Every item is disposed even if some of them throw. The thrown exception is rethrown after
+     * all items are disposed, wrapped in {@link CompositeException} if two or more items throw.
+     */
+    @Override
+    public void dispose() {
+        Disposable[] items;
+        int size;
+        synchronized (this) {
+            items = this.items;
+            size = this.size;
+            this.items = DISPOSED;
+            this.size = 0;
+        }
+
+        List<Throwable> errors = null;
+        for (int i = size - 1; i >= 0; --i) {
+            try {
+                items[i].dispose();
+            } catch (Throwable e) {
+                Exceptions.throwIfFatal(e);
+                if (errors == null) {
+                    errors = new ArrayList<>();
+                }
+                errors.add(e);
+            }
+        }
+
+        if (errors != null) {
+            if (errors.size() == 1) {
+                throw Exceptions.propagate(errors.get(0));
+            }
+            throw new CompositeException(errors);
+        }
+    }
+
+    /**
+     * Indicates whether this {@code PropertyScope} is disposed.
+     *
+     * @return {@code true} if {@link #dispose()} has been called, {@code false} otherwise
+     */
+    @Override
+    public synchronized boolean isDisposed() {
+        return items == DISPOSED;
+    }
+}
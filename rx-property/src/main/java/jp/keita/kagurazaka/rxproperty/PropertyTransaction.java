@@ -0,0 +1,181 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.Propagation;
+
+/**
+ * Batch update of properties.
+ * <p>
+ * While a transaction is running, setting a value to {@link RxProperty}, {@link ReadOnlyRxProperty}
+ * or a primitive specialized property on the same thread only stores the value in the transaction.
+ * The pending value is read by the same thread, while the bound view and other threads keep
+ * reading the value before the transaction. When the outermost transaction finishes, each touched
+ * property publishes its final value, notifies the bound view, runs the validator and emits the
+ * value just once, in the order the properties were first touched. Intermediate values are never
+ * observable, and a property in {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} mode whose final
+ * value equals the value before the transaction notifies nothing.
+ */
+public final class PropertyTransaction {
+    /**
+     * Property which can defer its notifications until the transaction is committed.
+     */
+    interface Participant {
+        /**
+         * Publishes the pending value of the property and notifies it.
+         *
+         * @param initialValue the value before the transaction
+         * @param value        the last value set in the transaction
+         * @param viewUpdate   whether one or more updates requested the bound view to be updated
+         * @param validate     whether the last update requested the value to be validated
+         * @param isReset      whether the property was reset by one or more updates
+         */
+        void commit(@Nullable Object initialValue, @NonNull Object value, boolean viewUpdate,
+                    boolean validate, boolean isReset);
+    }
+
+    private static final AtomicInteger activeCount = new AtomicInteger();
+
+    private static final ThreadLocal<PropertyTransaction> current = new ThreadLocal<>();
+
+    @NonNull
+    private final Map<Participant, Update> updates = new IdentityHashMap<>();
+
+    @NonNull
+    private final List<Update> orderedUpdates = new ArrayList<>();
+
+    /**
+     * Runs the specified action in a transaction. If a transaction is already running on the
+     * current thread, the action joins it.
+     * <p>
+     * Touched properties are notified even if the action throws an exception.
+     *
+     * @param action an action to update properties
+     */
+    public static void run(@NonNull Runnable action) {
+        Helper.checkNull(action, "action");
+
+        if (current.get() != null) {
+            action.run();
+            return;
+        }
+
+        PropertyTransaction transaction = new PropertyTransaction();
+        current.set(transaction);
+        activeCount.incrementAndGet();
+        try {
+            action.run();
+        } finally {
+            activeCount.decrementAndGet();
+            current.remove();
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Returns whether a transaction is running on the current thread.
+     *
+     * @return true if called inside {@link #run(Runnable)}; otherwise false
+     */
+    public static boolean isInTransaction() {
+        return current() != null;
+    }
+
+    @Nullable
+    static PropertyTransaction current() {
+        // Skip the thread local lookup while no transaction is running on any thread.
+        return activeCount.get() == 0 ? null : current.get();
+    }
+
+    /**
+     * Gets the value of the specified property which is pending in the transaction on the current
+     * thread.
+     *
+     * @return the pending value, or null if the property hasn't been set in a transaction on the
+     * current thread
+     */
+    @Nullable
+    static Object pendingValueOf(@NonNull Participant participant) {
+        PropertyTransaction transaction = current();
+        if (transaction == null) {
+            return null;
+        }
+        Update update = transaction.updates.get(participant);
+        return update != null ? update.value : null;
+    }
+
+    void enlist(@NonNull Participant participant, @Nullable Object initialValue,
+                @NonNull Object value, boolean viewUpdate) {
+        enlist(participant, initialValue, value, viewUpdate, true);
+    }
+
+    /**
+     * Enlists a reset of the specified property, which is committed with the reset flag even if
+     * the property is set again later in the transaction.
+     */
+    void enlistReset(@NonNull Participant participant, @Nullable Object initialValue,
+                     @NonNull Object value, boolean validate) {
+        enlist(participant, initialValue, value, true, validate).isReset = true;
+    }
+
+    @NonNull
+    private Update enlist(@NonNull Participant participant, @Nullable Object initialValue,
+                          @NonNull Object value, boolean viewUpdate, boolean validate) {
+        Update update = updates.get(participant);
+        if (update == null) {
+            update = new Update(participant, initialValue);
+            updates.put(participant, update);
+            orderedUpdates.add(update);
+        }
+        update.value = value;
+        update.viewUpdate |= viewUpdate;
+        update.validate = validate;
+        return update;
+    }
+
+    private void commit() {
+        // Computed properties depending on several touched properties are recomputed only once.
+        Propagation propagation = Propagation.enter();
+        try {
+            for (Update update : orderedUpdates) {
+                update.participant.commit(update.initialValue, update.value, update.viewUpdate,
+                        update.validate, update.isReset);
+            }
+        } finally {
+            propagation.exit();
+        }
+    }
+
+    private PropertyTransaction() {
+    }
+
+    private static final class Update {
+        @NonNull
+        final Participant participant;
+
+        @Nullable
+        final Object initialValue;
+
+        // Set by each update, so it's never null after enlisted.
+        Object value;
+
+        boolean viewUpdate = false;
+
+        boolean validate = true;
+
+        boolean isReset = false;
+
+        Update(@NonNull Participant participant, @Nullable Object initialValue) {
+            this.participant = participant;
+            this.initialValue = initialValue;
+        }
+    }
+}
@@ -4,20 +4,29 @@ import android.databinding.ObservableField;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Observer;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Action;
 import io.reactivex.functions.Cancellable;
+import io.reactivex.functions.Consumer;
 import io.reactivex.observers.DisposableObserver;
 import io.reactivex.plugins.RxJavaPlugins;
-import io.reactivex.subjects.BehaviorSubject;
-import io.reactivex.subjects.PublishSubject;
-import io.reactivex.subjects.Subject;
 import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.Propagation;
+import jp.keita.kagurazaka.rxproperty.internal.PropertyEmitter;
 
 /**
  * One-way bindable and observable property for Android Data Binding.
@@ -29,12 +38,19 @@ public class ReadOnlyRxProperty<T>
         implements android.databinding.Observable, Disposable {
     private final boolean isDistinctUntilChanged;
 
+    private final boolean isCoalescingViewNotifications;
+
+    private final boolean isRefCountingSource;
+
+    @NonNull
+    private volatile EqualityComparer<? super T> comparer = EqualityComparers.equality();
+
     // for value emitter
     @NonNull
     private final ReadOnlyRxPropertyValueField<T> valueField;
 
     @NonNull
-    private final Subject<T> valueEmitter;
+    private final PropertyEmitter<T> valueEmitter;
 
     @NonNull
     private final AtomicBoolean isDisposed = new AtomicBoolean(false);
@@ -42,8 +58,29 @@ public class ReadOnlyRxProperty<T>
     @Nullable
     private Cancellable cancellable = null;
 
+    // guarded by isDisposed
+    @NonNull
+    private Observable<T> source;
+
+    @Nullable
+    private volatile Disposable sourceDisposable = null;
+
+    // guarded by isDisposed
+    private int sourceRefCount = 0;
+
     @NonNull
-    private final Disposable sourceDisposable;
+    private final Action releaseSource = new Action() {
+        @Override
+        public void run() {
+            releaseSource();
+        }
+    };
+
+    @Nullable
+    private final Computation<T> computation;
+
+    @Nullable
+    private final LeakTracker.Record leakRecord;
 
     /**
      * Creates {@code ReadOnlyRxProperty} from the specified {@link Observable}.
@@ -51,7 +88,7 @@ public class ReadOnlyRxProperty<T>
      * @param source a source {@link Observable} of this {@code ReadOnlyRxProperty}
      */
     public ReadOnlyRxProperty(@NonNull Observable<T> source) {
-        this(source, Maybe.<T>empty(), RxProperty.Mode.DEFAULT);
+        this(source, Maybe.<T>empty(), RxProperty.Mode.DEFAULT, null);
     }
 
     /**
@@ -62,7 +99,7 @@ public class ReadOnlyRxProperty<T>
      * @param initialValue the initial value of this {@code ReadOnlyRxProperty}
      */
     public ReadOnlyRxProperty(@NonNull Observable<T> source, @NonNull T initialValue) {
-        this(source, Helper.createInitialMaybe(initialValue), RxProperty.Mode.DEFAULT);
+        this(source, Helper.createInitialMaybe(initialValue), RxProperty.Mode.DEFAULT, null);
     }
 
     /**
@@ -74,7 +111,7 @@ public class ReadOnlyRxProperty<T>
      */
     public ReadOnlyRxProperty(@NonNull Observable<T> source,
                               @NonNull EnumSet<RxProperty.Mode> mode) {
-        this(source, Maybe.<T>empty(), mode);
+        this(source, Maybe.<T>empty(), mode, null);
     }
 
     /**
@@ -87,11 +124,12 @@ public class ReadOnlyRxProperty<T>
      */
     public ReadOnlyRxProperty(@NonNull Observable<T> source, @NonNull T initialValue,
                               @NonNull EnumSet<RxProperty.Mode> mode) {
-        this(source, Helper.createInitialMaybe(initialValue), mode);
+        this(source, Helper.createInitialMaybe(initialValue), mode, null);
     }
 
     private ReadOnlyRxProperty(@NonNull Observable<T> source, @NonNull Maybe<T> initialMaybe,
-                               @NonNull EnumSet<RxProperty.Mode> mode) {
+                               @NonNull EnumSet<RxProperty.Mode> mode,
+                               @Nullable Callable<T> function) {
         // null check
         Helper.checkNull(source, "source");
         Helper.checkNull(mode, "mode");
@@ -107,40 +145,76 @@ public class ReadOnlyRxProperty<T>
         boolean isRaiseLatestValueOnSubscribe
                 = !mode.contains(RxProperty.Mode.NONE)
                 && mode.contains(RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE);
+        isCoalescingViewNotifications
+                = !mode.contains(RxProperty.Mode.NONE)
+                && mode.contains(RxProperty.Mode.COALESCE_VIEW_NOTIFICATIONS);
+        isRefCountingSource
+                = !mode.contains(RxProperty.Mode.NONE)
+                && mode.contains(RxProperty.Mode.REF_COUNT_SOURCE);
 
         // Create a value emitter.
-        if (isRaiseLatestValueOnSubscribe) {
-            valueEmitter = (initialValue != null ?
-                    BehaviorSubject.createDefault(initialValue) :
-                    BehaviorSubject.<T>create()).toSerialized();
-        } else {
-            valueEmitter = PublishSubject.<T>create().toSerialized();
-        }
+        valueEmitter = new PropertyEmitter<>(isRaiseLatestValueOnSubscribe, initialValue);
 
-        // Subscribe the source observable.
-        sourceDisposable = source.subscribeWith(new DisposableObserver<T>() {
-            @Override
-            public void onNext(T value) {
-                set(value);
-            }
+        // Prepare the computation of a computed property.
+        computation = function != null ? new Computation<>(this, function) : null;
 
-            @Override
-            public void onError(Throwable e) {
-                valueEmitter.onError(e);
-                ReadOnlyRxProperty.this.dispose();
-            }
+        // Subscribe the source observable unless it is subscribed on demand.
+        synchronized (isDisposed) {
+            this.source = source;
+        }
+        if (!isRefCountingSource) {
+            connectSource(source);
+        }
 
-            @Override
-            public void onComplete() {
-                valueEmitter.onComplete();
-                ReadOnlyRxProperty.this.dispose();
-            }
-        });
+        // Track this property if leak detection is enabled and the source hasn't terminated. A
+        // computed property holds subscriptions to its dependencies instead of a source.
+        leakRecord = isDisposed() ? null : LeakTracker.track(this, true);
 
         // Register RxJava plugins.
         RxJavaPlugins.onAssembly(this);
     }
 
+    /**
+     * Creates {@code ReadOnlyRxProperty} whose value is computed from other properties.
+     * <p>
+     * {@link RxProperty}, {@link ReadOnlyRxProperty} and primitive specialized properties read
+     * during the computation are recorded and observed as its dependencies. The dependencies are
+     * recorded again on every computation, so a property read only in a conditional branch is
+     * observed only while the branch is taken. When a dependency changes, the computed property
+     * notifies the bound view and is recomputed lazily on the next read. While it has Rx
+     * observers, it is recomputed immediately to emit the new value.
+     * <p>
+     * Changes are propagated through computed properties in topological order, so a computed
+     * property depending on a source through several paths, e.g. a diamond, never observes
+     * an inconsistent combination and is recomputed only once per change of the source.
+     *
+     * @param computation a function to compute the value, which must not return null
+     * @param <T>         the type of the computed value
+     * @return a computed property
+     */
+    @NonNull
+    public static <T> ReadOnlyRxProperty<T> computed(@NonNull Callable<T> computation) {
+        return computed(computation, RxProperty.Mode.DEFAULT);
+    }
+
+    /**
+     * Creates {@code ReadOnlyRxProperty} whose value is computed from other properties with the
+     * specified mode.
+     *
+     * @param computation a function to compute the value, which must not return null
+     * @param mode        mode of the computed property
+     * @param <T>         the type of the computed value
+     * @return a computed property
+     * @see #computed(Callable)
+     */
+    @NonNull
+    public static <T> ReadOnlyRxProperty<T> computed(@NonNull Callable<T> computation,
+                                                     @NonNull EnumSet<RxProperty.Mode> mode) {
+        Helper.checkNull(computation, "computation");
+        return new ReadOnlyRxProperty<>(Observable.<T>never(), Maybe.<T>empty(), mode,
+                computation);
+    }
+
     /**
      * Gets the latest value of this {@code ReadOnlyRxProperty}.
      *
@@ -164,15 +238,71 @@ public class ReadOnlyRxProperty<T>
      */
     @Nullable
     public T getOrNull() {
+        DependencyTracker.record(this);
         return valueField.get();
     }
 
+    /**
+     * Converts this {@code ReadOnlyRxProperty} into a {@link Flowable} which conflates values for
+     * slow subscribers, in the same way as {@link RxProperty#toFlowable()}.
+     *
+     * @return a {@link Flowable} to emit values of this {@code ReadOnlyRxProperty} with the latest
+     * value conflation
+     */
+    @NonNull
+    public Flowable<T> toFlowable() {
+        return toFlowable(BackpressureStrategy.LATEST);
+    }
+
+    /**
+     * Sets the strategy to compare a new value with the current one in
+     * {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED} mode. The default is
+     * {@link EqualityComparers#equality()}.
+     *
+     * @param comparer a strategy to compare values
+     * @return this instance
+     */
+    public ReadOnlyRxProperty<T> setEqualityComparer(
+            @NonNull EqualityComparer<? super T> comparer) {
+        Helper.checkNull(comparer, "comparer");
+        this.comparer = comparer;
+        return this;
+    }
+
     /**
      * Forcibly notifies the latest value of this {@code ReadOnlyRxProperty} to all observers
      * including the bound view. This method ignores {@link RxProperty.Mode#DISTINCT_UNTIL_CHANGED}.
      */
     public void forceNotify() {
-        valueField.setValue(getOrNull());
+        valueField.setValue(getOrNull(), true);
+    }
+
+    /**
+     * Replaces the source {@link Observable} of this {@code ReadOnlyRxProperty}, e.g. to reuse the
+     * view model of a recycled row. The current source is unsubscribed and the new one is
+     * subscribed, while observers and the bound view are kept.
+     *
+     * @param source a new source {@link Observable}
+     * @throws UnsupportedOperationException if this {@code ReadOnlyRxProperty} is computed
+     */
+    public void rebind(@NonNull Observable<T> source) {
+        rebind(source, Maybe.<T>empty());
+    }
+
+    /**
+     * Replaces the source {@link Observable} of this {@code ReadOnlyRxProperty} after setting the
+     * specified value, e.g. to reuse the view model of a recycled row. The current source is
+     * unsubscribed and the new one is subscribed, while observers and the bound view are kept.
+     * <p>
+     * The value and values emitted by the new source on subscribe are deferred until a running
+     * {@link PropertyTransaction} finishes.
+     *
+     * @param source       a new source {@link Observable}
+     * @param initialValue a value to set before subscribing the new source
+     * @throws UnsupportedOperationException if this {@code ReadOnlyRxProperty} is computed
+     */
+    public void rebind(@NonNull Observable<T> source, @NonNull T initialValue) {
+        rebind(source, Helper.createInitialMaybe(initialValue));
     }
 
     /**
@@ -182,15 +312,23 @@ public class ReadOnlyRxProperty<T>
     @Override
     public void dispose() {
         if (isDisposed.compareAndSet(false, true)) {
-            // Terminate internal subjects.
-            Helper.safeComplete(valueEmitter);
+            // Terminate the internal emitter.
+            valueEmitter.onComplete();
 
             // Dispose the source subscription.
-            Helper.safeDispose(sourceDisposable);
+            synchronized (isDisposed) {
+                Helper.safeDispose(sourceDisposable);
+            }
+            if (computation != null) {
+                computation.dispose();
+            }
 
             // Unbind a view observer.
             Helper.safeCancel(cancellable);
             cancellable = null;
+            ViewNotifications.cancel(valueField);
+
+            LeakTracker.untrack(leakRecord);
         }
     }
 
@@ -217,18 +355,139 @@ public class ReadOnlyRxProperty<T>
 
     @Override
     protected void subscribeActual(Observer<? super T> observer) {
-        valueEmitter.subscribe(observer);
+        if (computation != null) {
+            computation.refresh();
+        }
+        if (isRefCountingSource) {
+            // The source emits the fresh value before the new observer is subscribed.
+            if (retainSource()) {
+                connectSource();
+            }
+            valueEmitter.doFinally(releaseSource).subscribe(observer);
+        } else {
+            valueEmitter.subscribe(observer);
+        }
+    }
+
+    private void rebind(@NonNull Observable<T> source, @NonNull Maybe<T> initialMaybe) {
+        Helper.checkNull(source, "source");
+        if (computation != null) {
+            throw new UnsupportedOperationException(
+                    "A computed ReadOnlyRxProperty doesn't have a source.");
+        }
+
+        T initialValue = initialMaybe.blockingGet();
+        boolean isConnecting;
+        synchronized (isDisposed) {
+            if (isDisposed()) {
+                return;
+            }
+
+            Helper.safeDispose(sourceDisposable);
+            sourceDisposable = null;
+            this.source = source;
+            isConnecting = !isRefCountingSource || sourceRefCount > 0;
+        }
+
+        // Observers are notified without the lock.
+        if (initialValue != null) {
+            set(initialValue, true);
+        }
+        if (isConnecting) {
+            connectSource(source);
+        }
+    }
+
+    private void connectSource() {
+        Observable<T> source;
+        synchronized (isDisposed) {
+            source = this.source;
+        }
+        connectSource(source);
     }
 
-    private void set(@NonNull T value) {
+    // Subscribes the source without the lock, because a source emitting synchronously notifies
+    // observers and may terminate this property.
+    private void connectSource(@NonNull Observable<T> source) {
+        Disposable disposable = subscribeSource(source);
+        synchronized (isDisposed) {
+            // Keep the subscription unless the source has been replaced, released or connected
+            // by another thread in the meantime.
+            if (!isDisposed() && this.source == source && sourceDisposable == null
+                    && (!isRefCountingSource || sourceRefCount > 0)) {
+                sourceDisposable = disposable;
+                return;
+            }
+        }
+        disposable.dispose();
+    }
+
+    @NonNull
+    private Disposable subscribeSource(@NonNull Observable<T> source) {
+        return source.subscribeWith(new DisposableObserver<T>() {
+            @Override
+            public void onNext(T value) {
+                set(value, true);
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                valueEmitter.onError(e);
+                ReadOnlyRxProperty.this.dispose();
+            }
+
+            @Override
+            public void onComplete() {
+                valueEmitter.onComplete();
+                ReadOnlyRxProperty.this.dispose();
+            }
+        });
+    }
+
+    /**
+     * Counts a new reference to the source, and returns whether the caller has to connect the
+     * source by {@link #connectSource()} after releasing the lock.
+     */
+    private boolean retainSource() {
+        synchronized (isDisposed) {
+            return sourceRefCount++ == 0 && !isDisposed();
+        }
+    }
+
+    private void releaseSource() {
+        synchronized (isDisposed) {
+            if (--sourceRefCount == 0) {
+                Helper.safeDispose(sourceDisposable);
+                sourceDisposable = null;
+            }
+        }
+    }
+
+    private void set(@NonNull T value, boolean viewUpdate) {
         if (isDisposed()) {
             return;
         }
 
-        if (isDistinctUntilChanged && Helper.compare(value, getOrNull())) {
+        PropertyTransaction transaction = PropertyTransaction.current();
+        if (transaction != null) {
+            transaction.enlist(valueField, valueField.value, value, viewUpdate);
+            return;
+        }
+
+        if (isDistinctUntilChanged && isSame(value, valueField.value)) {
             return;
         }
-        valueField.setValue(value);
+        valueField.setValue(value, viewUpdate);
+    }
+
+    private boolean isSame(@NonNull T value, @Nullable T current) {
+        if (current == null) {
+            return false;
+        }
+        EqualityComparer<? super T> comparer = this.comparer;
+        return EqualityComparers.isHashFirst(comparer)
+                ? valueField.isSameByHash(value, current)
+                : comparer.areEqual(value, current);
     }
 
     /**
@@ -248,6 +507,9 @@ public class ReadOnlyRxProperty<T>
     public void setCancellable(@Nullable Cancellable cancellable) {
         Helper.safeCancel(this.cancellable);
         this.cancellable = cancellable;
+        if (leakRecord != null) {
+            leakRecord.hasCancellable = cancellable != null;
+        }
     }
 
     /**
@@ -256,18 +518,68 @@ public class ReadOnlyRxProperty<T>
      *
      * @param <T> the type of value stored in this property
      */
-    private static class ReadOnlyRxPropertyValueField<T> extends ObservableField<T> {
+    private static class ReadOnlyRxPropertyValueField<T> extends ObservableField<T>
+            implements PropertyTransaction.Participant, ViewNotifications.Target {
         private final ReadOnlyRxProperty<T> parent;
         private T value;
 
+        // The value whose hash code is cached for EqualityComparers.hashFirst(), and the hash.
+        @Nullable
+        private volatile Object hashedValue = null;
+
+        private volatile int valueHash;
+
+        // guarded by parent.isDisposed
+        @Nullable
+        private List<OnPropertyChangedCallback> sourceCallbacks = null;
+
         ReadOnlyRxPropertyValueField(ReadOnlyRxProperty<T> parent, T initialValue) {
             this.parent = parent;
             this.value = initialValue;
         }
 
+        /**
+         * Compares values as {@link EqualityComparers#hashFirst()} does with the cached hash code
+         * of the current value, and caches the hash code of the value which becomes current.
+         */
+        boolean isSameByHash(@NonNull T value, @NonNull T current) {
+            if (value == current) {
+                return true;
+            }
+            int currentHash = hashedValue == current ? valueHash : current.hashCode();
+            int hash = value.hashCode();
+            if (hash == currentHash && value.equals(current)) {
+                cacheHash(current, currentHash);
+                return true;
+            }
+            // The new value is published unless it is dropped by a later value.
+            cacheHash(value, hash);
+            return false;
+        }
+
+        private void cacheHash(@NonNull Object value, int hash) {
+            // The hash is written first, so a reader finding the value sees its hash.
+            valueHash = hash;
+            hashedValue = value;
+        }
+
         @Override
         public T get() {
-            return value;
+            Computation<T> computation = parent.computation;
+            if (computation != null) {
+                computation.refresh();
+            }
+            return peek();
+        }
+
+        /**
+         * Gets the value without refreshing the computation, which is the value pending in a
+         * transaction on the current thread if any.
+         */
+        @SuppressWarnings("unchecked")
+        T peek() {
+            Object pending = PropertyTransaction.pendingValueOf(this);
+            return pending != null ? (T) pending : value;
         }
 
         @Override
@@ -276,10 +588,305 @@ public class ReadOnlyRxProperty<T>
                     "ReadOnlyRxProperty doesn't support two-way binding.");
         }
 
-        void setValue(T value) {
+        @Override
+        public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            super.addOnPropertyChangedCallback(callback);
+            if (!parent.isRefCountingSource) {
+                return;
+            }
+
+            boolean isConnecting = false;
+            synchronized (parent.isDisposed) {
+                if (sourceCallbacks == null) {
+                    sourceCallbacks = new ArrayList<>();
+                }
+                if (!sourceCallbacks.contains(callback)) {
+                    sourceCallbacks.add(callback);
+                    isConnecting = parent.retainSource();
+                }
+            }
+            if (isConnecting) {
+                parent.connectSource();
+            }
+        }
+
+        @Override
+        public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            super.removeOnPropertyChangedCallback(callback);
+            if (!parent.isRefCountingSource) {
+                return;
+            }
+
+            synchronized (parent.isDisposed) {
+                if (sourceCallbacks != null && sourceCallbacks.remove(callback)) {
+                    parent.releaseSource();
+                }
+            }
+        }
+
+        void setValue(T value, boolean viewUpdate) {
             this.value = value;
             parent.valueEmitter.onNext(value);
+            if (viewUpdate) {
+                invalidateView();
+            }
+        }
+
+        void invalidateView() {
+            if (parent.isCoalescingViewNotifications) {
+                ViewNotifications.post(this);
+            } else {
+                notifyChange();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void commit(@Nullable Object initialValue, @NonNull Object value,
+                           boolean viewUpdate, boolean validate, boolean isReset) {
+            if (parent.isDisposed()) {
+                return;
+            }
+
+            T next = (T) value;
+            if (parent.isDistinctUntilChanged && parent.isSame(next, (T) initialValue)) {
+                return;
+            }
+            setValue(next, viewUpdate);
+        }
+
+        @Override
+        public void notifyView() {
             notifyChange();
         }
+
+        @Override
+        public boolean isDisposed() {
+            return parent.isDisposed();
+        }
+    }
+
+    /**
+     * Lazy computation of a computed {@link ReadOnlyRxProperty} with dynamic dependencies.
+     *
+     * @param <T> the type of the computed value
+     */
+    private static final class Computation<T> implements Consumer<Object>, Propagation.Node {
+        private static final Consumer<Throwable> IGNORE_ERROR = new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable e) {
+                // A failed dependency just stops changing.
+            }
+        };
+
+        @NonNull
+        private final ReadOnlyRxProperty<T> parent;
+
+        @NonNull
+        private final Callable<T> function;
+
+        // guarded by this
+        @NonNull
+        private final Map<Observable<?>, Disposable> dependencies = new IdentityHashMap<>();
+
+        private volatile boolean isDirty = true;
+
+        private volatile int rank = 1;
+
+        // Whether the bound view has been notified of the change instead of the new value.
+        private volatile boolean isViewInvalidated = false;
+
+        // guarded by this
+        private boolean isComputing = false;
+
+        // The sequence number of the latest computation, which is written under the lock.
+        private volatile long version = 0;
+
+        // The thread subscribing to a dependency, which is written under the lock and read
+        // without it. Only the latest value replayed on that thread is ignored, so a change
+        // emitted by another thread meanwhile still marks this dirty.
+        @Nullable
+        private volatile Thread subscribingThread = null;
+
+        Computation(@NonNull ReadOnlyRxProperty<T> parent, @NonNull Callable<T> function) {
+            this.parent = parent;
+            this.function = function;
+        }
+
+        /**
+         * Recomputes the value if a dependency has changed since the last computation.
+         */
+        void refresh() {
+            if (!isDirty || parent.isDisposed()) {
+                return;
+            }
+
+            T value;
+            boolean viewUpdate;
+            long version;
+            synchronized (this) {
+                // A cyclic read during the computation returns the previous value.
+                if (!isDirty || isComputing) {
+                    return;
+                }
+                value = compute();
+                viewUpdate = !isViewInvalidated;
+                isViewInvalidated = false;
+                if (parent.isDistinctUntilChanged
+                        && parent.isSame(value, parent.valueField.peek())) {
+                    return;
+                }
+                version = ++this.version;
+            }
+
+            // Observers are called without the lock, because they may read other computed
+            // properties refreshed by other threads. A value computed before the latest one is
+            // dropped.
+            if (version == this.version) {
+                parent.set(value, viewUpdate);
+            }
+        }
+
+        /**
+         * Called when a dependency changes.
+         */
+        @Override
+        public void accept(Object value) {
+            // Ignore the latest value replayed on subscribe.
+            if (subscribingThread == Thread.currentThread() || parent.isDisposed()) {
+                return;
+            }
+
+            isDirty = true;
+            Propagation.schedule(this);
+        }
+
+        @Override
+        public int getRank() {
+            return rank;
+        }
+
+        @Override
+        public void propagate() {
+            if (!isDirty || parent.isDisposed()) {
+                return;
+            }
+
+            if (parent.valueEmitter.hasObservers()) {
+                refresh();
+            } else {
+                // Let the bound view read the new value, which recomputes it.
+                isViewInvalidated = true;
+                parent.valueField.invalidateView();
+            }
+        }
+
+        synchronized void dispose() {
+            for (Map.Entry<Observable<?>, Disposable> entry : dependencies.entrySet()) {
+                release(entry.getKey(), entry.getValue());
+            }
+            dependencies.clear();
+        }
+
+        @NonNull
+        private T compute() {
+            // A change during the computation makes it dirty again.
+            isDirty = false;
+            isComputing = true;
+            DependencyTracker tracker = DependencyTracker.start();
+            T value;
+            try {
+                value = function.call();
+            } catch (Exception e) {
+                isDirty = true;
+                throw Exceptions.propagate(e);
+            } finally {
+                isComputing = false;
+                track(tracker.stop());
+            }
+
+            if (value == null) {
+                isDirty = true;
+                throw new NullPointerException("The computation returned null.");
+            }
+            return value;
+        }
+
+        private void track(@NonNull List<Observable<?>> next) {
+            int rank = 1;
+            for (Observable<?> dependency : next) {
+                if (dependency instanceof ReadOnlyRxProperty) {
+                    Computation<?> computation = ((ReadOnlyRxProperty<?>) dependency).computation;
+                    if (computation != null && computation != this) {
+                        rank = Math.max(rank, computation.rank + 1);
+                    }
+                }
+            }
+            this.rank = rank;
+
+            if (parent.isDisposed() || isSame(next)) {
+                return;
+            }
+
+            Map<Observable<?>, Disposable> stale = new IdentityHashMap<>(dependencies);
+            for (Observable<?> dependency : next) {
+                if (dependency == parent || stale.remove(dependency) != null) {
+                    continue;
+                }
+
+                // Let the emitter of the dependency propagate its changes in rank order.
+                PropertyEmitter<?> emitter = emitterOf(dependency);
+                if (emitter != null) {
+                    emitter.addDependent();
+                }
+                subscribingThread = Thread.currentThread();
+                try {
+                    dependencies.put(dependency, dependency.subscribe(this, IGNORE_ERROR));
+                } finally {
+                    subscribingThread = null;
+                }
+            }
+
+            // Stop observing properties which were not read this time.
+            for (Map.Entry<Observable<?>, Disposable> entry : stale.entrySet()) {
+                release(entry.getKey(), entry.getValue());
+                dependencies.remove(entry.getKey());
+            }
+        }
+
+        private static void release(@NonNull Observable<?> dependency,
+                                    @NonNull Disposable disposable) {
+            disposable.dispose();
+            PropertyEmitter<?> emitter = emitterOf(dependency);
+            if (emitter != null) {
+                emitter.removeDependent();
+            }
+        }
+
+        @Nullable
+        private static PropertyEmitter<?> emitterOf(@NonNull Observable<?> dependency) {
+            if (dependency instanceof RxProperty) {
+                return ((RxProperty<?>) dependency).valueEmitter;
+            }
+            if (dependency instanceof ReadOnlyRxProperty) {
+                return ((ReadOnlyRxProperty<?>) dependency).valueEmitter;
+            }
+            if (dependency instanceof PrimitiveRxProperty) {
+                return ((PrimitiveRxProperty<?>) dependency).valueEmitter;
+            }
+            return null;
+        }
+
+        private boolean isSame(@NonNull List<Observable<?>> next) {
+            if (next.size() != dependencies.size()) {
+                return false;
+            }
+            for (Observable<?> dependency : next) {
+                if (!dependencies.containsKey(dependency)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
@@ -38,6 +38,9 @@ public class RxCommand<T> extends Observable<T> implements Disposable {
     @Nullable
     private Cancellable cancellable = null;
 
+    @Nullable
+    private final LeakTracker.Record leakRecord;
+
     /**
      * Creates {@code RxCommand} which is always enabled.
      */
@@ -87,6 +90,9 @@ public class RxCommand<T> extends Observable<T> implements Disposable {
                         }
                     });
         }
+
+        // Track this command if leak detection is enabled and the source hasn't terminated.
+        leakRecord = isDisposed() ? null : LeakTracker.track(this, canExecuteSource != null);
     }
 
     /**
@@ -137,6 +143,9 @@ public class RxCommand<T> extends Observable<T> implements Disposable {
                 RxCommand.this.dispose();
             }
         });
+        if (leakRecord != null) {
+            leakRecord.hasSource = true;
+        }
 
         return this;
     }
@@ -159,6 +168,8 @@ public class RxCommand<T> extends Observable<T> implements Disposable {
 
             Helper.safeCancel(cancellable);
             cancellable = null;
+
+            LeakTracker.untrack(leakRecord);
         }
     }
 
@@ -190,6 +201,9 @@ public class RxCommand<T> extends Observable<T> implements Disposable {
     public void setCancellable(@NonNull Cancellable cancellable) {
         Helper.safeCancel(this.cancellable);
         this.cancellable = cancellable;
+        if (leakRecord != null) {
+            leakRecord.hasCancellable = true;
+        }
     }
 
     @Override
@@ -0,0 +1,427 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ListChangeRegistry;
+import android.databinding.ObservableList;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.PropertyEmitter;
+
+/**
+ * Observable list property for Android Data Binding, which notifies changes of ranges to both
+ * {@link android.databinding.ObservableList.OnListChangedCallback} and Rx observers of
+ * {@link #changes()}.
+ * <p>
+ * Like {@link android.databinding.ObservableArrayList}, this list is not thread-safe and should be
+ * updated on the main thread.
+ *
+ * @param <T> the type of items
+ */
+public class RxListProperty<T> extends AbstractList<T> implements ObservableList<T>, Disposable {
+    @NonNull
+    private final ArrayList<T> items;
+
+    @Nullable
+    private volatile ListChangeRegistry callbacks = null;
+
+    @NonNull
+    private final PropertyEmitter<ListChange> changeEmitter = new PropertyEmitter<>(false);
+
+    @NonNull
+    private final AtomicBoolean isDisposed = new AtomicBoolean(false);
+
+    // incremented on every change, including ones not counted by modCount
+    private int version = 0;
+
+    /**
+     * Creates an empty {@code RxListProperty}.
+     */
+    public RxListProperty() {
+        items = new ArrayList<>();
+    }
+
+    /**
+     * Creates {@code RxListProperty} with the specified initial items.
+     *
+     * @param initialItems initial items of this list
+     */
+    public RxListProperty(@NonNull Collection<? extends T> initialItems) {
+        Helper.checkNull(initialItems, "initialItems");
+        items = new ArrayList<>(initialItems);
+    }
+
+    /**
+     * Gets a hot {@link Observable} of changes of this list. Each change is emitted after the list
+     * is updated.
+     *
+     * @return a hot {@link Observable} to emit changes of this list
+     */
+    @NonNull
+    public Observable<ListChange> changes() {
+        return changeEmitter;
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public T set(int index, T item) {
+        T old = items.set(index, item);
+        notifyChanged(index, 1);
+        return old;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        items.add(index, item);
+        ++modCount;
+        notifyInserted(index, 1);
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends T> collection) {
+        return addAll(size(), collection);
+    }
+
+    @Override
+    public boolean addAll(int index, @NonNull Collection<? extends T> collection) {
+        int count = collection.size();
+        if (!items.addAll(index, collection)) {
+            return false;
+        }
+        ++modCount;
+        notifyInserted(index, count);
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        T old = items.remove(index);
+        ++modCount;
+        notifyRemoved(index, 1);
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        items.subList(fromIndex, toIndex).clear();
+        ++modCount;
+        notifyRemoved(fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Moves the item at the specified position to another position.
+     *
+     * @param fromIndex the current position of the item
+     * @param toIndex   the position of the item after the move
+     */
+    public void move(int fromIndex, int toIndex) {
+        int size = items.size();
+        if (fromIndex < 0 || fromIndex >= size) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", size: " + size);
+        }
+        if (toIndex < 0 || toIndex >= size) {
+            throw new IndexOutOfBoundsException("toIndex: " + toIndex + ", size: " + size);
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        items.add(toIndex, items.remove(fromIndex));
+        ++modCount;
+        notifyMoved(fromIndex, toIndex);
+    }
+
+    /**
+     * Replaces all items of this list with the specified ones, comparing items with
+     * {@link Object#equals(Object)}.
+     *
+     * @param newItems new items of this list
+     * @see #replace(List, EqualityComparer)
+     */
+    public void replace(@NonNull List<? extends T> newItems) {
+        replace(newItems, EqualityComparers.<T>equality());
+    }
+
+    /**
+     * Replaces all items of this list with the specified ones.
+     * <p>
+     * The minimal changes are calculated by {@link ListDiff}, so only inserted and removed ranges
+     * are notified. Items matched by the comparer but not equal are replaced and notified as
+     * changed.
+     *
+     * @param newItems new items of this list
+     * @param comparer a strategy to decide whether two items represent the same item
+     * @see #replace(List, EqualityComparer, boolean)
+     */
+    public void replace(@NonNull List<? extends T> newItems,
+                        @NonNull EqualityComparer<? super T> comparer) {
+        replace(newItems, comparer, false);
+    }
+
+    /**
+     * Replaces all items of this list with the specified ones, optionally keeping the current
+     * items matched by the comparer.
+     * <p>
+     * The minimal changes are calculated by {@link ListDiff}, so only inserted and removed ranges
+     * are notified. If {@code keepMatchedItems} is true, the current instances of matched items,
+     * e.g. view models found by the key of their model, stay in this list and are not notified,
+     * so the bound rows are not rebound. Otherwise matched items which are not equal are replaced
+     * and notified as changed.
+     *
+     * @param newItems         new items of this list
+     * @param comparer         a strategy to decide whether two items represent the same item
+     * @param keepMatchedItems whether the current items matched by the comparer are kept
+     */
+    public void replace(@NonNull List<? extends T> newItems,
+                        @NonNull EqualityComparer<? super T> comparer, boolean keepMatchedItems) {
+        apply(ListDiff.calculate(items, newItems, comparer), newItems, keepMatchedItems);
+    }
+
+    /**
+     * Creates a {@link Completable} to replace all items of this list with the specified ones,
+     * comparing items with {@link Object#equals(Object)}.
+     *
+     * @param newItems       new items of this list
+     * @param diffScheduler  a scheduler to calculate the difference on
+     * @param applyScheduler a scheduler to update this list on, typically the main thread
+     * @return a cold {@link Completable} to replace items
+     * @see #replaceAsync(List, EqualityComparer, Scheduler, Scheduler)
+     */
+    @NonNull
+    public Completable replaceAsync(@NonNull List<? extends T> newItems,
+                                    @NonNull Scheduler diffScheduler,
+                                    @NonNull Scheduler applyScheduler) {
+        return replaceAsync(newItems, EqualityComparers.<T>equality(), diffScheduler,
+                applyScheduler);
+    }
+
+    /**
+     * Creates a {@link Completable} to replace all items of this list with the specified ones.
+     * <p>
+     * On subscribe, the current items are copied on the subscribing thread, which should be the
+     * one updating this list. The difference is calculated on {@code diffScheduler} and applied
+     * on {@code applyScheduler} as {@link #replace(List, EqualityComparer)} does. If this list is
+     * updated in the meantime, the difference is calculated again when applied.
+     *
+     * @param newItems       new items of this list
+     * @param comparer       a strategy to decide whether two items represent the same item
+     * @param diffScheduler  a scheduler to calculate the difference on
+     * @param applyScheduler a scheduler to update this list on, typically the main thread
+     * @return a cold {@link Completable} to replace items
+     * @see #replaceAsync(List, EqualityComparer, boolean, Scheduler, Scheduler)
+     */
+    @NonNull
+    public Completable replaceAsync(@NonNull List<? extends T> newItems,
+                                    @NonNull EqualityComparer<? super T> comparer,
+                                    @NonNull Scheduler diffScheduler,
+                                    @NonNull Scheduler applyScheduler) {
+        return replaceAsync(newItems, comparer, false, diffScheduler, applyScheduler);
+    }
+
+    /**
+     * Creates a {@link Completable} to replace all items of this list with the specified ones,
+     * optionally keeping the current items matched by the comparer.
+     * <p>
+     * The difference is calculated and applied as
+     * {@link #replaceAsync(List, EqualityComparer, Scheduler, Scheduler)} does, and matched items
+     * are handled as {@link #replace(List, EqualityComparer, boolean)} does.
+     *
+     * @param newItems         new items of this list
+     * @param comparer         a strategy to decide whether two items represent the same item
+     * @param keepMatchedItems whether the current items matched by the comparer are kept
+     * @param diffScheduler    a scheduler to calculate the difference on
+     * @param applyScheduler   a scheduler to update this list on, typically the main thread
+     * @return a cold {@link Completable} to replace items
+     */
+    @NonNull
+    public Completable replaceAsync(@NonNull List<? extends T> newItems,
+                                    @NonNull final EqualityComparer<? super T> comparer,
+                                    final boolean keepMatchedItems,
+                                    @NonNull final Scheduler diffScheduler,
+                                    @NonNull final Scheduler applyScheduler) {
+        Helper.checkNull(newItems, "newItems");
+        Helper.checkNull(comparer, "comparer");
+        Helper.checkNull(diffScheduler, "diffScheduler");
+        Helper.checkNull(applyScheduler, "applyScheduler");
+
+        final List<T> targetItems = new ArrayList<>(newItems);
+        return Completable.defer(new Callable<Completable>() {
+            @Override
+            public Completable call() {
+                final List<T> snapshot = new ArrayList<>(items);
+                final int snapshotVersion = version;
+                return Single
+                        .fromCallable(new Callable<ListDiff>() {
+                            @Override
+                            public ListDiff call() {
+                                return ListDiff.calculate(snapshot, targetItems, comparer);
+                            }
+                        })
+                        .subscribeOn(diffScheduler)
+                        .observeOn(applyScheduler)
+                        .doOnSuccess(new Consumer<ListDiff>() {
+                            @Override
+                            public void accept(ListDiff diff) {
+                                if (version == snapshotVersion) {
+                                    apply(diff, targetItems, keepMatchedItems);
+                                } else {
+                                    replace(targetItems, comparer, keepMatchedItems);
+                                }
+                            }
+                        })
+                        .toCompletable();
+            }
+        });
+    }
+
+    @Override
+    public void addOnListChangedCallback(
+            OnListChangedCallback<? extends ObservableList<T>> callback) {
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks == null) {
+            synchronized (isDisposed) {
+                callbacks = this.callbacks;
+                if (callbacks == null) {
+                    callbacks = new ListChangeRegistry();
+                    this.callbacks = callbacks;
+                }
+            }
+        }
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void removeOnListChangedCallback(
+            OnListChangedCallback<? extends ObservableList<T>> callback) {
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Completes {@link #changes()}. This list can still be updated and notifies
+     * {@link android.databinding.ObservableList.OnListChangedCallback}s after disposed.
+     */
+    @Override
+    public void dispose() {
+        if (isDisposed.compareAndSet(false, true)) {
+            changeEmitter.onComplete();
+        }
+    }
+
+    /**
+     * Indicates whether this {@code RxListProperty} is currently disposed.
+     *
+     * @return {@code true} if this {@code RxListProperty} is currently disposed, {@code false}
+     * otherwise
+     */
+    @Override
+    public boolean isDisposed() {
+        return isDisposed.get();
+    }
+
+    private void apply(@NonNull ListDiff diff, @NonNull List<? extends T> newItems,
+                       boolean keepMatchedItems) {
+        for (ListChange change : diff.getChanges()) {
+            int position = change.getPosition();
+            int count = change.getCount();
+            switch (change.getType()) {
+                case REMOVED:
+                    items.subList(position, position + count).clear();
+                    ++modCount;
+                    notifyRemoved(position, count);
+                    break;
+                case INSERTED:
+                    items.addAll(position, newItems.subList(position, position + count));
+                    ++modCount;
+                    notifyInserted(position, count);
+                    break;
+                case CHANGED:
+                    if (keepMatchedItems) {
+                        break;
+                    }
+                    for (int i = position; i < position + count; ++i) {
+                        items.set(i, newItems.get(i));
+                    }
+                    notifyChanged(position, count);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected change: " + change);
+            }
+        }
+    }
+
+    private void notifyChanged(int position, int count) {
+        ++version;
+
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyChanged(this, position, count);
+        }
+        if (changeEmitter.hasObservers()) {
+            changeEmitter.onNext(ListChange.changed(position, count));
+        }
+    }
+
+    private void notifyInserted(int position, int count) {
+        ++version;
+
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyInserted(this, position, count);
+        }
+        if (changeEmitter.hasObservers()) {
+            changeEmitter.onNext(ListChange.inserted(position, count));
+        }
+    }
+
+    private void notifyRemoved(int position, int count) {
+        ++version;
+
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyRemoved(this, position, count);
+        }
+        if (changeEmitter.hasObservers()) {
+            changeEmitter.onNext(ListChange.removed(position, count));
+        }
+    }
+
+    private void notifyMoved(int fromPosition, int toPosition) {
+        ++version;
+
+        ListChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyMoved(this, fromPosition, toPosition, 1);
+        }
+        if (changeEmitter.hasObservers()) {
+            changeEmitter.onNext(ListChange.moved(fromPosition, toPosition, 1));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.MapChangeRegistry;
+import android.databinding.ObservableMap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.PropertyEmitter;
+
+/**
+ * Observable map property for Android Data Binding, whose entries can be observed one by one.
+ * <p>
+ * {@link #observeKey(Object, Object)} creates a property for a single key. Observers of each key
+ * are indexed by the key, so a change of an entry is dispatched only to the properties of the key
+ * regardless of the number of keys observed. Changes are also notified to
+ * {@link android.databinding.ObservableMap.OnMapChangedCallback}s.
+ * <p>
+ * Like {@link android.databinding.ObservableArrayMap}, this map is not thread-safe and should be
+ * updated on the main thread. The views returned by {@link #keySet()}, {@link #values()} and
+ * {@link #entrySet()} are read only.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class RxMapProperty<K, V> implements ObservableMap<K, V>, Disposable {
+    private static final Object ABSENT = new Object();
+
+    @NonNull
+    private final LinkedHashMap<K, V> entries;
+
+    @NonNull
+    private final HashMap<Object, PropertyEmitter<Object>> slots = new HashMap<>();
+
+    @Nullable
+    private volatile MapChangeRegistry callbacks = null;
+
+    @NonNull
+    private final AtomicBoolean isDisposed = new AtomicBoolean(false);
+
+    /**
+     * Creates an empty {@code RxMapProperty}.
+     */
+    public RxMapProperty() {
+        entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates {@code RxMapProperty} with the specified initial entries.
+     *
+     * @param initialEntries initial entries of this map
+     */
+    public RxMapProperty(@NonNull Map<? extends K, ? extends V> initialEntries) {
+        Helper.checkNull(initialEntries, "initialEntries");
+        entries = new LinkedHashMap<>(initialEntries);
+    }
+
+    /**
+     * Creates a property to observe the value of the specified key.
+     * <p>
+     * The property has the current value of the key, and it is updated only when the entry of
+     * the key is put or removed. Dispose the returned property when it is no longer used.
+     *
+     * @param key         a key to observe
+     * @param absentValue a value of the property while this map doesn't contain the key
+     * @return a property to observe the value of the key
+     */
+    @NonNull
+    public ReadOnlyRxProperty<V> observeKey(@NonNull K key, @NonNull final V absentValue) {
+        Helper.checkNull(key, "key");
+        Helper.checkNull(absentValue, "absentValue");
+
+        PropertyEmitter<Object> slot = slots.get(key);
+        if (slot == null || slot.isTerminated()) {
+            slot = new PropertyEmitter<>(false);
+            if (!isDisposed()) {
+                slots.put(key, slot);
+            } else {
+                slot.onComplete();
+            }
+        }
+
+        V value = entries.get(key);
+        return new ReadOnlyRxProperty<>(
+                slot.map(new Function<Object, V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V apply(Object value) {
+                        return value != ABSENT ? (V) value : absentValue;
+                    }
+                }),
+                value != null ? value : absentValue);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return entries.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V old = entries.put(key, value);
+        notifyChange(key, value != null ? value : ABSENT);
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!entries.containsKey(key)) {
+            return null;
+        }
+
+        V old = entries.remove(key);
+        notifyChange(key, ABSENT);
+        return old;
+    }
+
+    @Override
+    public void putAll(@NonNull Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        entries.clear();
+
+        // Notify only keys being observed.
+        Iterator<Map.Entry<Object, PropertyEmitter<Object>>> iterator
+                = slots.entrySet().iterator();
+        while (iterator.hasNext()) {
+            PropertyEmitter<Object> slot = iterator.next().getValue();
+            if (slot.hasObservers()) {
+                slot.onNext(ABSENT);
+            } else {
+                iterator.remove();
+            }
+        }
+
+        MapChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyChange(this, null);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    @NonNull
+    @Override
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    @NonNull
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return Collections.unmodifiableMap(entries).entrySet();
+    }
+
+    @Override
+    public void addOnMapChangedCallback(
+            OnMapChangedCallback<? extends ObservableMap<K, V>, K, V> callback) {
+        MapChangeRegistry callbacks = this.callbacks;
+        if (callbacks == null) {
+            synchronized (isDisposed) {
+                callbacks = this.callbacks;
+                if (callbacks == null) {
+                    callbacks = new MapChangeRegistry();
+                    this.callbacks = callbacks;
+                }
+            }
+        }
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void removeOnMapChangedCallback(
+            OnMapChangedCallback<? extends ObservableMap<K, V>, K, V> callback) {
+        MapChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Completes all properties created by {@link #observeKey(Object, Object)}. This map can still
+     * be updated and notifies
+     * {@link android.databinding.ObservableMap.OnMapChangedCallback}s after disposed.
+     */
+    @Override
+    public void dispose() {
+        if (isDisposed.compareAndSet(false, true)) {
+            for (PropertyEmitter<Object> slot : slots.values()) {
+                slot.onComplete();
+            }
+            slots.clear();
+        }
+    }
+
+    /**
+     * Indicates whether this {@code RxMapProperty} is currently disposed.
+     *
+     * @return {@code true} if this {@code RxMapProperty} is currently disposed, {@code false}
+     * otherwise
+     */
+    @Override
+    public boolean isDisposed() {
+        return isDisposed.get();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || entries.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return entries.toString();
+    }
+
+    private void notifyChange(@Nullable Object key, @NonNull Object value) {
+        PropertyEmitter<Object> slot = slots.get(key);
+        if (slot != null) {
+            if (slot.hasObservers()) {
+                slot.onNext(value);
+            } else {
+                // All properties of the key have been disposed.
+                slots.remove(key);
+            }
+        }
+
+        MapChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.notifyChange(this, key);
+        }
+    }
+}
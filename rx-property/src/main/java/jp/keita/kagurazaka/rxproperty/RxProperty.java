@@ -2,27 +2,34 @@ package jp.keita.kagurazaka.rxproperty;
 
 import android.databinding.ObservableBoolean;
 import android.databinding.ObservableField;
+import android.databinding.PropertyChangeRegistry;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Cancellable;
 import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 import io.reactivex.observers.DisposableObserver;
 import io.reactivex.plugins.RxJavaPlugins;
-import io.reactivex.subjects.BehaviorSubject;
-import io.reactivex.subjects.PublishSubject;
-import io.reactivex.subjects.Subject;
+import io.reactivex.schedulers.Schedulers;
 import jp.keita.kagurazaka.rxproperty.internal.Helper;
+import jp.keita.kagurazaka.rxproperty.internal.PropertyEmitter;
 
 /**
  * Two-way bindable and observable property for Android Data Binding.
@@ -47,7 +54,20 @@ public class RxProperty<T>
         /**
          * Sends notification on the instance created and subscribed.
          */
-        RAISE_LATEST_VALUE_ON_SUBSCRIBE;
+        RAISE_LATEST_VALUE_ON_SUBSCRIBE,
+        /**
+         * Defers notifications to the bound view until the next UI tick and notifies it only once
+         * with the latest value. Rx observers still receive every value.
+         *
+         * @see ViewNotifications
+         */
+        COALESCE_VIEW_NOTIFICATIONS,
+        /**
+         * Subscribes the source {@link io.reactivex.Observable} of {@link ReadOnlyRxProperty} only
+         * while one or more Rx observers or view callbacks are attached, and refreshes the value
+         * on every resubscription. The other properties ignore this mode.
+         */
+        REF_COUNT_SOURCE;
 
         /**
          * Default mode set of {@link RxProperty}.
@@ -98,42 +118,57 @@ public class RxProperty<T>
         String validate(@NonNull final T value);
     }
 
-    private final boolean isDistinctUntilChanged;
-
-    // for value emitter
-    @NonNull
-    private final RxPropertyField<T> propertyField;
-
-    @NonNull
-    private final RxPropertyValueField<T> valueField;
+    /**
+     * Interface representing validator to test the value of {@link RxProperty} asynchronously.
+     *
+     * @param <T> the type of {@link RxProperty}
+     */
+    public interface AsyncValidator<T> {
+        /**
+         * Validates the specified value.
+         * <p>
+         * The returned {@link Single} is disposed when a newer value is set before it succeeds.
+         *
+         * @param value a value to be tested
+         * @return a {@link Single} to emit a list of error messages if validation failed; otherwise
+         * the empty list
+         */
+        @NonNull
+        Single<List<String>> validate(@NonNull final T value);
 
-    @NonNull
-    private final Subject<T> valueEmitter;
+        /**
+         * Summarize error messages.
+         *
+         * @param errorMessages a list of all error messages
+         * @return a summarized error message if the specified error messages has an element;
+         * otherwise null
+         */
+        @Nullable
+        String summarizeErrorMessages(@NonNull final List<String> errorMessages);
+    }
 
-    // for validator
-    @NonNull
-    private final RxPropertyErrorField errorField;
+    private final boolean isDistinctUntilChanged;
 
-    @NonNull
-    private final ObservableBoolean hasErrorField = new ObservableBoolean(false);
+    private final boolean isRaiseLatestValueOnSubscribe;
 
-    @NonNull
-    private final Subject<T> validationTrigger = PublishSubject.<T>create().toSerialized();
+    private final boolean isCoalescingViewNotifications;
 
     @NonNull
-    private final Subject<List<String>> errorEmitter;
+    private volatile EqualityComparer<? super T> comparer = EqualityComparers.equality();
 
-    @NonNull
-    private final Observable<List<String>> onErrorsChangedObservable;
+    // for value emitter
+    @Nullable
+    private volatile PropertyChangeRegistry callbacks = null;
 
     @NonNull
-    private final Observable<String> onSummarizedErrorChangedObservable;
+    private final RxPropertyValueField<T> valueField;
 
     @NonNull
-    private final Observable<Boolean> onHasErrorsChangedObservable;
+    final PropertyEmitter<T> valueEmitter;
 
-    @NonNull
-    private List<String> currentErrors = Collections.emptyList();
+    // for validator, created on demand
+    @Nullable
+    private volatile RxPropertyValidation<T> validation = null;
 
     @NonNull
     private final AtomicBoolean isDisposed = new AtomicBoolean(false);
@@ -145,13 +180,13 @@ public class RxProperty<T>
     private final Disposable sourceDisposable;
 
     @Nullable
-    private Disposable validationTriggerDisposable = null;
+    private final LeakTracker.Record leakRecord;
 
     /**
      * Creates {@code RxProperty} without an initial value.
      */
     public RxProperty() {
-        this(Observable.<T>never(), Maybe.<T>empty(), Mode.DEFAULT);
+        this(Observable.<T>never(), false, Maybe.<T>empty(), Mode.DEFAULT);
     }
 
     /**
@@ -160,7 +195,7 @@ public class RxProperty<T>
      * @param initialValue the initial value of this {@code RxProperty}
      */
     public RxProperty(@NonNull T initialValue) {
-        this(Observable.<T>never(), Helper.createInitialMaybe(initialValue), Mode.DEFAULT);
+        this(Observable.<T>never(), false, Helper.createInitialMaybe(initialValue), Mode.DEFAULT);
     }
 
     /**
@@ -169,7 +204,7 @@ public class RxProperty<T>
      * @param mode mode of this {@code RxProperty}
      */
     public RxProperty(@NonNull EnumSet<Mode> mode) {
-        this(Observable.<T>never(), Maybe.<T>empty(), mode);
+        this(Observable.<T>never(), false, Maybe.<T>empty(), mode);
     }
 
     /**
@@ -179,7 +214,7 @@ public class RxProperty<T>
      * @param mode         mode of this {@code RxProperty}
      */
     public RxProperty(@NonNull T initialValue, @NonNull EnumSet<Mode> mode) {
-        this(Observable.<T>never(), Helper.createInitialMaybe(initialValue), mode);
+        this(Observable.<T>never(), false, Helper.createInitialMaybe(initialValue), mode);
     }
 
     /**
@@ -188,7 +223,7 @@ public class RxProperty<T>
      * @param source a source {@link Observable} of this {@code RxProperty}
      */
     public RxProperty(@NonNull Observable<T> source) {
-        this(source, Maybe.<T>empty(), Mode.DEFAULT);
+        this(source, true, Maybe.<T>empty(), Mode.DEFAULT);
     }
 
     /**
@@ -198,7 +233,7 @@ public class RxProperty<T>
      * @param initialValue the initial value of this {@code RxProperty}
      */
     public RxProperty(@NonNull Observable<T> source, @NonNull T initialValue) {
-        this(source, Helper.createInitialMaybe(initialValue), Mode.DEFAULT);
+        this(source, true, Helper.createInitialMaybe(initialValue), Mode.DEFAULT);
     }
 
     /**
@@ -208,7 +243,7 @@ public class RxProperty<T>
      * @param mode   mode of this {@code RxProperty}
      */
     public RxProperty(@NonNull Observable<T> source, @NonNull EnumSet<Mode> mode) {
-        this(source, Maybe.<T>empty(), mode);
+        this(source, true, Maybe.<T>empty(), mode);
     }
 
     /**
@@ -221,57 +256,29 @@ public class RxProperty<T>
      */
     public RxProperty(@NonNull Observable<T> source, @NonNull T initialValue,
                       @NonNull EnumSet<Mode> mode) {
-        this(source, Helper.createInitialMaybe(initialValue), mode);
+        this(source, true, Helper.createInitialMaybe(initialValue), mode);
     }
 
-    private RxProperty(@NonNull Observable<T> source, @NonNull Maybe<T> initialMaybe,
-                       @NonNull EnumSet<Mode> mode) {
+    private RxProperty(@NonNull Observable<T> source, boolean hasSource,
+                       @NonNull Maybe<T> initialMaybe, @NonNull EnumSet<Mode> mode) {
         // null check
         Helper.checkNull(source, "source");
         Helper.checkNull(mode, "mode");
 
         // Initialize ObservableFields
         T initialValue = initialMaybe.blockingGet();
-        propertyField = new RxPropertyField<>(initialValue);
         valueField = new RxPropertyValueField<>(this, initialValue);
-        errorField = new RxPropertyErrorField("");
 
         // Set modes.
         isDistinctUntilChanged
                 = !mode.contains(Mode.NONE) && mode.contains(Mode.DISTINCT_UNTIL_CHANGED);
-        boolean isRaiseLatestValueOnSubscribe
+        isRaiseLatestValueOnSubscribe
                 = !mode.contains(Mode.NONE) && mode.contains(Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE);
+        isCoalescingViewNotifications
+                = !mode.contains(Mode.NONE) && mode.contains(Mode.COALESCE_VIEW_NOTIFICATIONS);
 
-        // Create emitters.
-        if (isRaiseLatestValueOnSubscribe) {
-            valueEmitter = (initialValue != null ?
-                    BehaviorSubject.createDefault(initialValue) :
-                    BehaviorSubject.<T>create()).toSerialized();
-        } else {
-            valueEmitter = PublishSubject.<T>create().toSerialized();
-        }
-
-        errorEmitter = (isRaiseLatestValueOnSubscribe ?
-                BehaviorSubject.<List<String>>create() :
-                PublishSubject.<List<String>>create()
-        ).toSerialized();
-
-        // Create observables for notifying errors.
-        onErrorsChangedObservable = errorEmitter.distinctUntilChanged().share();
-        onSummarizedErrorChangedObservable = onErrorsChangedObservable
-                .map(new Function<List<String>, String>() {
-                    @Override
-                    public String apply(List<String> strings) {
-                        return getSummarizedErrorMessage();
-                    }
-                }).distinctUntilChanged().share();
-        onHasErrorsChangedObservable = onErrorsChangedObservable
-                .map(new Function<List<String>, Boolean>() {
-                    @Override
-                    public Boolean apply(List<String> strings) {
-                        return hasErrors();
-                    }
-                }).distinctUntilChanged().share();
+        // Create an emitter.
+        valueEmitter = new PropertyEmitter<>(isRaiseLatestValueOnSubscribe, initialValue);
 
         // Subscribe the source observable.
         sourceDisposable = source.subscribeWith(new DisposableObserver<T>() {
@@ -293,10 +300,24 @@ public class RxProperty<T>
             }
         });
 
+        // Track this property if leak detection is enabled and the source hasn't terminated.
+        leakRecord = isDisposed() ? null : LeakTracker.track(this, hasSource);
+
         // Register RxJava plugins.
         RxJavaPlugins.onAssembly(this);
     }
 
+    /**
+     * Runs the specified action in a {@link PropertyTransaction}. Each property updated by the
+     * action notifies the bound view, runs the validator and emits its final value just once
+     * after the action finishes.
+     *
+     * @param action an action to update properties
+     */
+    public static void batch(@NonNull Runnable action) {
+        PropertyTransaction.run(action);
+    }
+
     /**
      * Gets the latest value of this {@code RxProperty}.
      *
@@ -320,6 +341,7 @@ public class RxProperty<T>
      */
     @Nullable
     public T getOrNull() {
+        DependencyTracker.record(this);
         return valueField.get();
     }
 
@@ -352,7 +374,7 @@ public class RxProperty<T>
      * {@code RxProperty}
      */
     public Observable<List<String>> onErrorsChanged() {
-        return onErrorsChangedObservable;
+        return getValidation().onErrorsChangedObservable;
     }
 
     /**
@@ -364,7 +386,7 @@ public class RxProperty<T>
      * {@code RxProperty}
      */
     public Observable<String> onSummarizedErrorChanged() {
-        return onSummarizedErrorChangedObservable;
+        return getValidation().onSummarizedErrorChangedObservable;
     }
 
     /**
@@ -377,7 +399,7 @@ public class RxProperty<T>
      * changed
      */
     public Observable<Boolean> onHasErrorsChanged() {
-        return onHasErrorsChangedObservable;
+        return getValidation().onHasErrorsChangedObservable;
     }
 
     /**
@@ -387,7 +409,10 @@ public class RxProperty<T>
      */
     @NonNull
     public List<String> getErrorMessages() {
-        return currentErrors;
+        RxPropertyValidation<T> validation = this.validation;
+        return validation != null ?
+                validation.currentErrors :
+                Collections.<String>emptyList();
     }
 
     /**
@@ -398,7 +423,8 @@ public class RxProperty<T>
      */
     @NonNull
     public String getSummarizedErrorMessage() {
-        return errorField.get();
+        RxPropertyValidation<T> validation = this.validation;
+        return validation != null ? validation.errorField.get() : "";
     }
 
     /**
@@ -407,7 +433,8 @@ public class RxProperty<T>
      * @return true if this {@code RxProperty} has validation errors; otherwise else
      */
     public boolean hasErrors() {
-        return !currentErrors.isEmpty();
+        RxPropertyValidation<T> validation = this.validation;
+        return validation != null && validation.hasErrors();
     }
 
     /**
@@ -434,20 +461,124 @@ public class RxProperty<T>
     public RxProperty<T> setValidator(
             @Nullable final SimpleValidator<T> validator,
             boolean validateNow) {
+        return setValidator(toValidator(validator), validateNow);
+    }
+
+    /**
+     * Sets the specified validator to this {@code RxProperty} with a cache of its results.
+     * <p>
+     * Validator should return an error message if the validation failed; otherwise null.
+     *
+     * @param validator a validator to test the value of this {@code RxProperty}
+     * @param cache     a cache to memoize validation results for each value
+     * @return this instance
+     * @see ValidationCache
+     */
+    public RxProperty<T> setValidator(@Nullable final SimpleValidator<T> validator,
+                                      @NonNull ValidationCache<T> cache) {
+        return setValidator(toValidator(validator), cache);
+    }
+
+    /**
+     * Sets the specified validator to this {@code RxProperty} with a cache of its results.
+     * <p>
+     * Validator should return a list of error messages if the validation failed; otherwise null or
+     * the empty list.
+     *
+     * @param validator a validator to test the value of this {@code RxProperty}
+     * @param cache     a cache to memoize validation results for each value
+     * @return this instance
+     * @see ValidationCache
+     */
+    public RxProperty<T> setValidator(@Nullable final Validator<T> validator,
+                                      @NonNull ValidationCache<T> cache) {
+        Helper.checkNull(cache, "cache");
+
         if (validator == null) {
-            return setValidator((Validator<T>) null, validateNow);
+            return setValidator((Validator<T>) null);
         }
 
-        final Validator<T> wrapped = new Validator<T>() {
+        getValidation().setValidator(validator, cache, null);
+        forceValidate();
+        return this;
+    }
+
+    /**
+     * Sets the specified validator which reads other properties to this {@code RxProperty}.
+     * <p>
+     * Validator should return an error message if the validation failed; otherwise null.
+     *
+     * @param validator    a validator to test the value of this {@code RxProperty}
+     * @param dependencies observables such as other properties read by the validator
+     * @return this instance
+     * @see #setValidator(Validator, Observable[])
+     */
+    public RxProperty<T> setValidator(@Nullable final SimpleValidator<T> validator,
+                                      @NonNull Observable<?>... dependencies) {
+        return setValidator(toValidator(validator), dependencies);
+    }
+
+    /**
+     * Sets the specified validator which reads other properties to this {@code RxProperty}.
+     * <p>
+     * Validator should return a list of error messages if the validation failed; otherwise null or
+     * the empty list. Whenever one of the dependencies emits a value, only this
+     * {@code RxProperty} is validated again. Dependencies are unsubscribed when the validator is
+     * replaced or this {@code RxProperty} is disposed.
+     *
+     * @param validator    a validator to test the value of this {@code RxProperty}
+     * @param dependencies observables such as other properties read by the validator
+     * @return this instance
+     */
+    public RxProperty<T> setValidator(@Nullable final Validator<T> validator,
+                                      @NonNull Observable<?>... dependencies) {
+        Helper.checkNull(dependencies, "dependencies");
+        for (Observable<?> dependency : dependencies) {
+            Helper.checkNull(dependency, "dependency");
+        }
+
+        if (validator == null) {
+            return setValidator((Validator<T>) null);
+        }
+
+        RxPropertyValidation<T> validation = getValidation();
+        validation.setValidator(validator, null, null);
+
+        // Ignore values replayed on subscribe because the value is validated just after that.
+        final AtomicBoolean isSubscribing = new AtomicBoolean(true);
+        validation.setDependencies(Observable.mergeArray(dependencies).subscribe(
+                new Consumer<Object>() {
+                    @Override
+                    public void accept(Object value) {
+                        if (!isSubscribing.get()) {
+                            forceValidate();
+                        }
+                    }
+                },
+                new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable e) {
+                        // A failed dependency just stops triggering validation.
+                    }
+                }));
+        isSubscribing.set(false);
+
+        forceValidate();
+        return this;
+    }
+
+    @Nullable
+    private static <T> Validator<T> toValidator(@Nullable final SimpleValidator<T> validator) {
+        if (validator == null) {
+            return null;
+        }
+
+        return new Validator<T>() {
             @Nullable
             @Override
             public List<String> validate(@NonNull final T value) {
-                String message;
-                try {
-                    message = validator.validate(value);
-                } catch (Exception e) {
-                    message = e.getLocalizedMessage();
-                }
+                // Exceptions are reported by the caller, which doesn't cache them.
+                String message = validator.validate(value);
                 if (message == null) {
                     return null;
                 }
@@ -463,7 +594,6 @@ public class RxProperty<T>
                 return errorMessages.get(0);
             }
         };
-        return setValidator(wrapped, validateNow);
     }
 
     /**
@@ -490,43 +620,16 @@ public class RxProperty<T>
      * @return this instance
      */
     public RxProperty<T> setValidator(@Nullable final Validator<T> validator, boolean validateNow) {
-        if (validationTriggerDisposable != null) {
-            validationTriggerDisposable.dispose();
-        }
-
         if (validator == null) {
-            clearErrors();
+            RxPropertyValidation<T> validation = this.validation;
+            if (validation != null) {
+                validation.setValidator(null, null, null);
+                validation.clearErrors();
+            }
             return this;
         }
 
-        validationTriggerDisposable = validationTrigger.subscribe(new Consumer<T>() {
-            @Override
-            public void accept(T value) {
-                List<String> errors;
-                String summarized = null;
-                try {
-                    errors = validator.validate(value);
-                    if (errors != null) {
-                        summarized = validator.summarizeErrorMessages(errors);
-                    }
-                    if (summarized == null) {
-                        summarized = "";
-                    }
-                } catch (Exception e) {
-                    summarized = e.getLocalizedMessage();
-                    errors = Collections.singletonList(summarized);
-                }
-
-                if (errors == null || errors.isEmpty()) {
-                    clearErrors();
-                } else {
-                    currentErrors = errors;
-                    errorField.setValue(summarized);
-                    hasErrorField.set(true);
-                    errorEmitter.onNext(errors);
-                }
-            }
-        });
+        getValidation().setValidator(validator, null, null);
 
         if (validateNow) {
             forceValidate();
@@ -534,24 +637,154 @@ public class RxProperty<T>
         return this;
     }
 
+    /**
+     * Sets the specified asynchronous validator to this {@code RxProperty}. Validation runs on
+     * {@link Schedulers#computation()} immediately after each change.
+     *
+     * @param validator a validator to test the value of this {@code RxProperty}
+     * @return this instance
+     * @see #setAsyncValidator(AsyncValidator, long, TimeUnit, Scheduler)
+     */
+    public RxProperty<T> setAsyncValidator(@Nullable final AsyncValidator<T> validator) {
+        return setAsyncValidator(validator, 0, TimeUnit.MILLISECONDS, Schedulers.computation());
+    }
+
+    /**
+     * Sets the specified asynchronous validator to this {@code RxProperty}, which replaces the
+     * synchronous one. The current value is validated immediately.
+     * <p>
+     * Validation starts on the specified scheduler when no further value has been set within the
+     * debounce window. Setting a new value cancels the pending or in-flight validation of the
+     * older one, so only the result for the latest value updates the error messages. The results
+     * are notified on the thread where the validator emits them.
+     *
+     * @param validator a validator to test the value of this {@code RxProperty}
+     * @param debounce  a time to wait for further changes before validation starts
+     * @param unit      the unit of {@code debounce}
+     * @param scheduler a scheduler to wait and validate on
+     * @return this instance
+     */
+    public RxProperty<T> setAsyncValidator(@Nullable final AsyncValidator<T> validator,
+                                           long debounce, @NonNull TimeUnit unit,
+                                           @NonNull Scheduler scheduler) {
+        Helper.checkNull(unit, "unit");
+        Helper.checkNull(scheduler, "scheduler");
+
+        if (validator == null) {
+            return setValidator((Validator<T>) null);
+        }
+
+        RxPropertyValidation<T> validation = getValidation();
+        validation.setValidator(null, null,
+                new RxPropertyAsyncValidation<>(validation, validator, debounce, unit, scheduler));
+        forceValidate();
+        return this;
+    }
+
+    /**
+     * Converts this {@code RxProperty} into a {@link Flowable} which conflates values for slow
+     * subscribers.
+     * <p>
+     * Each subscriber holds at most one pending value, the latest one, until it requests more, so
+     * values are never queued. Combine it with {@code observeOn(scheduler, false, 1)} to hand
+     * values over to a slow consumer on another thread with bounded memory. Use
+     * {@link #toFlowable(BackpressureStrategy)} for other strategies.
+     *
+     * @return a {@link Flowable} to emit values of this {@code RxProperty} with the latest value
+     * conflation
+     */
+    @NonNull
+    public Flowable<T> toFlowable() {
+        return toFlowable(BackpressureStrategy.LATEST);
+    }
+
+    /**
+     * Sets the strategy to compare a new value with the current one in
+     * {@link Mode#DISTINCT_UNTIL_CHANGED} mode. The default is
+     * {@link EqualityComparers#equality()}.
+     *
+     * @param comparer a strategy to compare values
+     * @return this instance
+     */
+    public RxProperty<T> setEqualityComparer(@NonNull EqualityComparer<? super T> comparer) {
+        Helper.checkNull(comparer, "comparer");
+        this.comparer = comparer;
+        return this;
+    }
+
     /**
      * Forcibly notifies the latest value of this {@code RxProperty} to all observers including the
      * bound view. This method ignores {@link Mode#DISTINCT_UNTIL_CHANGED}.
      */
     public void forceNotify() {
-        valueField.set(getOrNull(), true);
+        valueField.set(getOrNull(), true, true);
     }
 
     /**
      * Invoke validation process.
      */
     public void forceValidate() {
+        RxPropertyValidation<T> validation = this.validation;
         T latestValue = getOrNull();
-        if (latestValue != null) {
-            validationTrigger.onNext(latestValue);
+        if (validation != null && latestValue != null) {
+            validation.validate(latestValue);
         }
     }
 
+    /**
+     * Puts this {@code RxProperty} back into a fresh state with the specified value, e.g. to reuse
+     * the view model of a recycled row. Validation errors are cleared and a pending asynchronous
+     * validation is cancelled without validating the new value.
+     * <p>
+     * The value is notified to the bound view and observers like {@link #set(Object)}, so it's
+     * deferred until a running {@link PropertyTransaction} finishes. The validator, the source and
+     * observers are kept.
+     *
+     * @param value a new value
+     */
+    public void reset(@NonNull T value) {
+        reset(value, false);
+    }
+
+    /**
+     * Puts this {@code RxProperty} back into a fresh state with the specified value, e.g. to reuse
+     * the view model of a recycled row. Validation errors are cleared and a pending asynchronous
+     * validation is cancelled.
+     * <p>
+     * The value is notified to the bound view and observers like {@link #set(Object)}, so it's
+     * deferred until a running {@link PropertyTransaction} finishes. The validator, the source and
+     * observers are kept.
+     *
+     * @param value    a new value
+     * @param validate if true, the new value is validated; otherwise the property has no errors
+     *                 until the next change
+     */
+    public void reset(@NonNull T value, boolean validate) {
+        Helper.checkNull(value, "value");
+        if (isDisposed()) {
+            return;
+        }
+
+        PropertyTransaction transaction = PropertyTransaction.current();
+        if (transaction != null) {
+            transaction.enlistReset(valueField, valueField.value, value, validate);
+            return;
+        }
+
+        RxPropertyValidation<T> validation = this.validation;
+        if (validation != null) {
+            validation.reset();
+        }
+
+        if (isDistinctUntilChanged && isSame(value, valueField.value)) {
+            if (validate) {
+                forceValidate();
+            }
+            return;
+        }
+        valueField.set(value, true, validate);
+    }
+
     /**
      * Stops receiving notifications by the source {@link Observable} and send notifications to
      * observers of this {@code RxProperty}.
@@ -559,18 +792,24 @@ public class RxProperty<T>
     @Override
     public void dispose() {
         if (isDisposed.compareAndSet(false, true)) {
-            // Terminate internal subjects.
-            Helper.safeComplete(valueEmitter);
-            Helper.safeComplete(errorEmitter);
-            Helper.safeComplete(validationTrigger);
+            // Terminate the internal emitter.
+            valueEmitter.onComplete();
 
             // Dispose internal disposables.
             Helper.safeDispose(sourceDisposable);
-            Helper.safeDispose(validationTriggerDisposable);
+
+            // Terminate the validation pipeline if it has been created.
+            RxPropertyValidation<T> validation = this.validation;
+            if (validation != null) {
+                validation.dispose();
+            }
 
             // Unbind a view observer.
             Helper.safeCancel(cancellable);
             cancellable = null;
+            ViewNotifications.cancel(valueField);
+
+            LeakTracker.untrack(leakRecord);
         }
     }
 
@@ -587,12 +826,25 @@ public class RxProperty<T>
 
     @Override
     public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
-        propertyField.addOnPropertyChangedCallback(callback);
+        PropertyChangeRegistry callbacks = this.callbacks;
+        if (callbacks == null) {
+            synchronized (valueField) {
+                callbacks = this.callbacks;
+                if (callbacks == null) {
+                    callbacks = new PropertyChangeRegistry();
+                    this.callbacks = callbacks;
+                }
+            }
+        }
+        callbacks.add(callback);
     }
 
     @Override
     public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
-        propertyField.removeOnPropertyChangedCallback(callback);
+        PropertyChangeRegistry callbacks = this.callbacks;
+        if (callbacks != null) {
+            callbacks.remove(callback);
+        }
     }
 
     @Override
@@ -605,19 +857,46 @@ public class RxProperty<T>
             return;
         }
 
-        if (isDistinctUntilChanged && Helper.compare(value, getOrNull())) {
+        PropertyTransaction transaction = PropertyTransaction.current();
+        if (transaction != null) {
+            transaction.enlist(valueField, valueField.value, value, viewUpdate);
             return;
         }
-        valueField.set(value, viewUpdate);
+
+        if (isDistinctUntilChanged && isSame(value, valueField.value)) {
+            return;
+        }
+        valueField.set(value, viewUpdate, true);
+    }
+
+    @NonNull
+    private RxPropertyValidation<T> getValidation() {
+        RxPropertyValidation<T> validation = this.validation;
+        if (validation == null) {
+            synchronized (valueField) {
+                validation = this.validation;
+                if (validation == null) {
+                    validation = new RxPropertyValidation<>(isRaiseLatestValueOnSubscribe);
+                    this.validation = validation;
+
+                    // A pipeline requested after disposal must be terminated as well.
+                    if (isDisposed()) {
+                        validation.dispose();
+                    }
+                }
+            }
+        }
+        return validation;
     }
 
-    private void clearErrors() {
-        if (hasErrors()) {
-            currentErrors = Collections.emptyList();
-            errorField.setValue("");
-            hasErrorField.set(false);
-            errorEmitter.onNext(currentErrors);
+    private boolean isSame(@NonNull T value, @Nullable T current) {
+        if (current == null) {
+            return false;
         }
+        EqualityComparer<? super T> comparer = this.comparer;
+        return EqualityComparers.isHashFirst(comparer)
+                ? valueField.isSameByHash(value, current)
+                : comparer.areEqual(value, current);
     }
 
     /**
@@ -636,7 +915,7 @@ public class RxProperty<T>
      */
     @Deprecated
     public ObservableField<String> getError() {
-        return errorField;
+        return getValidation().errorField;
     }
 
     /**
@@ -646,7 +925,7 @@ public class RxProperty<T>
      */
     @Deprecated
     public ObservableBoolean getHasError() {
-        return hasErrorField;
+        return getValidation().hasErrorField;
     }
 
     /**
@@ -657,67 +936,443 @@ public class RxProperty<T>
     public void setCancellable(@Nullable Cancellable cancellable) {
         Helper.safeCancel(this.cancellable);
         this.cancellable = cancellable;
+        if (leakRecord != null) {
+            leakRecord.hasCancellable = cancellable != null;
+        }
     }
 
     /**
-     * Reimplementation of {@link ObservableField} for collaborating with {@link RxProperty}.
+     * Specialized {@link ObservableField} to represent a value of {@link RxProperty}, which is used
+     * in view binding.
      *
      * @param <T> the type of value stored in this property
      */
-    private static class RxPropertyField<T> extends ObservableField<T> {
+    private static class RxPropertyValueField<T> extends ObservableField<T>
+            implements PropertyTransaction.Participant, ViewNotifications.Target {
+        private final RxProperty<T> parent;
         private T value;
 
-        RxPropertyField(T initialValue) {
+        // The value whose hash code is cached for EqualityComparers.hashFirst(), and the hash.
+        @Nullable
+        private volatile Object hashedValue = null;
+
+        private volatile int valueHash;
+
+        RxPropertyValueField(RxProperty<T> parent, T initialValue) {
+            this.parent = parent;
             this.value = initialValue;
         }
 
+        /**
+         * Compares values as {@link EqualityComparers#hashFirst()} does with the cached hash code
+         * of the current value, and caches the hash code of the value which becomes current.
+         */
+        boolean isSameByHash(@NonNull T value, @NonNull T current) {
+            if (value == current) {
+                return true;
+            }
+            int currentHash = hashedValue == current ? valueHash : current.hashCode();
+            int hash = value.hashCode();
+            if (hash == currentHash && value.equals(current)) {
+                cacheHash(current, currentHash);
+                return true;
+            }
+            // The new value is published unless it is dropped by a later value.
+            cacheHash(value, hash);
+            return false;
+        }
+
+        private void cacheHash(@NonNull Object value, int hash) {
+            // The hash is written first, so a reader finding the value sees its hash.
+            valueHash = hash;
+            hashedValue = value;
+        }
+
         @Override
+        @SuppressWarnings("unchecked")
         public T get() {
-            return value;
+            Object pending = PropertyTransaction.pendingValueOf(this);
+            return pending != null ? (T) pending : value;
         }
 
         @Override
         public void set(T value) {
+            set(value, false, true);
+        }
+
+        /**
+         * Dispatches the specified value to callbacks of the parent, the bound view, the validator
+         * and Rx observers in this order.
+         */
+        void set(T value, boolean viewUpdate, boolean validate) {
             this.value = value;
+
+            PropertyChangeRegistry callbacks = parent.callbacks;
+            if (callbacks != null) {
+                callbacks.notifyCallbacks(parent, 0, null);
+            }
+
+            if (viewUpdate) {
+                if (parent.isCoalescingViewNotifications) {
+                    ViewNotifications.post(this);
+                } else {
+                    notifyChange();
+                }
+            }
+
+            RxPropertyValidation<T> validation = parent.validation;
+            if (validation != null && validate) {
+                validation.validate(value);
+            }
+
+            parent.valueEmitter.onNext(value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void commit(@Nullable Object initialValue, @NonNull Object value,
+                           boolean viewUpdate, boolean validate, boolean isReset) {
+            if (parent.isDisposed()) {
+                return;
+            }
+
+            // A reset clears errors and cancels a pending validation as it does outside a
+            // transaction.
+            RxPropertyValidation<T> validation = parent.validation;
+            if (isReset && validation != null) {
+                validation.reset();
+            }
+
+            T next = (T) value;
+            if (parent.isDistinctUntilChanged && parent.isSame(next, (T) initialValue)) {
+                if (isReset && validate) {
+                    parent.forceValidate();
+                }
+                return;
+            }
+            set(next, viewUpdate, validate);
+        }
+
+        @Override
+        public void notifyView() {
             notifyChange();
         }
+
+        @Override
+        public boolean isDisposed() {
+            return parent.isDisposed();
+        }
     }
 
     /**
-     * Specialized {@link ObservableField} to represent a value of {@link RxProperty}, which is used
-     * in view binding.
+     * Validation state of {@link RxProperty}. Most properties never have a validator, so this is
+     * created on the first call of a validation related method.
      *
-     * @param <T> the type of value stored in this property
+     * @param <T> the type of value to be validated
      */
-    private static class RxPropertyValueField<T> extends ObservableField<T> {
-        private final RxProperty<T> parent;
-        private T value;
+    private static class RxPropertyValidation<T> {
+        @NonNull
+        final RxPropertyErrorField errorField = new RxPropertyErrorField("");
 
-        RxPropertyValueField(RxProperty<T> parent, T initialValue) {
-            this.parent = parent;
-            this.value = initialValue;
+        @NonNull
+        final ObservableBoolean hasErrorField = new ObservableBoolean(false);
+
+        @NonNull
+        final PropertyEmitter<List<String>> errorEmitter;
+
+        @NonNull
+        final Observable<List<String>> onErrorsChangedObservable;
+
+        @NonNull
+        final Observable<String> onSummarizedErrorChangedObservable;
+
+        @NonNull
+        final Observable<Boolean> onHasErrorsChangedObservable;
+
+        @NonNull
+        volatile List<String> currentErrors = Collections.emptyList();
+
+        @Nullable
+        volatile Validator<T> validator = null;
+
+        @Nullable
+        volatile ValidationCache<T> cache = null;
+
+        @Nullable
+        volatile RxPropertyAsyncValidation<T> asyncValidation = null;
+
+        @Nullable
+        private Disposable dependencies = null;
+
+        RxPropertyValidation(boolean isRaiseLatestValueOnSubscribe) {
+            errorEmitter = new PropertyEmitter<>(isRaiseLatestValueOnSubscribe);
+
+            // Create observables for notifying errors.
+            onErrorsChangedObservable = errorEmitter.distinctUntilChanged().share();
+            onSummarizedErrorChangedObservable = onErrorsChangedObservable
+                    .map(new Function<List<String>, String>() {
+                        @Override
+                        public String apply(List<String> strings) {
+                            return errorField.get();
+                        }
+                    }).distinctUntilChanged().share();
+            onHasErrorsChangedObservable = onErrorsChangedObservable
+                    .map(new Function<List<String>, Boolean>() {
+                        @Override
+                        public Boolean apply(List<String> strings) {
+                            return hasErrors();
+                        }
+                    }).distinctUntilChanged().share();
         }
 
-        @Override
-        public T get() {
-            return value;
+        boolean hasErrors() {
+            return !currentErrors.isEmpty();
         }
 
-        @Override
-        public void set(T value) {
-            set(value, false);
+        synchronized void setValidator(@Nullable Validator<T> validator,
+                                       @Nullable ValidationCache<T> cache,
+                                       @Nullable RxPropertyAsyncValidation<T> asyncValidation) {
+            RxPropertyAsyncValidation<T> oldAsyncValidation = this.asyncValidation;
+            if (oldAsyncValidation != null) {
+                oldAsyncValidation.dispose();
+            }
+            Helper.safeDispose(dependencies);
+            dependencies = null;
+
+            this.validator = validator;
+            this.cache = cache;
+            this.asyncValidation = asyncValidation;
         }
 
-        void set(T value, boolean viewUpdate) {
-            this.value = value;
-            parent.propertyField.set(value);
+        synchronized void setDependencies(@NonNull Disposable dependencies) {
+            // Dependencies registered after disposal must be released immediately.
+            if (errorEmitter.isTerminated()) {
+                dependencies.dispose();
+                return;
+            }
 
-            if (viewUpdate) {
-                notifyChange();
+            Helper.safeDispose(this.dependencies);
+            this.dependencies = dependencies;
+        }
+
+        void validate(@NonNull T value) {
+            RxPropertyAsyncValidation<T> asyncValidation = this.asyncValidation;
+            if (asyncValidation != null) {
+                asyncValidation.request(value);
+                return;
             }
 
-            parent.validationTrigger.onNext(value);
-            parent.valueEmitter.onNext(value);
+            Validator<T> validator = this.validator;
+            if (validator == null) {
+                return;
+            }
+
+            ValidationCache<T> cache = this.cache;
+            ValidationCache.Entry entry = cache != null ? cache.get(value) : null;
+
+            List<String> errors;
+            String summarized = null;
+            if (entry != null) {
+                errors = entry.errors;
+                summarized = entry.summarized;
+            } else {
+                try {
+                    errors = validator.validate(value);
+                    if (errors != null) {
+                        summarized = validator.summarizeErrorMessages(errors);
+                    }
+                    if (summarized == null) {
+                        summarized = "";
+                    }
+
+                    // Exceptions thrown by the validator are not cached.
+                    if (cache != null) {
+                        cache.put(value, errors, summarized);
+                    }
+                } catch (Exception e) {
+                    summarized = e.getLocalizedMessage();
+                    errors = Collections.singletonList(summarized);
+                }
+            }
+
+            if (errors == null || errors.isEmpty()) {
+                clearErrors();
+            } else {
+                setErrors(errors, summarized);
+            }
+        }
+
+        void setErrors(@NonNull List<String> errors, @NonNull String summarized) {
+            currentErrors = errors;
+            errorField.setValue(summarized);
+            hasErrorField.set(true);
+            errorEmitter.onNext(errors);
+        }
+
+        void clearErrors() {
+            if (hasErrors()) {
+                currentErrors = Collections.emptyList();
+                errorField.setValue("");
+                hasErrorField.set(false);
+                errorEmitter.onNext(currentErrors);
+            }
+        }
+
+        void reset() {
+            RxPropertyAsyncValidation<T> asyncValidation = this.asyncValidation;
+            if (asyncValidation != null) {
+                asyncValidation.cancel();
+            }
+            clearErrors();
+        }
+
+        void dispose() {
+            setValidator(null, null, null);
+            errorEmitter.onComplete();
+        }
+    }
+
+    /**
+     * Asynchronous validation of {@link RxProperty}. Each request cancels the pending or in-flight
+     * validation of the previous one.
+     *
+     * @param <T> the type of value to be validated
+     */
+    private static class RxPropertyAsyncValidation<T> {
+        @NonNull
+        private final RxPropertyValidation<T> validation;
+
+        @NonNull
+        private final PropertyEmitter<Request<T>> requestEmitter = new PropertyEmitter<>(false);
+
+        @NonNull
+        private final AtomicLong latestSequence = new AtomicLong();
+
+        @NonNull
+        private final Disposable disposable;
+
+        RxPropertyAsyncValidation(@NonNull RxPropertyValidation<T> validation,
+                                  @NonNull final AsyncValidator<T> validator,
+                                  final long debounce, @NonNull final TimeUnit unit,
+                                  @NonNull final Scheduler scheduler) {
+            this.validation = validation;
+
+            final Function<Request<T>, Observable<Result>> validate
+                    = new Function<Request<T>, Observable<Result>>() {
+                @Override
+                public Observable<Result> apply(final Request<T> request) {
+                    return Single
+                            .defer(new Callable<Single<List<String>>>() {
+                                @Override
+                                public Single<List<String>> call() {
+                                    return validator.validate(request.value);
+                                }
+                            })
+                            .subscribeOn(scheduler)
+                            .map(new Function<List<String>, Result>() {
+                                @Override
+                                public Result apply(List<String> errors) {
+                                    String summarized = null;
+                                    if (!errors.isEmpty()) {
+                                        summarized = validator.summarizeErrorMessages(errors);
+                                    }
+                                    return new Result(request.sequence, errors,
+                                            summarized != null ? summarized : "");
+                                }
+                            })
+                            .onErrorReturn(new Function<Throwable, Result>() {
+                                @Override
+                                public Result apply(Throwable e) {
+                                    String message = e.getLocalizedMessage();
+                                    return new Result(request.sequence,
+                                            Collections.singletonList(message), message);
+                                }
+                            })
+                            .toObservable();
+                }
+            };
+
+            disposable = requestEmitter
+                    .switchMap(new Function<Request<T>, Observable<Result>>() {
+                        @Override
+                        public Observable<Result> apply(final Request<T> request)
+                                throws Exception {
+                            if (debounce <= 0) {
+                                return validate.apply(request);
+                            }
+                            return Observable.timer(debounce, unit, scheduler)
+                                    .flatMap(new Function<Long, Observable<Result>>() {
+                                        @Override
+                                        public Observable<Result> apply(Long tick)
+                                                throws Exception {
+                                            return validate.apply(request);
+                                        }
+                                    });
+                        }
+                    })
+                    .subscribe(new Consumer<Result>() {
+                        @Override
+                        public void accept(Result result) {
+                            apply(result);
+                        }
+                    });
+        }
+
+        void request(@NonNull T value) {
+            requestEmitter.onNext(new Request<>(latestSequence.incrementAndGet(), value));
+        }
+
+        void cancel() {
+            // Drop the result of the pending or in-flight validation.
+            latestSequence.incrementAndGet();
+        }
+
+        void dispose() {
+            // Invalidate the in-flight result before cancelling it.
+            latestSequence.incrementAndGet();
+            disposable.dispose();
+            requestEmitter.onComplete();
+        }
+
+        private void apply(@NonNull Result result) {
+            // A result racing with a newer request is stale.
+            if (result.sequence != latestSequence.get()) {
+                return;
+            }
+
+            if (result.errors.isEmpty()) {
+                validation.clearErrors();
+            } else {
+                validation.setErrors(result.errors, result.summarized);
+            }
+        }
+
+        private static final class Request<T> {
+            final long sequence;
+
+            @NonNull
+            final T value;
+
+            Request(long sequence, @NonNull T value) {
+                this.sequence = sequence;
+                this.value = value;
+            }
+        }
+
+        private static final class Result {
+            final long sequence;
+
+            @NonNull
+            final List<String> errors;
+
+            @NonNull
+            final String summarized;
+
+            Result(long sequence, @NonNull List<String> errors, @NonNull String summarized) {
+                this.sequence = sequence;
+                this.errors = errors;
+                this.summarized = summarized;
+            }
         }
     }
 
@@ -0,0 +1,175 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of validation results of {@link RxProperty}.
+ * <p>
+ * When set with {@link RxProperty#setValidator(RxProperty.Validator, ValidationCache)}, the result
+ * of {@link RxProperty.Validator#validate(Object)} and
+ * {@link RxProperty.Validator#summarizeErrorMessages(List)} is memoized for each value, so
+ * switching among a few values doesn't run the validator again. The least recently used results
+ * are evicted when the number of entries or their total weight exceeds the limit.
+ * <p>
+ * A cache is keyed by values only and must not be shared among different validators. Call
+ * {@link #invalidateAll()} when an external input of the validator changes.
+ *
+ * @param <T> the type of values to be validated
+ */
+public final class ValidationCache<T> {
+    /**
+     * Interface to calculate the weight of a cached validation result.
+     *
+     * @param <T> the type of values to be validated
+     */
+    public interface Weigher<T> {
+        /**
+         * Calculates the weight of the specified validation result.
+         *
+         * @param value  a validated value
+         * @param errors error messages of the value
+         * @return a non-negative weight
+         */
+        long weigh(@NonNull T value, @NonNull List<String> errors);
+    }
+
+    private final int maxSize;
+
+    private final long maxWeight;
+
+    @Nullable
+    private final Weigher<T> weigher;
+
+    @NonNull
+    private final LinkedHashMap<T, Entry> entries;
+
+    private long totalWeight = 0;
+
+    private long hitCount = 0;
+
+    private long missCount = 0;
+
+    /**
+     * Creates {@code ValidationCache} bounded by the number of entries.
+     *
+     * @param maxSize the maximum number of cached results
+     */
+    public ValidationCache(int maxSize) {
+        this(maxSize, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates {@code ValidationCache} bounded by the number of entries and their total weight.
+     *
+     * @param maxSize   the maximum number of cached results
+     * @param maxWeight the maximum total weight of cached results
+     * @param weigher   a weigher to calculate the weight of each result
+     */
+    public ValidationCache(int maxSize, long maxWeight, @Nullable Weigher<T> weigher) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive.");
+        }
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("maxWeight must not be negative.");
+        }
+
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the number of lookups which found a cached result.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups which ran the validator.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Discards all cached results. The hit and miss counts are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    @Nullable
+    synchronized Entry get(@NonNull T value) {
+        Entry entry = entries.get(value);
+        if (entry != null) {
+            ++hitCount;
+        } else {
+            ++missCount;
+        }
+        return entry;
+    }
+
+    synchronized void put(@NonNull T value, @Nullable List<String> errors,
+                          @NonNull String summarized) {
+        long weight = 0;
+        if (weigher != null) {
+            weight = weigher.weigh(value,
+                    errors != null ? errors : Collections.<String>emptyList());
+        }
+
+        Entry old = entries.put(value, new Entry(errors, summarized, weight));
+        if (old != null) {
+            totalWeight -= old.weight;
+        }
+        totalWeight += weight;
+
+        // Evict the least recently used results.
+        Iterator<Map.Entry<T, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxSize || totalWeight > maxWeight) && iterator.hasNext()) {
+            totalWeight -= iterator.next().getValue().weight;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Cached validation result.
+     */
+    static final class Entry {
+        @Nullable
+        final List<String> errors;
+
+        @NonNull
+        final String summarized;
+
+        final long weight;
+
+        Entry(@Nullable List<String> errors, @NonNull String summarized, long weight) {
+            this.errors = errors;
+            this.summarized = summarized;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Scheduler of deferred view notifications for
+ * {@link RxProperty.Mode#COALESCE_VIEW_NOTIFICATIONS}.
+ *
+ * @see ViewNotifications#setScheduler(ViewNotificationScheduler)
+ */
+public interface ViewNotificationScheduler {
+    /**
+     * Schedules the specified action to be executed at the next UI tick.
+     *
+     * @param action an action to notify pending view updates
+     */
+    void schedule(@NonNull Runnable action);
+}
@@ -0,0 +1,131 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Coalescer of view notifications for properties in
+ * {@link RxProperty.Mode#COALESCE_VIEW_NOTIFICATIONS} mode.
+ * <p>
+ * Updates of such properties are collected until the next UI tick given by the
+ * {@link ViewNotificationScheduler}, and then each bound view is notified once to read the latest
+ * value. By default, the tick is the next message of the main thread.
+ */
+public final class ViewNotifications {
+    /**
+     * Value field whose view notification can be deferred.
+     */
+    interface Target {
+        /**
+         * Notifies the bound view of the change.
+         */
+        void notifyView();
+
+        /**
+         * Indicates whether the property of this target is disposed, so the bound view must not be
+         * notified anymore.
+         */
+        boolean isDisposed();
+    }
+
+    private static final Object lock = new Object();
+
+    private static final Runnable flushAction = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    @Nullable
+    private static volatile ViewNotificationScheduler scheduler = null;
+
+    @NonNull
+    private static Set<Target> pendingTargets = new LinkedHashSet<>();
+
+    /**
+     * Replaces the scheduler of deferred view notifications, e.g. by a manually driven one in
+     * tests.
+     *
+     * @param scheduler a scheduler or null to restore the default one for the main thread
+     */
+    public static void setScheduler(@Nullable ViewNotificationScheduler scheduler) {
+        ViewNotifications.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the current scheduler of deferred view notifications.
+     *
+     * @return the current scheduler
+     */
+    @NonNull
+    public static ViewNotificationScheduler getScheduler() {
+        ViewNotificationScheduler scheduler = ViewNotifications.scheduler;
+        if (scheduler == null) {
+            scheduler = MainThreadScheduler.INSTANCE;
+        }
+        return scheduler;
+    }
+
+    static void post(@NonNull Target target) {
+        boolean isFirst;
+        synchronized (lock) {
+            if (!pendingTargets.add(target)) {
+                return;
+            }
+            isFirst = pendingTargets.size() == 1;
+        }
+
+        if (isFirst) {
+            getScheduler().schedule(flushAction);
+        }
+    }
+
+    /**
+     * Drops the pending notification of the specified target, e.g. on dispose of its property, so
+     * that the target isn't retained until the next tick.
+     */
+    static void cancel(@NonNull Target target) {
+        synchronized (lock) {
+            pendingTargets.remove(target);
+        }
+    }
+
+    private static void flush() {
+        Set<Target> targets;
+        synchronized (lock) {
+            targets = pendingTargets;
+            pendingTargets = new LinkedHashSet<>();
+        }
+
+        for (Target target : targets) {
+            // The property may have been disposed on another thread after it was cancelled.
+            if (!target.isDisposed()) {
+                target.notifyView();
+            }
+        }
+    }
+
+    private ViewNotifications() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Default {@link ViewNotificationScheduler} posting to the main thread.
+     */
+    private static final class MainThreadScheduler implements ViewNotificationScheduler {
+        static final MainThreadScheduler INSTANCE = new MainThreadScheduler();
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void schedule(@NonNull Runnable action) {
+            handler.post(action);
+        }
+    }
+}
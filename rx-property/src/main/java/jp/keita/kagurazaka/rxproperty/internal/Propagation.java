@@ -0,0 +1,150 @@
+package jp.keita.kagurazaka.rxproperty.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Topologically ordered propagation of changes through computed properties.
+ * <p>
+ * While a property emits a value, changed computed properties are queued instead of being
+ * recomputed one by one. When the outermost emission on the thread finishes, they are propagated
+ * in ascending order of their rank, which is greater than the ranks of all their dependencies.
+ * Therefore every dependency of a node is up to date when the node is propagated, and each node
+ * is propagated at most once per change of a source even if it is reachable through several paths.
+ * <p>
+ * Only emitters which computed properties depend on enter a propagation, so other emissions don't
+ * pay for it.
+ */
+public final class Propagation {
+    /**
+     * Computed property in a propagation graph.
+     */
+    public interface Node {
+        /**
+         * Returns the rank of this node. Properties which are not computed have the rank 0, and
+         * a computed property has a rank greater than the ranks of its dependencies.
+         *
+         * @return the rank of this node
+         */
+        int getRank();
+
+        /**
+         * Recomputes this node or notifies its observers that it has changed.
+         */
+        void propagate();
+    }
+
+    private static final ThreadLocal<Propagation> current = new ThreadLocal<>();
+
+    // Queued nodes indexed by the rank.
+    @NonNull
+    private final ArrayList<ArrayDeque<Node>> buckets = new ArrayList<>();
+
+    @NonNull
+    private final Set<Node> queued = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+
+    private int lowestRank = 0;
+
+    private int depth = 0;
+
+    private boolean isDraining = false;
+
+    private Propagation() {
+    }
+
+    /**
+     * Starts an emission on the current thread. {@link #exit()} of the returned propagation must
+     * be called in a finally block.
+     *
+     * @return the propagation of the current thread
+     */
+    @NonNull
+    public static Propagation enter() {
+        Propagation propagation = current.get();
+        if (propagation == null) {
+            propagation = new Propagation();
+            current.set(propagation);
+        }
+        ++propagation.depth;
+        return propagation;
+    }
+
+    /**
+     * Finishes the emission started by {@link #enter()}, and propagates queued nodes if it is the
+     * outermost one.
+     */
+    public void exit() {
+        if (--depth == 0 && !isDraining) {
+            drain();
+        }
+    }
+
+    /**
+     * Queues the specified node if an emission is running on the current thread; otherwise
+     * propagates it immediately.
+     *
+     * @param node a node whose dependency has changed
+     */
+    public static void schedule(@NonNull Node node) {
+        Propagation propagation = current.get();
+        if (propagation == null || (propagation.depth == 0 && !propagation.isDraining)) {
+            node.propagate();
+            return;
+        }
+        propagation.enqueue(node);
+    }
+
+    private void enqueue(@NonNull Node node) {
+        if (!queued.add(node)) {
+            return;
+        }
+
+        int rank = node.getRank();
+        while (buckets.size() <= rank) {
+            buckets.add(new ArrayDeque<Node>());
+        }
+        buckets.get(rank).offer(node);
+        if (rank < lowestRank) {
+            lowestRank = rank;
+        }
+    }
+
+    @Nullable
+    private Node poll() {
+        for (int size = buckets.size(); lowestRank < size; ++lowestRank) {
+            Node node = buckets.get(lowestRank).poll();
+            if (node != null) {
+                queued.remove(node);
+                return node;
+            }
+        }
+        lowestRank = 0;
+        return null;
+    }
+
+    private void drain() {
+        isDraining = true;
+        try {
+            Node node;
+            while ((node = poll()) != null) {
+                node.propagate();
+            }
+        } finally {
+            isDraining = false;
+            if (!queued.isEmpty()) {
+                // A node has thrown. The rest stays dirty and is recomputed on the next read.
+                for (ArrayDeque<Node> bucket : buckets) {
+                    bucket.clear();
+                }
+                queued.clear();
+                lowestRank = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package jp.keita.kagurazaka.rxproperty.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Observable;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+
+/**
+ * Multicast emitter used by properties instead of serialized subjects.
+ * <p>
+ * Observers are held in a copy-on-write array, so emitting a value to them doesn't allocate.
+ * Emissions and subscriptions are serialized without locks: the first caller dispatches directly
+ * and concurrent or reentrant callers enqueue their work for it, which is the only case that
+ * allocates. If an observer throws, the queued work is still delivered before the error is
+ * rethrown to the caller, so the emitter keeps working.
+ *
+ * @param <T> the type of values to emit
+ */
+public class PropertyEmitter<T> extends Observable<T> {
+    private static final InnerDisposable<?>[] EMPTY = new InnerDisposable<?>[0];
+
+    private static final InnerDisposable<?>[] TERMINATED = new InnerDisposable<?>[0];
+
+    private final boolean replayLatest;
+
+    @NonNull
+    private final AtomicReference<InnerDisposable<T>[]> observers;
+
+    @NonNull
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // The number of computed properties depending on this emitter.
+    @NonNull
+    private final AtomicInteger dependentCount = new AtomicInteger();
+
+    @Nullable
+    private volatile Queue<Object> queue = null;
+
+    @Nullable
+    private volatile T latest;
+
+    @Nullable
+    private volatile Terminal terminal = null;
+
+    /**
+     * Creates {@code PropertyEmitter} without the latest value.
+     *
+     * @param replayLatest if true, the latest value is emitted to new observers on subscribe
+     */
+    public PropertyEmitter(boolean replayLatest) {
+        this(replayLatest, null);
+    }
+
+    /**
+     * Creates {@code PropertyEmitter} with the specified latest value.
+     *
+     * @param replayLatest if true, the latest value is emitted to new observers on subscribe
+     * @param latest       the initial latest value or null
+     */
+    @SuppressWarnings("unchecked")
+    public PropertyEmitter(boolean replayLatest, @Nullable T latest) {
+        this.replayLatest = replayLatest;
+        this.latest = latest;
+        this.observers = new AtomicReference<>((InnerDisposable<T>[]) EMPTY);
+    }
+
+    /**
+     * Emits the specified value to all observers.
+     *
+     * @param value a value to emit
+     */
+    public void onNext(@NonNull T value) {
+        // Computed properties changed by this value are propagated after all observers receive it.
+        Propagation propagation = dependentCount.get() != 0 ? Propagation.enter() : null;
+        try {
+            emit(value);
+        } finally {
+            if (propagation != null) {
+                propagation.exit();
+            }
+        }
+    }
+
+    /**
+     * Terminates this emitter with the specified error. Does nothing if already terminated.
+     *
+     * @param error an error to emit
+     */
+    public void onError(@NonNull Throwable error) {
+        emit(new Terminal(error));
+    }
+
+    /**
+     * Terminates this emitter normally. Does nothing if already terminated.
+     */
+    public void onComplete() {
+        emit(Terminal.COMPLETE);
+    }
+
+    /**
+     * Marks that a computed property depends on this emitter, so emissions are tracked by
+     * {@link Propagation} until {@link #removeDependent()} is called.
+     */
+    public void addDependent() {
+        dependentCount.incrementAndGet();
+    }
+
+    /**
+     * Unmarks a computed property marked by {@link #addDependent()}.
+     */
+    public void removeDependent() {
+        dependentCount.decrementAndGet();
+    }
+
+    /**
+     * Returns whether computed properties depend on this emitter.
+     *
+     * @return true if one or more computed properties depend on this emitter; otherwise false
+     */
+    public boolean hasDependents() {
+        return dependentCount.get() != 0;
+    }
+
+    /**
+     * Returns whether this emitter has observers.
+     *
+     * @return true if one or more observers are subscribed; otherwise false
+     */
+    public boolean hasObservers() {
+        return observers.get().length != 0;
+    }
+
+    /**
+     * Returns whether this emitter is terminated.
+     *
+     * @return true if this emitter has emitted {@code onError} or {@code onComplete}; otherwise
+     * false
+     */
+    public boolean isTerminated() {
+        return terminal != null;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        InnerDisposable<T> inner = new InnerDisposable<>(observer, this);
+        observer.onSubscribe(inner);
+        emit(inner);
+    }
+
+    /**
+     * Returns the value to be replayed to a new observer. Subclasses may override this to
+     * produce the value lazily.
+     *
+     * @return the latest value or null if there is nothing to replay
+     */
+    @Nullable
+    protected T getLatest() {
+        return latest;
+    }
+
+    // Delivers a value, an InnerDisposable or a Terminal directly if no one else is delivering,
+    // otherwise enqueues it for the one who is.
+    private void emit(@NonNull Object item) {
+        Throwable error = null;
+        if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+            try {
+                deliver(item);
+            } catch (Throwable e) {
+                error = e;
+            }
+            if (wip.decrementAndGet() != 0) {
+                error = drain(error);
+            }
+        } else {
+            getQueue().offer(item);
+            if (wip.getAndIncrement() == 0) {
+                error = drain(null);
+            }
+        }
+
+        if (error != null) {
+            throw Exceptions.propagate(error);
+        }
+    }
+
+    @NonNull
+    private Queue<Object> getQueue() {
+        Queue<Object> queue = this.queue;
+        if (queue == null) {
+            synchronized (wip) {
+                queue = this.queue;
+                if (queue == null) {
+                    queue = new ConcurrentLinkedQueue<>();
+                    this.queue = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    // Delivers all enqueued items even if observers throw, and returns the first error thrown.
+    @Nullable
+    private Throwable drain(@Nullable Throwable error) {
+        Queue<Object> queue = getQueue();
+        int missed = 1;
+        for (; ; ) {
+            Object item;
+            while ((item = queue.poll()) != null) {
+                try {
+                    deliver(item);
+                } catch (Throwable e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return error;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(@NonNull Object item) {
+        if (item instanceof InnerDisposable) {
+            start((InnerDisposable<T>) item);
+        } else if (item instanceof Terminal) {
+            terminate((Terminal) item);
+        } else {
+            dispatch((T) item);
+        }
+    }
+
+    private void dispatch(@NonNull T value) {
+        if (terminal != null) {
+            return;
+        }
+
+        latest = value;
+        for (InnerDisposable<T> inner : observers.get()) {
+            inner.onNext(value);
+        }
+    }
+
+    private void start(@NonNull InnerDisposable<T> inner) {
+        if (inner.isDisposed()) {
+            return;
+        }
+
+        Terminal terminal = this.terminal;
+        if (terminal != null) {
+            terminal.emit(inner);
+            return;
+        }
+
+        add(inner);
+        if (replayLatest) {
+            T value = getLatest();
+            if (value != null) {
+                inner.onNext(value);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void terminate(@NonNull Terminal terminal) {
+        if (this.terminal != null) {
+            return;
+        }
+
+        this.terminal = terminal;
+        for (InnerDisposable<T> inner : observers.getAndSet((InnerDisposable<T>[]) TERMINATED)) {
+            terminal.emit(inner);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(@NonNull InnerDisposable<T> inner) {
+        for (; ; ) {
+            InnerDisposable<T>[] current = observers.get();
+            if (current == TERMINATED) {
+                return;
+            }
+
+            int n = current.length;
+            InnerDisposable<T>[] next = (InnerDisposable<T>[]) new InnerDisposable<?>[n + 1];
+            System.arraycopy(current, 0, next, 0, n);
+            next[n] = inner;
+            if (observers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(@NonNull InnerDisposable<T> inner) {
+        for (; ; ) {
+            InnerDisposable<T>[] current = observers.get();
+            int n = current.length;
+            int index = -1;
+            for (int i = 0; i < n; ++i) {
+                if (current[i] == inner) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+
+            InnerDisposable<T>[] next;
+            if (n == 1) {
+                next = (InnerDisposable<T>[]) EMPTY;
+            } else {
+                next = (InnerDisposable<T>[]) new InnerDisposable<?>[n - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, n - index - 1);
+            }
+            if (observers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Subscription of an {@link Observer} to {@link PropertyEmitter}.
+     *
+     * @param <T> the type of values to emit
+     */
+    private static final class InnerDisposable<T> extends AtomicBoolean implements Disposable {
+        private static final long serialVersionUID = -3587543286536207593L;
+
+        private final Observer<? super T> actual;
+        private final PropertyEmitter<T> parent;
+
+        InnerDisposable(Observer<? super T> actual, PropertyEmitter<T> parent) {
+            this.actual = actual;
+            this.parent = parent;
+        }
+
+        void onNext(T value) {
+            if (!get()) {
+                actual.onNext(value);
+            }
+        }
+
+        void onError(Throwable error) {
+            if (!get()) {
+                actual.onError(error);
+            }
+        }
+
+        void onComplete() {
+            if (!get()) {
+                actual.onComplete();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                parent.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+
+    /**
+     * Terminal event of {@link PropertyEmitter}.
+     */
+    private static final class Terminal {
+        static final Terminal COMPLETE = new Terminal(null);
+
+        @Nullable
+        private final Throwable error;
+
+        Terminal(@Nullable Throwable error) {
+            this.error = error;
+        }
+
+        void emit(InnerDisposable<?> inner) {
+            if (error != null) {
+                inner.onError(error);
+            } else {
+                inner.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class EqualityComparersTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenComparerIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("comparer must not be null.");
+
+            new RxProperty<>("").setEqualityComparer(null);
+        }
+    }
+
+    public static class Comparers {
+        @Test
+        public void equalityComparesByEquals() {
+            // given
+            EqualityComparer<String> comparer = EqualityComparers.equality();
+
+            // then
+            assertThat(comparer.areEqual(new String("Rx"), "Rx"), is(true));
+            assertThat(comparer.areEqual("Rx", "RxJava"), is(false));
+        }
+
+        @Test
+        public void identityComparesByReference() {
+            // given
+            EqualityComparer<String> comparer = EqualityComparers.identity();
+
+            // then
+            assertThat(comparer.areEqual(new String("Rx"), "Rx"), is(false));
+            assertThat(comparer.areEqual("Rx", "Rx"), is(true));
+        }
+
+        @Test
+        public void hashFirstSkipsEqualsWhenHashDiffers() {
+            // given
+            EqualityComparer<CountingValue> comparer = EqualityComparers.hashFirst();
+            CountingValue value = new CountingValue(1);
+            CountingValue current = new CountingValue(2);
+
+            // when
+            boolean result = comparer.areEqual(value, current);
+
+            // then
+            assertThat(result, is(false));
+            assertThat(value.equalsCount, is(0));
+            assertThat(value.hashCount, is(1));
+        }
+
+        @Test
+        public void hashFirstIsShared() {
+            // given
+            EqualityComparer<String> first = EqualityComparers.hashFirst();
+            EqualityComparer<Integer> second = EqualityComparers.hashFirst();
+
+            // then
+            assertThat((Object) first == second, is(true));
+        }
+
+        @Test
+        public void hashFirstComparesByEqualsWhenHashMatches() {
+            // given
+            EqualityComparer<CountingValue> comparer = EqualityComparers.hashFirst();
+
+            // then
+            assertThat(comparer.areEqual(new CountingValue(1), new CountingValue(1)), is(true));
+        }
+    }
+
+    public static class WithProperties {
+        @Test
+        public void rxPropertyUsesComparer() {
+            // given
+            List<String> list = Arrays.asList("Rx", "Java");
+            RxProperty<List<String>> property = new RxProperty<>(list)
+                    .setEqualityComparer(EqualityComparers.<List<String>>identity());
+            TestObserver<List<String>> testObserver = property.test();
+
+            // when
+            property.set(list);
+            property.set(Arrays.asList("Rx", "Java"));
+
+            // then
+            testObserver.assertValueCount(2).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void rxPropertyCachesHashOfCurrentValueForHashFirst() {
+            // given
+            CountingValue first = new CountingValue(1);
+            CountingValue second = new CountingValue(2);
+            CountingValue third = new CountingValue(2);
+            RxProperty<CountingValue> property = new RxProperty<>(first)
+                    .setEqualityComparer(EqualityComparers.<CountingValue>hashFirst());
+            TestObserver<CountingValue> testObserver = property.test();
+
+            // when
+            property.set(second);
+            property.set(third);
+
+            // then
+            testObserver.assertValues(first, second).dispose();
+            assertThat(first.hashCount, is(1));
+            assertThat(second.hashCount, is(1));
+            assertThat(third.hashCount, is(1));
+            property.dispose();
+        }
+
+        @Test
+        public void readOnlyRxPropertyCachesHashOfCurrentValueForHashFirst() {
+            // given
+            CountingValue first = new CountingValue(1);
+            CountingValue second = new CountingValue(1);
+            PublishSubject<CountingValue> source = PublishSubject.create();
+            ReadOnlyRxProperty<CountingValue> property = new ReadOnlyRxProperty<>(source)
+                    .setEqualityComparer(EqualityComparers.<CountingValue>hashFirst());
+            TestObserver<CountingValue> testObserver = property.test();
+
+            // when
+            source.onNext(first);
+            source.onNext(second);
+            source.onNext(new CountingValue(1));
+
+            // then
+            testObserver.assertValue(first).dispose();
+            assertThat(first.hashCount, is(1));
+            property.dispose();
+        }
+
+        @Test
+        public void readOnlyRxPropertyUsesComparer() {
+            // given
+            PublishSubject<String> source = PublishSubject.create();
+            ReadOnlyRxProperty<String> property = new ReadOnlyRxProperty<>(source)
+                    .setEqualityComparer(new EqualityComparer<String>() {
+                        @Override
+                        public boolean areEqual(@NonNull String value, @NonNull String current) {
+                            return value.equalsIgnoreCase(current);
+                        }
+                    });
+            TestObserver<String> testObserver = property.test();
+
+            // when
+            source.onNext("rx");
+            source.onNext("RX");
+            source.onNext("RxJava");
+
+            // then
+            testObserver.assertValues("rx", "RxJava").dispose();
+            property.dispose();
+        }
+    }
+
+    private static class CountingValue {
+        private final int value;
+        int hashCount = 0;
+        int equalsCount = 0;
+
+        CountingValue(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            ++hashCount;
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            ++equalsCount;
+            return obj instanceof CountingValue && ((CountingValue) obj).value == value;
+        }
+    }
+}
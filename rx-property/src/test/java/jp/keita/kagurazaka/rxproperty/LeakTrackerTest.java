@@ -0,0 +1,193 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.Observable;
+import io.reactivex.Observer;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.functions.Function;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+@SuppressWarnings("deprecation")
+public class LeakTrackerTest {
+
+    public static class Enabled {
+        @Before
+        public void setUp() {
+            LeakTracker.enable();
+        }
+
+        @After
+        public void tearDown() {
+            LeakTracker.disable();
+        }
+
+        @Test
+        public void reportsUnreachablePropertyWithSource() throws Exception {
+            // given
+            createProperty(true);
+
+            // when
+            List<LeakTracker.Leak> leaks = collectLeaks(1);
+
+            // then
+            assertThat(leaks.size(), is(1));
+            LeakTracker.Leak leak = leaks.get(0);
+            assertThat(leak.getType(), is(RxProperty.class.getName()));
+            assertThat(leak.getCreationSite(), containsString("createProperty"));
+            assertThat(leak.hasSource(), is(true));
+            assertThat(leak.hasCancellable(), is(false));
+        }
+
+        @Test
+        public void reportsUnreachableCommandBoundToView() throws Exception {
+            // given
+            createCommand();
+
+            // when
+            List<LeakTracker.Leak> leaks = collectLeaks(1);
+
+            // then
+            assertThat(leaks.size(), is(1));
+            assertThat(leaks.get(0).getType(), is(RxCommand.class.getName()));
+            assertThat(leaks.get(0).getCreationSite(), containsString("createCommand"));
+            assertThat(leaks.get(0).hasCancellable(), is(true));
+        }
+
+        @Test
+        public void ignoresDisposedProperty() throws Exception {
+            // given
+            createProperty(true).dispose();
+            createProperty(true);
+
+            // when
+            List<LeakTracker.Leak> leaks = collectLeaks(1);
+
+            // then
+            assertThat(leaks.size(), is(1));
+        }
+
+        @Test
+        public void ignoresPropertyWithoutSourceAndView() throws Exception {
+            // given
+            createProperty(false);
+            createProperty(true);
+
+            // when
+            List<LeakTracker.Leak> leaks = collectLeaks(1);
+
+            // then
+            assertThat(leaks.size(), is(1));
+            assertThat(leaks.get(0).hasSource(), is(true));
+        }
+
+        @Test
+        public void ignoresPropertyWithoutSourceUnderAssemblyHook() throws Exception {
+            // given
+            RxJavaPlugins.setOnObservableAssembly(new Function<Observable, Observable>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Observable apply(final Observable observable) {
+                    return new Observable<Object>() {
+                        @Override
+                        protected void subscribeActual(Observer<? super Object> observer) {
+                            observable.subscribe(observer);
+                        }
+                    };
+                }
+            });
+            try {
+                createProperty(false);
+                new IntRxProperty(1);
+                createProperty(true);
+            } finally {
+                RxJavaPlugins.reset();
+            }
+
+            // when
+            List<LeakTracker.Leak> leaks = collectLeaks(1);
+
+            // then
+            assertThat(leaks.size(), is(1));
+            assertThat(leaks.get(0).getType(), is(RxProperty.class.getName()));
+            assertThat(leaks.get(0).hasSource(), is(true));
+        }
+
+        @Test
+        public void countsLiveInstancesPerCreationSite() {
+            // given
+            List<IntRxProperty> properties = new ArrayList<>();
+            for (int i = 0; i < 3; ++i) {
+                properties.add(new IntRxProperty(i));
+            }
+
+            // when
+            properties.get(0).dispose();
+            Map<String, Integer> counts = LeakTracker.getLiveCounts();
+
+            // then
+            assertThat(counts.size(), is(1));
+            Map.Entry<String, Integer> entry = counts.entrySet().iterator().next();
+            assertThat(entry.getKey(), containsString("countsLiveInstancesPerCreationSite"));
+            assertThat(entry.getValue(), is(2));
+        }
+    }
+
+    public static class Disabled {
+        @Test
+        public void tracksNothing() {
+            // given
+            RxProperty<String> property = new RxProperty<>(PublishSubject.<String>create());
+
+            // then
+            assertThat(LeakTracker.isEnabled(), is(false));
+            assertThat(LeakTracker.getLiveCounts().isEmpty(), is(true));
+            property.dispose();
+        }
+    }
+
+    private static RxProperty<String> createProperty(boolean hasSource) {
+        return hasSource ?
+                new RxProperty<>(PublishSubject.<String>create()) :
+                new RxProperty<>("RxProperty");
+    }
+
+    private static void createCommand() {
+        RxCommand<Object> command = new RxCommand<>();
+        command.setCancellable(new Cancellable() {
+            @Override
+            public void cancel() {
+            }
+        });
+    }
+
+    private static List<LeakTracker.Leak> collectLeaks(int expected) throws Exception {
+        List<LeakTracker.Leak> leaks = new ArrayList<>();
+        for (int i = 0; i < 50 && leaks.size() < expected; ++i) {
+            System.gc();
+            Thread.sleep(10);
+            leaks.addAll(LeakTracker.pollLeaks());
+        }
+        // Collect a few more rounds to catch unexpected leaks.
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            Thread.sleep(10);
+            leaks.addAll(LeakTracker.pollLeaks());
+        }
+        return leaks;
+    }
+}
@@ -0,0 +1,197 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class ListDiffTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenOldListIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("oldList must not be null.");
+
+            ListDiff.calculate(null, Collections.emptyList());
+        }
+
+        @Test
+        public void raisesNPEWhenNewListIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("newList must not be null.");
+
+            ListDiff.calculate(Collections.emptyList(), null);
+        }
+    }
+
+    public static class Changes {
+        @Test
+        public void hasNoChangesForSameLists() {
+            // when
+            ListDiff diff = ListDiff.calculate(Arrays.asList(1, 2, 3), Arrays.asList(1, 2, 3));
+
+            // then
+            assertThat(diff.getChanges().isEmpty(), is(true));
+        }
+
+        @Test
+        public void insertsAllIntoEmptyList() {
+            // when
+            ListDiff diff = ListDiff.calculate(Collections.<Integer>emptyList(),
+                    Arrays.asList(1, 2, 3));
+
+            // then
+            assertThat(diff.getChanges(), is(Collections.singletonList(ListChange.inserted(0, 3))));
+        }
+
+        @Test
+        public void removesAllForEmptyList() {
+            // when
+            ListDiff diff = ListDiff.calculate(Arrays.asList(1, 2, 3),
+                    Collections.<Integer>emptyList());
+
+            // then
+            assertThat(diff.getChanges(), is(Collections.singletonList(ListChange.removed(0, 3))));
+        }
+
+        @Test
+        public void findsMinimalEditsOfClassicExample() {
+            // given
+            List<Character> oldList = characters("ABCABBA");
+            List<Character> newList = characters("CBABAC");
+
+            // when
+            ListDiff diff = ListDiff.calculate(oldList, newList);
+
+            // then
+            assertThat(editCount(diff), is(5));
+            assertThat(apply(oldList, newList, diff), is(newList));
+        }
+
+        @Test
+        public void handlesNullItems() {
+            // given
+            List<String> oldList = Arrays.asList("a", null, "b");
+            List<String> newList = Arrays.asList(null, "b", "c");
+
+            // when
+            ListDiff diff = ListDiff.calculate(oldList, newList);
+
+            // then
+            assertThat(editCount(diff), is(2));
+            assertThat(apply(oldList, newList, diff), is(newList));
+        }
+
+        @Test
+        public void findsMinimalEditsOfRandomLists() {
+            Random random = new Random(42);
+            for (int i = 0; i < 500; ++i) {
+                // given
+                List<Integer> oldList = randomList(random);
+                List<Integer> newList = randomList(random);
+
+                // when
+                ListDiff diff = ListDiff.calculate(oldList, newList);
+
+                // then
+                int lcs = lcsLength(oldList, newList);
+                assertThat(editCount(diff), is(oldList.size() + newList.size() - 2 * lcs));
+                assertThat(apply(oldList, newList, diff), is(newList));
+            }
+        }
+
+        @Test
+        public void findsSmallEditOfLargeList() {
+            // given
+            List<Integer> oldList = new ArrayList<>();
+            for (int i = 0; i < 100000; ++i) {
+                oldList.add(i);
+            }
+            List<Integer> newList = new ArrayList<>(oldList);
+            newList.remove(30000);
+            newList.add(70000, -1);
+
+            // when
+            ListDiff diff = ListDiff.calculate(oldList, newList);
+
+            // then
+            assertThat(diff.getChanges(), is(Arrays.asList(
+                    ListChange.removed(30000, 1), ListChange.inserted(70000, 1))));
+        }
+    }
+
+    private static List<Character> characters(String text) {
+        List<Character> list = new ArrayList<>();
+        for (char c : text.toCharArray()) {
+            list.add(c);
+        }
+        return list;
+    }
+
+    private static List<Integer> randomList(Random random) {
+        int size = random.nextInt(12);
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            list.add(random.nextInt(4));
+        }
+        return list;
+    }
+
+    private static int editCount(ListDiff diff) {
+        int count = 0;
+        for (ListChange change : diff.getChanges()) {
+            count += change.getCount();
+        }
+        return count;
+    }
+
+    private static <T> List<T> apply(List<T> oldList, List<T> newList, ListDiff diff) {
+        List<T> list = new ArrayList<>(oldList);
+        for (ListChange change : diff.getChanges()) {
+            int position = change.getPosition();
+            int count = change.getCount();
+            switch (change.getType()) {
+                case REMOVED:
+                    list.subList(position, position + count).clear();
+                    break;
+                case INSERTED:
+                    list.addAll(position, newList.subList(position, position + count));
+                    break;
+                default:
+                    throw new AssertionError("Unexpected change: " + change);
+            }
+        }
+        return list;
+    }
+
+    private static <T> int lcsLength(List<T> a, List<T> b) {
+        int[][] table = new int[a.size() + 1][b.size() + 1];
+        for (int i = 1; i <= a.size(); ++i) {
+            for (int j = 1; j <= b.size(); ++j) {
+                T x = a.get(i - 1);
+                T y = b.get(j - 1);
+                if (x == null ? y == null : x.equals(y)) {
+                    table[i][j] = table[i - 1][j - 1] + 1;
+                } else {
+                    table[i][j] = Math.max(table[i - 1][j], table[i][j - 1]);
+                }
+            }
+        }
+        return table[a.size()][b.size()];
+    }
+}
@@ -0,0 +1,314 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.BaseObservable;
+import android.databinding.ListChangeRegistry;
+import android.databinding.ObservableArrayList;
+import android.databinding.ObservableArrayMap;
+import android.databinding.ObservableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import io.reactivex.observers.TestObserver;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class ObserveCollectionTest {
+
+    public static class ListChangesOf {
+        private ObservableArrayList<String> list;
+        private TestObserver<ListChange> testObserver;
+
+        @Before
+        public void setUp() {
+            list = new ObservableArrayList<>();
+            list.addAll(Arrays.asList("a", "b", "c"));
+            testObserver = Observe.listChangesOf(list).test();
+        }
+
+        @Test
+        public void emitsRangeOfEachChange() {
+            // when
+            list.add("d");
+            list.addAll(1, Arrays.asList("x", "y"));
+            list.set(0, "A");
+            list.remove(2);
+
+            // then
+            testObserver.assertValues(
+                    ListChange.inserted(3, 1),
+                    ListChange.inserted(1, 2),
+                    ListChange.changed(0, 1),
+                    ListChange.removed(2, 1));
+        }
+
+        @Test
+        public void emitsMoveOfRxListProperty() {
+            // given
+            RxListProperty<String> property = new RxListProperty<>(Arrays.asList("a", "b", "c"));
+            TestObserver<ListChange> testObserver = Observe.listChangesOf(property).test();
+
+            // when
+            property.move(0, 2);
+
+            // then
+            testObserver.assertValue(ListChange.moved(0, 2, 1));
+
+            // after
+            testObserver.dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void emitsResetOfWholeList() {
+            // given
+            ResettableList list = new ResettableList();
+            TestObserver<ListChange> testObserver = Observe.listChangesOf(list).test();
+
+            // when
+            list.add("a");
+            list.add("b");
+            list.reset();
+
+            // then
+            testObserver.assertValue(ListChange.reset(2));
+            assertThat(testObserver.values().get(0).getType(), is(ListChange.Type.RESET));
+
+            // after
+            testObserver.dispose();
+        }
+
+        @Test
+        public void stopsObservingWhenDisposed() {
+            // when
+            testObserver.dispose();
+            list.add("d");
+
+            // then
+            testObserver.assertEmpty();
+        }
+    }
+
+    public static class MapChangesOf {
+        private ObservableArrayMap<String, Integer> map;
+        private TestObserver<MapChange<String>> testObserver;
+
+        @Before
+        public void setUp() {
+            map = new ObservableArrayMap<>();
+            map.put("a", 1);
+            testObserver = Observe.mapChangesOf(map).test();
+        }
+
+        @Test
+        public void emitsTypeAndKeyOfEachChange() {
+            // when
+            map.put("b", 2);
+            map.put("a", 10);
+            map.remove("b");
+            map.clear();
+
+            // then
+            testObserver.assertValues(
+                    new MapChange<>(MapChange.Type.PUT, "b"),
+                    new MapChange<>(MapChange.Type.PUT, "a"),
+                    new MapChange<>(MapChange.Type.REMOVED, "b"),
+                    new MapChange<String>(MapChange.Type.CLEARED, null));
+        }
+
+        @Test
+        public void distinguishesRemovalOfNullKeyFromClear() {
+            // given
+            map.put(null, 0);
+            map.remove("a");
+
+            // when
+            map.remove(null);
+            map.put("b", 2);
+            map.put(null, 0);
+            map.clear();
+
+            // then
+            testObserver.assertValues(
+                    new MapChange<String>(MapChange.Type.PUT, null),
+                    new MapChange<>(MapChange.Type.REMOVED, "a"),
+                    new MapChange<String>(MapChange.Type.REMOVED, null),
+                    new MapChange<>(MapChange.Type.PUT, "b"),
+                    new MapChange<String>(MapChange.Type.PUT, null),
+                    new MapChange<String>(MapChange.Type.CLEARED, null));
+        }
+
+        @Test
+        public void stopsObservingWhenDisposed() {
+            // when
+            testObserver.dispose();
+            map.put("b", 2);
+
+            // then
+            testObserver.assertEmpty();
+        }
+    }
+
+    public static class ItemsOf {
+        private Item first;
+        private Item second;
+        private ObservableArrayList<Item> list;
+        private TestObserver<PropertyChange<Item>> testObserver;
+
+        @Before
+        public void setUp() {
+            first = new Item();
+            second = new Item();
+            list = new ObservableArrayList<>();
+            list.addAll(Arrays.asList(first, second));
+            testObserver = Observe.itemsOf(list).test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+        }
+
+        @Test
+        public void emitsChangesOfItems() {
+            // when
+            second.notifyPropertyChanged(1);
+            first.notifyPropertyChanged(2);
+
+            // then
+            testObserver.assertValues(
+                    new PropertyChange<>(second, 1),
+                    new PropertyChange<>(first, 2));
+        }
+
+        @Test
+        public void attachesOnlyInsertedItems() {
+            // given
+            Item third = new Item();
+
+            // when
+            list.add(1, third);
+            third.notifyPropertyChanged(1);
+
+            // then
+            testObserver.assertValue(new PropertyChange<>(third, 1));
+            assertThat(first.addedCount, is(1));
+            assertThat(second.addedCount, is(1));
+            assertThat(third.callbackCount, is(1));
+        }
+
+        @Test
+        public void detachesRemovedAndReplacedItems() {
+            // given
+            Item third = new Item();
+
+            // when
+            list.remove(first);
+            list.set(0, third);
+            first.notifyPropertyChanged(1);
+            second.notifyPropertyChanged(1);
+            third.notifyPropertyChanged(1);
+
+            // then
+            testObserver.assertValue(new PropertyChange<>(third, 1));
+            assertThat(first.callbackCount, is(0));
+            assertThat(second.callbackCount, is(0));
+        }
+
+        @Test
+        public void observesDuplicatedItemOnce() {
+            // when
+            list.add(first);
+            first.notifyPropertyChanged(1);
+            list.remove(0);
+            first.notifyPropertyChanged(2);
+            list.remove(first);
+            first.notifyPropertyChanged(3);
+
+            // then
+            testObserver.assertValues(
+                    new PropertyChange<>(first, 1),
+                    new PropertyChange<>(first, 2));
+            assertThat(first.callbackCount, is(0));
+        }
+
+        @Test
+        public void keepsObservingMovedItems() {
+            // given
+            RxListProperty<Item> property = new RxListProperty<>(Arrays.asList(first, second));
+            TestObserver<PropertyChange<Item>> testObserver = Observe.itemsOf(property).test();
+
+            // when
+            property.move(0, 1);
+            property.remove(0);
+            first.notifyPropertyChanged(1);
+            second.notifyPropertyChanged(1);
+
+            // then
+            testObserver.assertValue(new PropertyChange<>(first, 1));
+
+            // after
+            testObserver.dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void detachesAllItemsWhenDisposed() {
+            // when
+            testObserver.dispose();
+            first.notifyPropertyChanged(1);
+
+            // then
+            testObserver.assertEmpty();
+            assertThat(first.callbackCount, is(0));
+            assertThat(second.callbackCount, is(0));
+        }
+    }
+
+    private static class Item extends BaseObservable {
+        int callbackCount = 0;
+        int addedCount = 0;
+
+        @Override
+        public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            super.addOnPropertyChangedCallback(callback);
+            ++callbackCount;
+            ++addedCount;
+        }
+
+        @Override
+        public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+            super.removeOnPropertyChangedCallback(callback);
+            --callbackCount;
+        }
+    }
+
+    private static class ResettableList extends ArrayList<String>
+            implements ObservableList<String> {
+        private final ListChangeRegistry callbacks = new ListChangeRegistry();
+
+        void reset() {
+            callbacks.notifyChanged(this);
+        }
+
+        @Override
+        public void addOnListChangedCallback(
+                OnListChangedCallback<? extends ObservableList<String>> callback) {
+            callbacks.add(callback);
+        }
+
+        @Override
+        public void removeOnListChangedCallback(
+                OnListChangedCallback<? extends ObservableList<String>> callback) {
+            callbacks.remove(callback);
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package jp.keita.kagurazaka.rxproperty;
 
+import android.databinding.BaseObservable;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
 import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
 import jp.keita.kagurazaka.rxproperty.util.Person;
 import jp.keita.kagurazaka.rxproperty.util.TestObserverResource;
 
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
 @RunWith(Enclosed.class)
 public class ObservePropertyTest {
 
@@ -497,6 +513,464 @@ public class ObservePropertyTest {
         }
     }
 
+    public static class ObserveProperties {
+        private Person person;
+        private TestObserver<PropertyChange<Person>> testObserver;
+
+        @Before
+        public void setUp() {
+            person = new Person("John", "Smith");
+            testObserver = Observe.propertiesOf(person, Person.ID_FIRST_NAME, 100).test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+        }
+
+        @Test
+        public void emitsChangedIdOfTargetProperties() {
+            // when
+            person.setFirstName("Hans");
+            person.setLastName("Schmidt");
+            person.notifyPropertyChanged(100);
+
+            // then
+            testObserver.assertValues(
+                    new PropertyChange<>(person, Person.ID_FIRST_NAME),
+                    new PropertyChange<>(person, 100));
+            assertThat(testObserver.values().get(0).getTarget().getFirstName(), is("Hans"));
+        }
+
+        @Test
+        public void emitsAllPropertiesChangeOnce() {
+            // when
+            person.notifyChange();
+
+            // then
+            testObserver.assertValue(new PropertyChange<>(person, PropertyChange.ALL_PROPERTIES));
+            PropertyChange<Person> change = testObserver.values().get(0);
+            assertThat(change.affects(Person.ID_FIRST_NAME), is(true));
+            assertThat(change.affects(Person.ID_LAST_NAME), is(true));
+        }
+
+        @Test
+        public void ignoresIdsOutOfSet() {
+            // when
+            person.notifyPropertyChanged(64);
+            person.notifyPropertyChanged(1000);
+            person.notifyPropertyChanged(-1);
+
+            // then
+            testObserver.assertEmpty();
+        }
+
+        @Test
+        public void stopsObservingWhenDisposed() {
+            // when
+            testObserver.dispose();
+            person.setFirstName("Hans");
+
+            // then
+            testObserver.assertEmpty();
+        }
+
+        @Test
+        public void observesLargeIds() {
+            // given
+            TestObserver<PropertyChange<Person>> testObserver = Observe
+                    .propertiesOf(person, Integer.MAX_VALUE, 100, Integer.MAX_VALUE)
+                    .test();
+
+            // when
+            person.notifyPropertyChanged(Integer.MAX_VALUE);
+            person.notifyPropertyChanged(Integer.MAX_VALUE - 1);
+
+            // then
+            testObserver.assertValue(new PropertyChange<>(person, Integer.MAX_VALUE));
+
+            // after
+            testObserver.dispose();
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void raisesIAEWhenIdIsNegative() {
+            Observe.propertiesOf(person, -1);
+        }
+    }
+
+    public static class ChangeSets {
+        private Person person;
+
+        @Before
+        public void setUp() {
+            person = new Person("John", "Smith");
+        }
+
+        @Test
+        public void emitsOncePerSchedulerTick() {
+            // given
+            TestScheduler scheduler = new TestScheduler();
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, scheduler).test();
+
+            // when
+            person.setFirstName("Hans");
+            person.setLastName("Schmidt");
+            person.setFirstName("Changed");
+
+            // then
+            testObserver.assertEmpty();
+
+            // when
+            scheduler.triggerActions();
+
+            // then
+            testObserver.assertValueCount(1);
+            PropertyChangeSet<Person> changeSet = testObserver.values().get(0);
+            assertThat(changeSet.getTarget(), is(person));
+            assertThat(changeSet.getPropertyIds(),
+                    is(new int[]{Person.ID_FIRST_NAME, Person.ID_LAST_NAME}));
+
+            // when
+            person.notifyPropertyChanged(200);
+            scheduler.triggerActions();
+
+            // then
+            testObserver.assertValueCount(2);
+            assertThat(testObserver.values().get(1).getPropertyIds(), is(new int[]{200}));
+            assertThat(testObserver.values().get(1).affects(Person.ID_FIRST_NAME), is(false));
+
+            // after
+            testObserver.dispose();
+        }
+
+        @Test
+        public void keepsLargeIdsInSortedSet() {
+            // given
+            TestScheduler scheduler = new TestScheduler();
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, scheduler).test();
+
+            // when
+            person.notifyPropertyChanged(Integer.MAX_VALUE);
+            person.notifyPropertyChanged(5000);
+            person.setFirstName("Hans");
+            person.notifyPropertyChanged(Integer.MAX_VALUE);
+            person.notifyPropertyChanged(1024);
+            scheduler.triggerActions();
+
+            // then
+            testObserver.assertValueCount(1);
+            PropertyChangeSet<Person> changeSet = testObserver.values().get(0);
+            assertThat(changeSet.getPropertyIds(),
+                    is(new int[]{Person.ID_FIRST_NAME, 1024, 5000, Integer.MAX_VALUE}));
+            assertThat(changeSet.affects(5000), is(true));
+            assertThat(changeSet.affects(4999), is(false));
+            assertThat(changeSet.affects(Person.ID_LAST_NAME), is(false));
+
+            // when
+            person.notifyPropertyChanged(2048);
+            scheduler.triggerActions();
+
+            // then
+            assertThat(testObserver.values().get(1).getPropertyIds(), is(new int[]{2048}));
+
+            // after
+            testObserver.dispose();
+        }
+
+        @Test
+        public void emitsNothingAfterDisposed() {
+            // given
+            TestScheduler scheduler = new TestScheduler();
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, scheduler).test();
+
+            // when
+            person.setFirstName("Hans");
+            testObserver.dispose();
+            scheduler.triggerActions();
+
+            // then
+            testObserver.assertEmpty();
+        }
+
+        @Test
+        public void emitsPendingChangesOnFlush() {
+            // given
+            PublishSubject<Object> flushes = PublishSubject.create();
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, flushes).test();
+
+            // when
+            flushes.onNext(1);
+            person.notifyChange();
+            person.setLastName("Schmidt");
+            flushes.onNext(2);
+            flushes.onNext(3);
+            person.setFirstName("Hans");
+            flushes.onComplete();
+
+            // then
+            testObserver.assertValues(
+                    new PropertyChangeSet<>(person, new long[]{
+                            1L << PropertyChange.ALL_PROPERTIES | 1L << Person.ID_LAST_NAME},
+                            new int[0]),
+                    new PropertyChangeSet<>(person, new long[]{1L << Person.ID_FIRST_NAME},
+                            new int[0]))
+                    .assertComplete();
+            assertThat(testObserver.values().get(0).affects(Person.ID_FIRST_NAME), is(true));
+            assertThat(flushes.hasObservers(), is(false));
+        }
+
+        @Test
+        public void emitsChangesOnFlushOnSubscribe() {
+            // given
+            io.reactivex.Observable<Object> flushes = io.reactivex.Observable.defer(
+                    new Callable<io.reactivex.Observable<Object>>() {
+                        @Override
+                        public io.reactivex.Observable<Object> call() {
+                            person.setFirstName("Hans");
+                            return io.reactivex.Observable.<Object>just(1);
+                        }
+                    });
+
+            // when
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, flushes).test();
+
+            // then
+            testObserver.assertValue(new PropertyChangeSet<>(person,
+                    new long[]{1L << Person.ID_FIRST_NAME}, new int[0]))
+                    .assertComplete();
+        }
+
+        @Test
+        public void releasesFlushesWhenDisposed() {
+            // given
+            PublishSubject<Object> flushes = PublishSubject.create();
+            TestObserver<PropertyChangeSet<Person>> testObserver
+                    = Observe.changeSetsOf(person, flushes).test();
+
+            // when
+            testObserver.dispose();
+
+            // then
+            assertThat(flushes.hasObservers(), is(false));
+        }
+    }
+
+    public static class Multiplexing {
+        private CountingObservable target;
+        private List<String> received;
+
+        @Before
+        public void setUp() {
+            target = new CountingObservable();
+            received = new ArrayList<>();
+        }
+
+        @Test
+        public void sharesSingleCallbackPerTarget() {
+            // given
+            Disposable first = Observe.propertyOf(target, 1).subscribe();
+            Disposable second = Observe.propertyOf(target, 2).subscribe();
+            Disposable third = Observe.allPropertiesOf(target).subscribe();
+
+            // then
+            assertThat(target.callbackCount, is(1));
+
+            // when
+            first.dispose();
+            second.dispose();
+
+            // then
+            assertThat(target.callbackCount, is(1));
+
+            // when
+            third.dispose();
+
+            // then
+            assertThat(target.callbackCount, is(0));
+        }
+
+        @Test
+        public void concurrentSubscriberDoesNotMissChanges() throws Exception {
+            // given
+            final CountDownLatch isAdding = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final BlockingObservable target = new BlockingObservable(isAdding, release);
+            final List<TestObserver<BlockingObservable>> firsts = new ArrayList<>();
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    firsts.add(Observe.allPropertiesOf(target).test());
+                }
+            });
+            thread.start();
+            isAdding.await();
+
+            // when
+            TestObserver<BlockingObservable> second = Observe.allPropertiesOf(target).test();
+            target.notifyPropertyChanged(1);
+            release.countDown();
+            thread.join();
+            target.notifyPropertyChanged(2);
+
+            // then
+            second.assertValueCount(2);
+            firsts.get(0).assertValueCount(1);
+            assertThat(target.callbackCount, is(1));
+
+            // after
+            firsts.get(0).dispose();
+            second.dispose();
+            assertThat(target.callbackCount, is(0));
+        }
+
+        @Test
+        public void dispatchesInSubscriptionOrder() {
+            // given
+            Disposable first = Observe.propertyOf(target, 1).subscribe(record("first"));
+            Disposable all = Observe.allPropertiesOf(target).subscribe(record("all"));
+            Disposable other = Observe.propertyOf(target, 2).subscribe(record("other"));
+            Disposable last = Observe.propertyOf(target, 1).subscribe(record("last"));
+
+            // when
+            target.notifyPropertyChanged(1);
+
+            // then
+            assertThat(received, is(Arrays.asList("first", "all", "last")));
+
+            // after
+            first.dispose();
+            all.dispose();
+            other.dispose();
+            last.dispose();
+        }
+
+        @Test
+        public void keepsOtherSubscribersWhenOneIsDisposedDuringDispatch() {
+            // given
+            final Disposable[] first = new Disposable[1];
+            first[0] = Observe.propertyOf(target, 1).subscribe(new Consumer<CountingObservable>() {
+                @Override
+                public void accept(CountingObservable value) {
+                    received.add("first");
+                    first[0].dispose();
+                }
+            });
+            Disposable second = Observe.propertyOf(target, 1).subscribe(record("second"));
+
+            // when
+            target.notifyPropertyChanged(1);
+            target.notifyPropertyChanged(1);
+
+            // then
+            assertThat(received, is(Arrays.asList("first", "second", "second")));
+            assertThat(target.callbackCount, is(1));
+
+            // after
+            second.dispose();
+        }
+
+        @Test
+        public void resubscribesAfterDetaching() {
+            // given
+            Observe.propertyOf(target, 1).subscribe().dispose();
+
+            // when
+            Disposable disposable = Observe.propertyOf(target, 1).subscribe(record("again"));
+            target.notifyPropertyChanged(1);
+
+            // then
+            assertThat(received, is(Arrays.asList("again")));
+            assertThat(target.callbackCount, is(1));
+
+            // after
+            disposable.dispose();
+        }
+
+        @Test
+        public void doesNotKeepTargetAlive() throws Exception {
+            // given
+            CountingObservable target = new CountingObservable();
+            WeakReference<CountingObservable> reference = new WeakReference<>(target);
+            Disposable disposable = Observe.propertyOf(target, 1).subscribe();
+            target = null;
+
+            // when
+            for (int i = 0; i < 50 && reference.get() != null; ++i) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            // then
+            assertThat(reference.get() == null, is(true));
+
+            // after
+            disposable.dispose();
+        }
+
+        private Consumer<CountingObservable> record(final String name) {
+            return new Consumer<CountingObservable>() {
+                @Override
+                public void accept(CountingObservable value) {
+                    received.add(name);
+                }
+            };
+        }
+
+        private static class CountingObservable extends BaseObservable {
+            int callbackCount = 0;
+
+            @Override
+            public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+                super.addOnPropertyChangedCallback(callback);
+                ++callbackCount;
+            }
+
+            @Override
+            public void removeOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+                super.removeOnPropertyChangedCallback(callback);
+                --callbackCount;
+            }
+        }
+
+        // Blocks the first addition of a callback until released, before adding it.
+        private static class BlockingObservable extends CountingObservable {
+            private final CountDownLatch isAdding;
+            private final CountDownLatch release;
+
+            BlockingObservable(CountDownLatch isAdding, CountDownLatch release) {
+                this.isAdding = isAdding;
+                this.release = release;
+            }
+
+            @Override
+            public void addOnPropertyChangedCallback(OnPropertyChangedCallback callback) {
+                if (isAdding.getCount() != 0) {
+                    isAdding.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+                synchronized (this) {
+                    super.addOnPropertyChangedCallback(callback);
+                }
+            }
+
+            @Override
+            public synchronized void removeOnPropertyChangedCallback(
+                    OnPropertyChangedCallback callback) {
+                super.removeOnPropertyChangedCallback(callback);
+            }
+        }
+    }
+
     private static Function<Person, String> PERSON_TO_STRING = new Function<Person, String>() {
         @Override
         public String apply(Person person) throws Exception {
@@ -0,0 +1,264 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableBoolean;
+import android.databinding.ObservableInt;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import io.reactivex.functions.Function;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+@SuppressWarnings("deprecation")
+public class PrimitiveRxPropertyTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenSourceObservableInNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("source must not be null.");
+
+            new IntRxProperty(null, 0);
+        }
+
+        @Test
+        public void raisesNPEWhenModeIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("mode must not be null.");
+
+            new IntRxProperty(0, null);
+        }
+    }
+
+    public static class IntProperty {
+        private IntRxProperty property;
+
+        @After
+        public void tearDown() {
+            if (property != null) {
+                property.dispose();
+                property = null;
+            }
+        }
+
+        @Test
+        public void emitsInitialValueOnSubscribeWithDefaultMode() {
+            // given
+            property = new IntRxProperty(1);
+
+            // then
+            property.test()
+                    .assertValue(1)
+                    .assertNotComplete()
+                    .dispose();
+        }
+
+        @Test
+        public void emitsBoxedValuesToObservers() {
+            // given
+            property = new IntRxProperty(1);
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            property.set(2);
+            property.set(2);
+            property.setWithoutViewUpdate(3);
+
+            // then
+            testObserver.assertValues(1, 2, 3)
+                    .assertNotComplete()
+                    .dispose();
+            assertThat(property.get(), is(3));
+        }
+
+        @Test
+        public void emitsSameValueWithoutDistinctUntilChanged() {
+            // given
+            property = new IntRxProperty(1, EnumSet.of(RxProperty.Mode.NONE));
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            property.set(1);
+            property.set(1);
+
+            // then
+            testObserver.assertValues(1, 1)
+                    .assertNotComplete()
+                    .dispose();
+        }
+
+        @Test
+        public void notifiesPrimitiveListener() {
+            // given
+            property = new IntRxProperty(1);
+            final List<Integer> values = new ArrayList<>();
+            IntRxProperty.OnValueChangedListener listener
+                    = new IntRxProperty.OnValueChangedListener() {
+                @Override
+                public void onValueChanged(int value) {
+                    values.add(value);
+                }
+            };
+            property.addOnValueChangedListener(listener);
+
+            // when
+            property.set(2);
+            property.set(3);
+            property.removeOnValueChangedListener(listener);
+            property.set(4);
+
+            // then
+            assertThat(values.size(), is(2));
+            assertThat(values.get(0), is(2));
+            assertThat(values.get(1), is(3));
+        }
+
+        @Test
+        public void notifiesBoundViewOnlyWhenViewUpdateIsRequested() {
+            // given
+            property = new IntRxProperty(1);
+            TestObserver<Integer> fieldObserver = Observe.propertyOf(property.getValue(), 0,
+                    new Function<ObservableInt, Integer>() {
+                        @Override
+                        public Integer apply(ObservableInt field) {
+                            return field.get();
+                        }
+                    }).test();
+
+            // when
+            property.set(2);
+            property.setWithoutViewUpdate(3);
+            property.forceNotify();
+
+            // then
+            fieldObserver.assertValues(2, 3).dispose();
+        }
+
+        @Test
+        public void valueIsUpdatedByView() {
+            // given
+            property = new IntRxProperty(1);
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            property.getValue().set(5);
+
+            // then
+            testObserver.assertValues(1, 5).dispose();
+            assertThat(property.get(), is(5));
+        }
+
+        @Test
+        public void followsSourceObservable() {
+            // given
+            Subject<Integer> source = PublishSubject.create();
+            property = new IntRxProperty(source, 0);
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            source.onNext(1);
+            source.onComplete();
+
+            // then
+            testObserver.assertResult(0, 1);
+            assertThat(property.isDisposed(), is(true));
+        }
+
+        @Test
+        public void ignoresSetAfterDisposed() {
+            // given
+            property = new IntRxProperty(1);
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            property.dispose();
+            property.set(2);
+
+            // then
+            testObserver.assertResult(1);
+            assertThat(property.get(), is(1));
+        }
+    }
+
+    public static class OtherProperties {
+        @Test
+        public void longPropertyEmitsValues() {
+            // given
+            LongRxProperty property = new LongRxProperty(Long.MAX_VALUE);
+            TestObserver<Long> testObserver = property.test();
+
+            // when
+            property.set(Long.MIN_VALUE);
+
+            // then
+            testObserver.assertValues(Long.MAX_VALUE, Long.MIN_VALUE).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void longPropertyConflatesValuesOnFlowable() {
+            // given
+            LongRxProperty property = new LongRxProperty(0L);
+            TestSubscriber<Long> testSubscriber = property.toFlowable().test(0);
+
+            // when
+            property.set(1L);
+            property.set(2L);
+            testSubscriber.request(1);
+
+            // then
+            testSubscriber.assertValue(2L).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void doublePropertyTreatsNaNAsDistinctValue() {
+            // given
+            DoubleRxProperty property = new DoubleRxProperty(Double.NaN);
+            TestObserver<Double> testObserver = property.test();
+
+            // when
+            property.set(Double.NaN);
+            property.set(1.5);
+            property.set(1.5);
+
+            // then
+            testObserver.assertValues(Double.NaN, 1.5).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void booleanPropertyIsBoundByObservableBoolean() {
+            // given
+            BooleanRxProperty property = new BooleanRxProperty(false);
+            TestObserver<Boolean> testObserver = property.test();
+            ObservableBoolean field = property.getValue();
+
+            // when
+            field.set(true);
+
+            // then
+            testObserver.assertValues(false, true).dispose();
+            assertThat(property.get(), is(true));
+            property.dispose();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.functions.Consumer;
+import io.reactivex.observers.TestObserver;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(Enclosed.class)
+public class PropertyScopeTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesIAEWhenInitialCapacityIsNegative() {
+            thrown.expect(IllegalArgumentException.class);
+            thrown.expectMessage("initialCapacity must not be negative.");
+
+            new PropertyScope(-1);
+        }
+
+        @Test
+        public void raisesNPEWhenItemIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("item must not be null.");
+
+            new PropertyScope().add((Disposable) null);
+        }
+    }
+
+    public static class Dispose {
+        private PropertyScope scope;
+        private List<String> disposed;
+
+        @Before
+        public void setUp() {
+            scope = new PropertyScope(1);
+            disposed = new ArrayList<>();
+        }
+
+        @Test
+        public void disposesAllItemsInReverseOrder() {
+            // given
+            scope.add(new Item("first"));
+            scope.add(new Item("second"));
+            scope.add(new Item("third"));
+            assertThat(scope.size(), is(3));
+
+            // when
+            scope.dispose();
+
+            // then
+            assertThat(disposed, is(Arrays.asList("third", "second", "first")));
+            assertThat(scope.isDisposed(), is(true));
+            assertThat(scope.size(), is(0));
+        }
+
+        @Test
+        public void disposesItemAddedAfterDisposal() {
+            // given
+            scope.dispose();
+
+            // when
+            scope.add(new Item("late"));
+
+            // then
+            assertThat(disposed, is(Arrays.asList("late")));
+            assertThat(scope.size(), is(0));
+        }
+
+        @Test
+        public void releasesSubscriptionsBeforeCompletingProperties() {
+            // given
+            RxProperty<String> property = scope.add(new RxProperty<>("RxProperty"));
+            TestObserver<String> test = scope.add(property.test());
+            final List<String> values = new ArrayList<>();
+            scope.add(property.subscribe(new Consumer<String>() {
+                @Override
+                public void accept(String value) {
+                    values.add(value);
+                }
+            }));
+
+            // when
+            scope.dispose();
+
+            // then
+            assertThat(property.isDisposed(), is(true));
+            assertThat(test.isDisposed(), is(true));
+            test.assertNotComplete();
+            assertThat(values, is(Arrays.asList("RxProperty")));
+        }
+
+        @Test
+        public void disposesRemainingItemsWhenItemThrows() {
+            // given
+            scope.add(new Item("first"));
+            scope.add(new ThrowingItem());
+            scope.add(new Item("third"));
+            scope.add(new ThrowingItem());
+
+            // when
+            try {
+                scope.dispose();
+                fail();
+            } catch (CompositeException e) {
+                // then
+                assertThat(e.getExceptions().size(), is(2));
+            }
+            assertThat(disposed, is(Arrays.asList("third", "first")));
+        }
+
+        private class Item implements Disposable {
+            private final String name;
+
+            Item(String name) {
+                this.name = name;
+            }
+
+            @Override
+            public void dispose() {
+                disposed.add(name);
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return disposed.contains(name);
+            }
+        }
+
+        private static class ThrowingItem implements Disposable {
+            @Override
+            public void dispose() {
+                throw new IllegalStateException("Failed to dispose.");
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return false;
+            }
+        }
+    }
+}
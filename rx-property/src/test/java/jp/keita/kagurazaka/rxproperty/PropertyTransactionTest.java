@@ -0,0 +1,419 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableField;
+import android.support.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.EnumSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Function;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+@SuppressWarnings("deprecation")
+public class PropertyTransactionTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenActionIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("action must not be null.");
+
+            PropertyTransaction.run(null);
+        }
+    }
+
+    public static class Batch {
+        private RxProperty<String> first;
+        private RxProperty<String> last;
+
+        @Before
+        public void setUp() {
+            first = new RxProperty<>("John");
+            last = new RxProperty<>("Smith");
+        }
+
+        @After
+        public void tearDown() {
+            first.dispose();
+            last.dispose();
+        }
+
+        @Test
+        public void emitsOnlyFinalValues() {
+            // given
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("Hans");
+                    first.set("Karl");
+                    first.set("Franz");
+                }
+            });
+
+            // then
+            testObserver.assertValues("John", "Franz").dispose();
+        }
+
+        @Test
+        public void storesValueInsideTransaction() {
+            // given
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("Hans");
+
+                    // then
+                    assertThat(first.get(), is("Hans"));
+                    assertThat(PropertyTransaction.isInTransaction(), is(true));
+                }
+            });
+
+            // then
+            testObserver.assertValues("John", "Hans").dispose();
+            assertThat(PropertyTransaction.isInTransaction(), is(false));
+        }
+
+        @Test
+        public void hidesPendingValueFromOtherThreads() {
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("Hans");
+                    first.set("Karl");
+
+                    // then
+                    assertThat(readOnOtherThread(new Callable<String>() {
+                        @Override
+                        public String call() {
+                            return first.get();
+                        }
+                    }), is("John"));
+                    assertThat(readOnOtherThread(new Callable<String>() {
+                        @Override
+                        public String call() {
+                            return first.getValue().get();
+                        }
+                    }), is("John"));
+                }
+            });
+
+            // then
+            assertThat(readOnOtherThread(new Callable<String>() {
+                @Override
+                public String call() {
+                    return first.get();
+                }
+            }), is("Karl"));
+        }
+
+        @Test
+        public void derivedObservableSeesNoIntermediateStates() {
+            // given
+            TestObserver<String> testObserver = Observable.combineLatest(first, last,
+                    new BiFunction<String, String, String>() {
+                        @Override
+                        public String apply(String first, String last) {
+                            return first + " " + last;
+                        }
+                    }).test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("Hans");
+                    last.set("Schmidt");
+                    first.set("Karl");
+                }
+            });
+
+            // then
+            testObserver.assertValues("John Smith", "Karl Smith", "Karl Schmidt").dispose();
+        }
+
+        @Test
+        public void notifiesNothingWhenValueIsRestored() {
+            // given
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("Hans");
+                    first.set("John");
+                }
+            });
+
+            // then
+            testObserver.assertValue("John").dispose();
+        }
+
+        @Test
+        public void notifiesRestoredValueWithoutDistinctUntilChanged() {
+            // given
+            final RxProperty<String> property
+                    = new RxProperty<>("John", EnumSet.of(RxProperty.Mode.NONE));
+            TestObserver<String> testObserver = property.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    property.set("Hans");
+                    property.set("John");
+                }
+            });
+
+            // then
+            testObserver.assertValue("John").dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void notifiesBoundViewOnceWhenAnyUpdateRequestsIt() {
+            // given
+            TestObserver<String> fieldObserver = Observe.propertyOf(first.getValue(), 0,
+                    new Function<ObservableField<String>, String>() {
+                        @Override
+                        public String apply(ObservableField<String> field) {
+                            return field.get();
+                        }
+                    }).test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.setWithoutViewUpdate("Hans");
+                    first.set("Karl");
+                    first.setWithoutViewUpdate("Franz");
+                }
+            });
+
+            // then
+            fieldObserver.assertValue("Franz").dispose();
+        }
+
+        @Test
+        public void validatesOnce() {
+            // given
+            final AtomicInteger count = new AtomicInteger();
+            first.setValidator(new RxProperty.SimpleValidator<String>() {
+                @Nullable
+                @Override
+                public String validate(String value) {
+                    count.incrementAndGet();
+                    return value.isEmpty() ? "Empty" : null;
+                }
+            }, false);
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.set("");
+                    first.set("Hans");
+                    first.set("");
+                }
+            });
+
+            // then
+            assertThat(count.get(), is(1));
+            assertThat(first.hasErrors(), is(true));
+        }
+
+        @Test
+        public void resetToSameValueClearsAndRevalidates() {
+            // given
+            final AtomicBoolean isValid = new AtomicBoolean(false);
+            final AtomicInteger count = new AtomicInteger();
+            first.setValidator(new RxProperty.SimpleValidator<String>() {
+                @Nullable
+                @Override
+                public String validate(String value) {
+                    count.incrementAndGet();
+                    return isValid.get() ? null : "Invalid";
+                }
+            }, false);
+            first.forceValidate();
+            assertThat(first.hasErrors(), is(true));
+            isValid.set(true);
+            count.set(0);
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    first.reset("John", true);
+                }
+            });
+
+            // then
+            assertThat(first.hasErrors(), is(false));
+            assertThat(count.get(), is(1));
+            testObserver.assertValues("John").dispose();
+        }
+
+        @Test
+        public void nestedTransactionJoinsOuter() {
+            // given
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    RxProperty.batch(new Runnable() {
+                        @Override
+                        public void run() {
+                            first.set("Hans");
+                        }
+                    });
+
+                    // then
+                    assertThat(first.get(), is("Hans"));
+                    first.set("Karl");
+                }
+            });
+
+            // then
+            testObserver.assertValues("John", "Karl").dispose();
+        }
+
+        @Test
+        public void commitsEvenIfActionThrows() {
+            // given
+            TestObserver<String> testObserver = first.test();
+
+            // when
+            try {
+                RxProperty.batch(new Runnable() {
+                    @Override
+                    public void run() {
+                        first.set("Hans");
+                        throw new IllegalStateException();
+                    }
+                });
+            } catch (IllegalStateException e) {
+                // Ignore the exception.
+            }
+
+            // then
+            testObserver.assertValues("John", "Hans").dispose();
+        }
+    }
+
+    public static class OtherProperties {
+        @Test
+        public void readOnlyRxPropertyEmitsOnlyFinalValue() {
+            // given
+            final Subject<String> source = PublishSubject.create();
+            ReadOnlyRxProperty<String> property = new ReadOnlyRxProperty<>(source, "John");
+            TestObserver<String> testObserver = property.test();
+
+            // when
+            PropertyTransaction.run(new Runnable() {
+                @Override
+                public void run() {
+                    source.onNext("Hans");
+                    source.onNext("Karl");
+                }
+            });
+
+            // then
+            testObserver.assertValues("John", "Karl").dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void primitivePropertyEmitsOnlyFinalValue() {
+            // given
+            final IntRxProperty property = new IntRxProperty(0);
+            TestObserver<Integer> testObserver = property.test();
+
+            // when
+            PropertyTransaction.run(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= 10; ++i) {
+                        property.set(i);
+                    }
+                }
+            });
+
+            // then
+            testObserver.assertValues(0, 10).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void primitivePropertyHidesPendingValueFromOtherThreads() {
+            // given
+            final IntRxProperty property = new IntRxProperty(0);
+
+            // when
+            PropertyTransaction.run(new Runnable() {
+                @Override
+                public void run() {
+                    property.set(1);
+
+                    // then
+                    assertThat(property.get(), is(1));
+                    assertThat(readOnOtherThread(new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return property.getValue().get();
+                        }
+                    }), is(0));
+                }
+            });
+
+            // then
+            assertThat(property.get(), is(1));
+            property.dispose();
+        }
+    }
+
+    private static <T> T readOnOtherThread(Callable<T> read) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(read).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
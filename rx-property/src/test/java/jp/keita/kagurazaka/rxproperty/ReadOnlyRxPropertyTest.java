@@ -1,5 +1,7 @@
 package jp.keita.kagurazaka.rxproperty;
 
+import android.databinding.Observable.OnPropertyChangedCallback;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -9,14 +11,25 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Observable;
 import io.reactivex.functions.Cancellable;
+import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.BehaviorSubject;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
+import io.reactivex.subscribers.TestSubscriber;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -253,6 +266,49 @@ public class ReadOnlyRxPropertyTest {
         }
     }
 
+    public static class AsFlowable {
+        private Subject<String> source;
+        private ReadOnlyRxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            source = PublishSubject.create();
+            property = new ReadOnlyRxProperty<>(source, "RxProperty");
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void conflatesValuesToLatest() {
+            // given
+            TestSubscriber<String> testSubscriber = property.toFlowable().test(0);
+
+            // when
+            source.onNext("RxJava");
+            source.onNext("RxAndroid");
+            testSubscriber.request(1);
+
+            // then
+            testSubscriber.assertValue("RxAndroid");
+        }
+
+        @Test
+        public void propagatesErrorOfSource() {
+            // given
+            TestSubscriber<String> testSubscriber = property.toFlowable().test();
+            Exception error = new IllegalStateException();
+
+            // when
+            source.onError(error);
+
+            // then
+            testSubscriber.assertValue("RxProperty").assertError(error);
+        }
+    }
+
     public static class AsDataBindingObservable {
         private Subject<String> source;
         private ReadOnlyRxProperty<String> property;
@@ -729,6 +785,583 @@ public class ReadOnlyRxPropertyTest {
         }
     }
 
+    public static class Rebind {
+        private PublishSubject<String> oldSource;
+        private PublishSubject<String> newSource;
+        private ReadOnlyRxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            oldSource = PublishSubject.create();
+            newSource = PublishSubject.create();
+            property = new ReadOnlyRxProperty<>(oldSource, "initial");
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void switchesToNewSource() {
+            // given
+            TestObserver<String> test = property.test();
+
+            // when
+            property.rebind(newSource);
+            oldSource.onNext("old");
+            newSource.onNext("new");
+
+            // then
+            assertThat(oldSource.hasObservers(), is(false));
+            test.assertValues("initial", "new");
+            test.assertNotComplete();
+        }
+
+        @Test
+        public void setsInitialValueBeforeSubscribingNewSource() {
+            // given
+            TestObserver<String> test = propertyObserver(property);
+
+            // when
+            property.rebind(BehaviorSubject.createDefault("new"), "reset");
+
+            // then
+            assertThat(property.get(), is("new"));
+            test.assertValues("reset", "new");
+        }
+
+        @Test
+        public void defersValuesInTransaction() {
+            // given
+            TestObserver<String> test = property.test();
+
+            // when
+            PropertyTransaction.run(new Runnable() {
+                @Override
+                public void run() {
+                    property.rebind(BehaviorSubject.createDefault("new"), "reset");
+
+                    // then
+                    assertThat(property.get(), is("new"));
+                }
+            });
+
+            // then
+            test.assertValues("initial", "new");
+        }
+
+        @Test
+        public void notifiesObserversWithoutHoldingLock() throws InterruptedException {
+            // given
+            final ReadOnlyRxProperty<String> property = new ReadOnlyRxProperty<>(
+                    oldSource, "initial", EnumSet.of(RxProperty.Mode.REF_COUNT_SOURCE));
+            final List<Boolean> isFinished = new ArrayList<>();
+            property.subscribe(new Consumer<String>() {
+                @Override
+                public void accept(String value) throws InterruptedException {
+                    // Another thread attaching a view callback takes the lock of the property.
+                    Thread thread = startDaemon(new Runnable() {
+                        @Override
+                        public void run() {
+                            property.addOnPropertyChangedCallback(
+                                    Mockito.mock(OnPropertyChangedCallback.class));
+                        }
+                    });
+                    thread.join(5000);
+                    isFinished.add(!thread.isAlive());
+                }
+            });
+            isFinished.clear();
+
+            // when
+            property.rebind(BehaviorSubject.createDefault("new"), "reset");
+
+            // then
+            assertThat(isFinished, is(Arrays.asList(true, true)));
+            property.dispose();
+        }
+
+        @Test
+        public void doesNothingWhenDisposed() {
+            // given
+            property.dispose();
+
+            // when
+            property.rebind(newSource);
+
+            // then
+            assertThat(newSource.hasObservers(), is(false));
+        }
+
+        @Test(expected = UnsupportedOperationException.class)
+        public void raisesExceptionWhenComputed() {
+            ReadOnlyRxProperty.computed(new Callable<String>() {
+                @Override
+                public String call() {
+                    return "computed";
+                }
+            }).rebind(newSource);
+        }
+    }
+
+    public static class RefCountSource {
+        private BehaviorSubject<String> source;
+        private ReadOnlyRxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            source = BehaviorSubject.createDefault("initial");
+            property = new ReadOnlyRxProperty<>(source, "cached", EnumSet.of(
+                    RxProperty.Mode.DISTINCT_UNTIL_CHANGED,
+                    RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE,
+                    RxProperty.Mode.REF_COUNT_SOURCE));
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void doesNotSubscribeSourceWithoutObservers() {
+            // then
+            assertThat(source.hasObservers(), is(false));
+            assertThat(property.get(), is("cached"));
+        }
+
+        @Test
+        public void subscribesSourceWhileRxObserversAreAttached() {
+            // given
+            TestObserver<String> first = property.test();
+            TestObserver<String> second = property.test();
+            assertThat(source.hasObservers(), is(true));
+
+            // when
+            first.dispose();
+
+            // then
+            assertThat(source.hasObservers(), is(true));
+
+            // when
+            second.dispose();
+
+            // then
+            assertThat(source.hasObservers(), is(false));
+            first.assertValues("initial");
+        }
+
+        @Test
+        public void subscribesSourceWhileViewCallbacksAreAttached() {
+            // given
+            TestObserver<String> test = propertyObserver(property);
+            assertThat(source.hasObservers(), is(true));
+
+            // when
+            source.onNext("changed");
+            test.dispose();
+
+            // then
+            assertThat(source.hasObservers(), is(false));
+            test.assertValues("initial", "changed");
+        }
+
+        @Test
+        public void refreshesValueOnResubscribe() {
+            // given
+            property.test().dispose();
+            source.onNext("changed while released");
+            assertThat(property.get(), is("initial"));
+
+            // when
+            TestObserver<String> test = property.test();
+
+            // then
+            test.assertValues("changed while released");
+            assertThat(property.get(), is("changed while released"));
+        }
+
+        @Test
+        public void subscribesReboundSourceOnlyWhileObserved() {
+            // given
+            BehaviorSubject<String> newSource = BehaviorSubject.createDefault("rebound");
+
+            // when
+            property.rebind(newSource);
+
+            // then
+            assertThat(newSource.hasObservers(), is(false));
+
+            // when
+            TestObserver<String> test = property.test();
+
+            // then
+            assertThat(newSource.hasObservers(), is(true));
+            test.assertValues("rebound");
+        }
+
+        @Test
+        public void connectsSourceWithoutHoldingLock() {
+            // given
+            final List<Boolean> isFinished = new ArrayList<>();
+            OnPropertyChangedCallback callback = new OnPropertyChangedCallback() {
+                @Override
+                public void onPropertyChanged(android.databinding.Observable sender,
+                                              int propertyId) {
+                    // Another thread attaching a view callback takes the lock of the property.
+                    Thread thread = startDaemon(new Runnable() {
+                        @Override
+                        public void run() {
+                            property.addOnPropertyChangedCallback(
+                                    Mockito.mock(OnPropertyChangedCallback.class));
+                        }
+                    });
+                    try {
+                        thread.join(5000);
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                    isFinished.add(!thread.isAlive());
+                }
+            };
+
+            // when
+            property.addOnPropertyChangedCallback(callback);
+
+            // then
+            assertThat(isFinished, is(Collections.singletonList(true)));
+            assertThat(property.get(), is("initial"));
+            assertThat(source.hasObservers(), is(true));
+
+            // when
+            property.removeOnPropertyChangedCallback(callback);
+
+            // then
+            assertThat(source.hasObservers(), is(true));
+        }
+
+        @Test
+        public void disposesWhenSourceCompletesSynchronously() {
+            // given
+            ReadOnlyRxProperty<String> property = new ReadOnlyRxProperty<>(
+                    Observable.just("just"), EnumSet.of(RxProperty.Mode.REF_COUNT_SOURCE));
+
+            // when
+            TestObserver<String> test = property.test();
+
+            // then
+            test.assertComplete();
+            assertThat(property.get(), is("just"));
+            assertThat(property.isDisposed(), is(true));
+        }
+
+        @Test
+        public void releasesSourceWhenDisposed() {
+            // given
+            TestObserver<String> test = property.test();
+
+            // when
+            property.dispose();
+
+            // then
+            assertThat(source.hasObservers(), is(false));
+            test.assertComplete();
+        }
+    }
+
+    public static class Computed {
+        private RxProperty<Integer> a;
+        private RxProperty<Integer> b;
+        private RxProperty<Boolean> useA;
+        private AtomicInteger count;
+        private ReadOnlyRxProperty<Integer> sum;
+
+        @Before
+        public void setUp() {
+            a = new RxProperty<>(1);
+            b = new RxProperty<>(2);
+            useA = new RxProperty<>(true);
+            count = new AtomicInteger();
+            sum = ReadOnlyRxProperty.computed(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    count.incrementAndGet();
+                    return (useA.get() ? a.get() : 0) + b.get();
+                }
+            });
+        }
+
+        @After
+        public void tearDown() {
+            sum.dispose();
+        }
+
+        @Test
+        public void computesLazilyOnlyWhenReadAfterDependencyChanged() {
+            // given
+            assertThat(count.get(), is(0));
+            assertThat(sum.get(), is(3));
+            assertThat(sum.get(), is(3));
+            assertThat(count.get(), is(1));
+
+            // when
+            a.set(10);
+            b.set(20);
+
+            // then
+            assertThat(count.get(), is(1));
+            assertThat(sum.get(), is(30));
+            assertThat(count.get(), is(2));
+        }
+
+        @Test
+        public void emitsRecomputedValueWhileObserved() {
+            // given
+            TestObserver<Integer> test = sum.test();
+
+            // when
+            a.set(10);
+
+            // then
+            test.assertValues(3, 12);
+            assertThat(count.get(), is(2));
+        }
+
+        @Test
+        public void notifiesBoundViewWhichRecomputesOnRead() {
+            // given
+            sum.get();
+            TestObserver<Integer> test = propertyObserver(sum);
+
+            // when
+            b.set(5);
+
+            // then
+            test.assertValueCount(1);
+            assertThat(test.values().get(0), is(6));
+            assertThat(count.get(), is(2));
+        }
+
+        @Test
+        public void tracksDependenciesOfConditionalBranch() {
+            // given
+            TestObserver<Integer> test = sum.test();
+
+            // when
+            useA.set(false);
+            a.set(100);
+            b.set(4);
+            useA.set(true);
+            a.set(200);
+
+            // then
+            test.assertValues(3, 2, 4, 104, 204);
+            assertThat(count.get(), is(5));
+        }
+
+        @Test
+        public void dependsOnOtherComputedProperty() {
+            // given
+            ReadOnlyRxProperty<String> text = ReadOnlyRxProperty.computed(new Callable<String>() {
+                @Override
+                public String call() {
+                    return "sum: " + sum.get();
+                }
+            });
+            TestObserver<String> test = text.test();
+
+            // when
+            a.set(5);
+
+            // then
+            test.assertValues("sum: 3", "sum: 7");
+            text.dispose();
+        }
+
+        @Test
+        public void stopsObservingDependenciesWhenDisposed() {
+            // given
+            TestObserver<Integer> test = sum.test();
+
+            // when
+            sum.dispose();
+            a.set(10);
+
+            // then
+            test.assertValues(3);
+            test.assertComplete();
+            assertThat(count.get(), is(1));
+        }
+
+        @Test
+        public void tracksPropagationOnlyForEmittersOfDependencies() {
+            // given
+            RxProperty<Integer> other = new RxProperty<>(0);
+
+            // when
+            sum.get();
+
+            // then
+            assertThat(a.valueEmitter.hasDependents(), is(true));
+            assertThat(b.valueEmitter.hasDependents(), is(true));
+            assertThat(other.valueEmitter.hasDependents(), is(false));
+
+            // when
+            useA.set(false);
+            sum.get();
+
+            // then
+            assertThat(a.valueEmitter.hasDependents(), is(false));
+            assertThat(b.valueEmitter.hasDependents(), is(true));
+
+            // when
+            sum.dispose();
+
+            // then
+            assertThat(useA.valueEmitter.hasDependents(), is(false));
+            assertThat(b.valueEmitter.hasDependents(), is(false));
+            other.dispose();
+        }
+
+        @Test
+        public void notifiesObserversWithoutHoldingLock() throws InterruptedException {
+            // given
+            final RxProperty<Integer> c = new RxProperty<>(0);
+            final RxProperty<Integer> d = new RxProperty<>(0);
+            final ReadOnlyRxProperty<Integer> x = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return a.get() + d.get();
+                        }
+                    });
+            final ReadOnlyRxProperty<Integer> y = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return b.get() + c.get();
+                        }
+                    });
+            final CountDownLatch inX = new CountDownLatch(1);
+            final CountDownLatch inY = new CountDownLatch(1);
+
+            // Each observer waits for the other one, and then reads the other computed property
+            // after changing its dependency.
+            x.skip(1).take(1).subscribe(new Consumer<Integer>() {
+                @Override
+                public void accept(Integer value) throws InterruptedException {
+                    inX.countDown();
+                    inY.await(5, TimeUnit.SECONDS);
+                    c.set(1);
+                    y.get();
+                }
+            });
+            y.skip(1).take(1).subscribe(new Consumer<Integer>() {
+                @Override
+                public void accept(Integer value) throws InterruptedException {
+                    inY.countDown();
+                    inX.await(5, TimeUnit.SECONDS);
+                    d.set(1);
+                    x.get();
+                }
+            });
+            TestObserver<Integer> xObserver = x.test();
+            TestObserver<Integer> yObserver = y.test();
+
+            // when
+            Thread first = startDaemon(new Runnable() {
+                @Override
+                public void run() {
+                    a.set(2);
+                }
+            });
+            Thread second = startDaemon(new Runnable() {
+                @Override
+                public void run() {
+                    b.set(3);
+                }
+            });
+            first.join(10000);
+            second.join(10000);
+
+            // then
+            assertThat(first.isAlive() || second.isAlive(), is(false));
+            xObserver.assertValues(1, 2, 3).dispose();
+            yObserver.assertValues(2, 3, 4).dispose();
+            x.dispose();
+            y.dispose();
+        }
+
+        @Test
+        public void recomputesDiamondOnlyOnceWithConsistentValues() {
+            // given
+            final ReadOnlyRxProperty<Integer> doubled = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return a.get() * 2;
+                        }
+                    });
+            final ReadOnlyRxProperty<Integer> tripled = ReadOnlyRxProperty.computed(
+                    new Callable<Integer>() {
+                        @Override
+                        public Integer call() {
+                            return a.get() * 3;
+                        }
+                    });
+            final AtomicInteger diamondCount = new AtomicInteger();
+            ReadOnlyRxProperty<String> diamond = ReadOnlyRxProperty.computed(
+                    new Callable<String>() {
+                        @Override
+                        public String call() {
+                            diamondCount.incrementAndGet();
+                            return doubled.get() + ":" + tripled.get();
+                        }
+                    });
+            TestObserver<String> test = diamond.test();
+
+            // when
+            a.set(2);
+            a.set(3);
+
+            // then
+            test.assertValues("2:3", "4:6", "6:9");
+            assertThat(diamondCount.get(), is(3));
+            diamond.dispose();
+            doubled.dispose();
+            tripled.dispose();
+        }
+
+        @Test
+        public void recomputesOnlyOnceForTransaction() {
+            // given
+            TestObserver<Integer> test = sum.test();
+
+            // when
+            PropertyTransaction.run(new Runnable() {
+                @Override
+                public void run() {
+                    a.set(10);
+                    b.set(20);
+                }
+            });
+
+            // then
+            test.assertValues(3, 30);
+            assertThat(count.get(), is(2));
+        }
+
+        @Test(expected = NullPointerException.class)
+        public void raisesNPEWhenComputationReturnsNull() {
+            ReadOnlyRxProperty.computed(new Callable<String>() {
+                @Override
+                public String call() {
+                    return null;
+                }
+            }).get();
+        }
+    }
+
     private static <T> TestObserver<T> propertyObserver(ReadOnlyRxProperty<T> property) {
         return Observe.propertyOf(property, 0,
                 new Function<ReadOnlyRxProperty<T>, T>() {
@@ -739,4 +1372,11 @@ public class ReadOnlyRxPropertyTest {
                 })
                 .test();
     }
+
+    private static Thread startDaemon(Runnable action) {
+        Thread thread = new Thread(action);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
 }
@@ -0,0 +1,380 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableList;
+import android.support.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class RxListPropertyTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenInitialItemsIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("initialItems must not be null.");
+
+            new RxListProperty<>(null);
+        }
+
+        @Test
+        public void raisesIOOBEWhenMoveTargetIsOutOfRange() {
+            thrown.expect(IndexOutOfBoundsException.class);
+
+            new RxListProperty<>(Arrays.asList("a", "b")).move(0, 2);
+        }
+    }
+
+    public static class AsRxObservable {
+        private RxListProperty<String> list;
+        private TestObserver<ListChange> testObserver;
+
+        @Before
+        public void setUp() {
+            list = new RxListProperty<>(Arrays.asList("a", "b", "c"));
+            testObserver = list.changes().test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+            list.dispose();
+        }
+
+        @Test
+        public void emitsInsertedRanges() {
+            // when
+            list.add("d");
+            list.add(0, "z");
+            list.addAll(1, Arrays.asList("x", "y"));
+
+            // then
+            assertThat(list, is(Arrays.asList("z", "x", "y", "a", "b", "c", "d")));
+            testObserver.assertValues(
+                    ListChange.inserted(3, 1),
+                    ListChange.inserted(0, 1),
+                    ListChange.inserted(1, 2));
+        }
+
+        @Test
+        public void emitsRemovedRanges() {
+            // when
+            list.remove(1);
+            list.clear();
+
+            // then
+            assertThat(list.isEmpty(), is(true));
+            testObserver.assertValues(ListChange.removed(1, 1), ListChange.removed(0, 2));
+        }
+
+        @Test
+        public void emitsChangedRange() {
+            // when
+            list.set(2, "z");
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "b", "z")));
+            testObserver.assertValue(ListChange.changed(2, 1));
+        }
+
+        @Test
+        public void emitsMovedItem() {
+            // when
+            list.move(0, 2);
+
+            // then
+            assertThat(list, is(Arrays.asList("b", "c", "a")));
+            testObserver.assertValue(ListChange.moved(0, 2, 1));
+        }
+
+        @Test
+        public void emitsRemovalByIterator() {
+            // when
+            Iterator<String> iterator = list.iterator();
+            iterator.next();
+            iterator.remove();
+
+            // then
+            assertThat(list, is(Arrays.asList("b", "c")));
+            testObserver.assertValue(ListChange.removed(0, 1));
+        }
+
+        @Test
+        public void emitsNothingForEmptyChanges() {
+            // when
+            list.addAll(Collections.<String>emptyList());
+            list.move(1, 1);
+            new RxListProperty<String>().clear();
+
+            // then
+            testObserver.assertNoValues();
+        }
+
+        @Test
+        public void completesWhenDisposed() {
+            // when
+            list.dispose();
+
+            // then
+            testObserver.assertNoValues().assertComplete();
+            assertThat(list.isDisposed(), is(true));
+        }
+    }
+
+    public static class Replace {
+        private RxListProperty<String> list;
+        private TestObserver<ListChange> testObserver;
+
+        @Before
+        public void setUp() {
+            list = new RxListProperty<>(Arrays.asList("a", "b", "c", "d"));
+            testObserver = list.changes().test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+            list.dispose();
+        }
+
+        @Test
+        public void notifiesNothingForSameItems() {
+            // when
+            list.replace(Arrays.asList("a", "b", "c", "d"));
+
+            // then
+            testObserver.assertNoValues();
+        }
+
+        @Test
+        public void notifiesOnlyInsertedRange() {
+            // when
+            list.replace(Arrays.asList("a", "b", "x", "y", "c", "d"));
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "b", "x", "y", "c", "d")));
+            testObserver.assertValue(ListChange.inserted(2, 2));
+        }
+
+        @Test
+        public void notifiesOnlyRemovedRange() {
+            // when
+            list.replace(Arrays.asList("a", "d"));
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "d")));
+            testObserver.assertValue(ListChange.removed(1, 2));
+        }
+
+        @Test
+        public void notifiesRemovedAndInsertedRanges() {
+            // when
+            list.replace(Arrays.asList("a", "x", "y", "z", "d"));
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "x", "y", "z", "d")));
+            testObserver.assertValues(ListChange.removed(1, 2), ListChange.inserted(1, 3));
+        }
+
+        @Test
+        public void notifiesOnlyEditsInMiddle() {
+            // when
+            list.replace(Arrays.asList("b", "c", "x", "d"));
+
+            // then
+            assertThat(list, is(Arrays.asList("b", "c", "x", "d")));
+            testObserver.assertValues(ListChange.removed(0, 1), ListChange.inserted(2, 1));
+        }
+
+        @Test
+        public void replacesItemsMatchedByComparer() {
+            // when
+            list.replace(Arrays.asList("a", "B", "C", "d"), IGNORE_CASE);
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "B", "C", "d")));
+            testObserver.assertValue(ListChange.changed(1, 2));
+        }
+
+        @Test
+        public void keepsItemsMatchedByComparer() {
+            // when
+            list.replace(Arrays.asList("a", "B", "x", "D"), IGNORE_CASE, true);
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "b", "x", "d")));
+            testObserver.assertValues(ListChange.removed(2, 1), ListChange.inserted(2, 1));
+        }
+    }
+
+    public static class ReplaceAsync {
+        private TestScheduler diffScheduler;
+        private TestScheduler applyScheduler;
+        private RxListProperty<String> list;
+        private TestObserver<ListChange> testObserver;
+
+        @Before
+        public void setUp() {
+            diffScheduler = new TestScheduler();
+            applyScheduler = new TestScheduler();
+            list = new RxListProperty<>(Arrays.asList("a", "b", "c"));
+            testObserver = list.changes().test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+            list.dispose();
+        }
+
+        @Test
+        public void appliesDifferenceOnApplyScheduler() {
+            // given
+            TestObserver<Void> completion = list
+                    .replaceAsync(Arrays.asList("a", "c", "d"), diffScheduler, applyScheduler)
+                    .test();
+
+            // when
+            diffScheduler.triggerActions();
+
+            // then
+            testObserver.assertNoValues();
+
+            // when
+            applyScheduler.triggerActions();
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "c", "d")));
+            testObserver.assertValues(ListChange.removed(1, 1), ListChange.inserted(2, 1));
+            completion.assertComplete();
+        }
+
+        @Test
+        public void recalculatesWhenUpdatedInMeantime() {
+            // given
+            TestObserver<Void> completion = list
+                    .replaceAsync(Arrays.asList("a", "c", "d"), diffScheduler, applyScheduler)
+                    .test();
+            diffScheduler.triggerActions();
+
+            // when
+            list.set(0, "z");
+            applyScheduler.triggerActions();
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "c", "d")));
+            completion.assertComplete();
+        }
+
+        @Test
+        public void keepsItemsMatchedByComparer() {
+            // given
+            TestObserver<Void> completion = list
+                    .replaceAsync(Arrays.asList("A", "B", "d"), IGNORE_CASE, true,
+                            diffScheduler, applyScheduler)
+                    .test();
+
+            // when
+            diffScheduler.triggerActions();
+            applyScheduler.triggerActions();
+
+            // then
+            assertThat(list, is(Arrays.asList("a", "b", "d")));
+            testObserver.assertValues(ListChange.removed(2, 1), ListChange.inserted(2, 1));
+            completion.assertComplete();
+        }
+    }
+
+    public static class AsDataBindingObservable {
+        @Test
+        public void notifiesCallbacks() {
+            // given
+            RxListProperty<String> list = new RxListProperty<>(Arrays.asList("a", "b"));
+            RecordingCallback callback = new RecordingCallback();
+            list.addOnListChangedCallback(callback);
+
+            // when
+            list.add("c");
+            list.set(0, "z");
+            list.move(0, 1);
+            list.remove(2);
+
+            // then
+            assertThat(callback.events, is(Arrays.asList(
+                    "inserted 2 1", "changed 0 1", "moved 0 1 1", "removed 2 1")));
+        }
+
+        @Test
+        public void stopsNotifyingRemovedCallback() {
+            // given
+            RxListProperty<String> list = new RxListProperty<>();
+            RecordingCallback callback = new RecordingCallback();
+            list.addOnListChangedCallback(callback);
+
+            // when
+            list.removeOnListChangedCallback(callback);
+            list.add("a");
+
+            // then
+            assertThat(callback.events.isEmpty(), is(true));
+        }
+    }
+
+    private static final EqualityComparer<String> IGNORE_CASE = new EqualityComparer<String>() {
+        @Override
+        public boolean areEqual(@NonNull String value, @NonNull String current) {
+            return value.equalsIgnoreCase(current);
+        }
+    };
+
+    private static class RecordingCallback
+            extends ObservableList.OnListChangedCallback<ObservableList<String>> {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onChanged(ObservableList<String> sender) {
+            events.add("reset");
+        }
+
+        @Override
+        public void onItemRangeChanged(ObservableList<String> sender, int start, int count) {
+            events.add("changed " + start + " " + count);
+        }
+
+        @Override
+        public void onItemRangeInserted(ObservableList<String> sender, int start, int count) {
+            events.add("inserted " + start + " " + count);
+        }
+
+        @Override
+        public void onItemRangeMoved(ObservableList<String> sender, int from, int to, int count) {
+            events.add("moved " + from + " " + to + " " + count);
+        }
+
+        @Override
+        public void onItemRangeRemoved(ObservableList<String> sender, int start, int count) {
+            events.add("removed " + start + " " + count);
+        }
+    }
+}
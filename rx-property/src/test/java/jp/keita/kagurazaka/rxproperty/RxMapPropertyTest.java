@@ -0,0 +1,187 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.observers.TestObserver;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class RxMapPropertyTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesNPEWhenKeyIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("key must not be null.");
+
+            new RxMapProperty<String, String>().observeKey(null, "");
+        }
+
+        @Test
+        public void raisesNPEWhenAbsentValueIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("absentValue must not be null.");
+
+            new RxMapProperty<String, String>().observeKey("a", null);
+        }
+
+        @Test
+        public void raisesUOEWhenKeySetIsModified() {
+            thrown.expect(UnsupportedOperationException.class);
+
+            new RxMapProperty<>(Collections.singletonMap("a", 1)).keySet().clear();
+        }
+    }
+
+    public static class ObserveKey {
+        private RxMapProperty<String, Integer> map;
+        private ReadOnlyRxProperty<Integer> property;
+        private TestObserver<Integer> testObserver;
+
+        @Before
+        public void setUp() {
+            map = new RxMapProperty<>(Collections.singletonMap("a", 1));
+            property = map.observeKey("a", 0);
+            testObserver = property.test();
+        }
+
+        @After
+        public void tearDown() {
+            testObserver.dispose();
+            property.dispose();
+            map.dispose();
+        }
+
+        @Test
+        public void hasCurrentValue() {
+            // then
+            assertThat(property.get(), is(1));
+            testObserver.assertValue(1);
+        }
+
+        @Test
+        public void emitsOnlyChangesOfKey() {
+            // when
+            map.put("b", 2);
+            map.put("a", 3);
+            map.remove("b");
+
+            // then
+            testObserver.assertValues(1, 3);
+        }
+
+        @Test
+        public void emitsAbsentValueWhenRemoved() {
+            // when
+            map.remove("a");
+            map.put("a", 4);
+
+            // then
+            testObserver.assertValues(1, 0, 4);
+        }
+
+        @Test
+        public void emitsAbsentValueWhenCleared() {
+            // when
+            map.clear();
+
+            // then
+            testObserver.assertValues(1, 0);
+        }
+
+        @Test
+        public void startsWithAbsentValueForMissingKey() {
+            // given
+            ReadOnlyRxProperty<Integer> missing = map.observeKey("z", -1);
+            TestObserver<Integer> missingObserver = missing.test();
+
+            // when
+            map.put("z", 26);
+
+            // then
+            missingObserver.assertValues(-1, 26).dispose();
+            missing.dispose();
+        }
+
+        @Test
+        public void sharesSlotAmongPropertiesOfSameKey() {
+            // given
+            ReadOnlyRxProperty<Integer> other = map.observeKey("a", 0);
+            TestObserver<Integer> otherObserver = other.test();
+
+            // when
+            map.put("a", 5);
+
+            // then
+            testObserver.assertValues(1, 5);
+            otherObserver.assertValues(1, 5).dispose();
+            other.dispose();
+        }
+
+        @Test
+        public void stopsEmittingToDisposedProperty() {
+            // given
+            property.dispose();
+
+            // when
+            map.put("a", 5);
+
+            // then
+            testObserver.assertValue(1).assertComplete();
+        }
+
+        @Test
+        public void completesPropertiesWhenDisposed() {
+            // when
+            map.dispose();
+
+            // then
+            testObserver.assertComplete();
+            assertThat(property.isDisposed(), is(true));
+        }
+    }
+
+    public static class AsDataBindingObservable {
+        @Test
+        public void notifiesChangedKeys() {
+            // given
+            RxMapProperty<String, Integer> map = new RxMapProperty<>();
+            final List<String> keys = new ArrayList<>();
+            map.addOnMapChangedCallback(new ObservableMap.OnMapChangedCallback<
+                    ObservableMap<String, Integer>, String, Integer>() {
+                @Override
+                public void onMapChanged(ObservableMap<String, Integer> sender, String key) {
+                    keys.add(key);
+                }
+            });
+
+            // when
+            map.put("a", 1);
+            map.remove("a");
+            map.remove("b");
+            map.put("c", 3);
+            map.clear();
+
+            // then
+            assertThat(keys, is(Arrays.asList("a", "a", "c", null)));
+        }
+    }
+}
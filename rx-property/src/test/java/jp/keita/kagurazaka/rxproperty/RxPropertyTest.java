@@ -17,13 +17,21 @@ import org.mockito.Mockito;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.reactivex.functions.Cancellable;
 import io.reactivex.functions.Function;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
 import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.SingleSubject;
 import io.reactivex.subjects.Subject;
 import jp.keita.kagurazaka.rxproperty.util.RxPropertyErrorObserver;
 
@@ -396,6 +404,61 @@ public class RxPropertyTest {
         }
     }
 
+    public static class AsFlowable {
+        private RxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            property = new RxProperty<>("RxProperty");
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void conflatesValuesToLatest() {
+            // given
+            TestSubscriber<String> testSubscriber = property.toFlowable().test(0);
+
+            // when
+            property.set("RxJava");
+            property.set("RxAndroid");
+            testSubscriber.request(1);
+
+            // then
+            testSubscriber.assertValue("RxAndroid");
+        }
+
+        @Test
+        public void emitsValuesWhileRequested() {
+            // given
+            TestSubscriber<String> testSubscriber = property.toFlowable().test();
+
+            // when
+            property.set("RxJava");
+            property.set("RxAndroid");
+
+            // then
+            testSubscriber.assertValues("RxProperty", "RxJava", "RxAndroid").dispose();
+        }
+
+        @Test
+        public void completesWhenDisposed() {
+            // given
+            TestSubscriber<String> testSubscriber = property.toFlowable().test(0);
+
+            // when
+            property.set("RxJava");
+            property.dispose();
+            testSubscriber.request(1);
+
+            // then
+            testSubscriber.assertValue("RxJava").assertComplete();
+        }
+    }
+
     public static class AsDataBindingObservable {
         private RxProperty<String> property;
 
@@ -1750,6 +1813,453 @@ public class RxPropertyTest {
         }
     }
 
+    public static class ValidationWithoutValidator {
+        private RxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            property = new RxProperty<>("");
+        }
+
+        @After
+        public void tearDown() {
+            if (property != null) {
+                property.dispose();
+                property = null;
+            }
+        }
+
+        @Test
+        public void hasNoErrorsWithoutValidator() {
+            // when
+            property.set("RxProperty");
+            property.forceValidate();
+
+            // then
+            assertThat(property.getErrorMessages().isEmpty(), is(true));
+            assertThat(property.getSummarizedErrorMessage(), is(""));
+            assertThat(property.hasErrors(), is(false));
+            assertThat(property.getError().get(), is(""));
+            assertThat(property.getHasError().get(), is(false));
+        }
+
+        @Test
+        public void errorObservablesCreatedBeforeValidatorIsSetEmitErrors() {
+            // given
+            RxPropertyErrorObserver<String> testObserver = new RxPropertyErrorObserver<>(property);
+            TestObserver<String> errorObserver = errorObserver(property);
+
+            // when
+            property.setValidator(EMPTY_FUNCTION_VALIDATOR);
+
+            // then
+            testObserver.assertErrors(Collections.singletonList("Value must not be empty."))
+                    .assertSummarizedErrors("Value must not be empty.")
+                    .assertHasErrors(true)
+                    .dispose();
+            errorObserver.assertValue("Value must not be empty.").dispose();
+        }
+
+        @Test
+        public void errorObservablesCreatedAfterDisposedEmitOnComplete() {
+            // given
+            property.dispose();
+
+            // when
+            RxPropertyErrorObserver<String> testObserver = new RxPropertyErrorObserver<>(property);
+
+            // then
+            testObserver.assertNoErrors()
+                    .assertNoSummarizedErrors()
+                    .assertNoHasErrors()
+                    .assertComplete()
+                    .dispose();
+        }
+
+        @Test
+        public void removingValidatorClearsErrors() {
+            // given
+            property.setValidator(EMPTY_FUNCTION_VALIDATOR);
+            RxPropertyErrorObserver<String> testObserver = new RxPropertyErrorObserver<>(property);
+
+            // when
+            property.setValidator((RxProperty.Validator<String>) null);
+            property.set("");
+
+            // then
+            testObserver.assertErrors(
+                    Collections.singletonList("Value must not be empty."),
+                    Collections.<String>emptyList())
+                    .assertLatestHasErrors(false)
+                    .dispose();
+        }
+    }
+
+    public static class AsyncValidation {
+        private TestScheduler scheduler;
+        private Map<String, SingleSubject<List<String>>> requests;
+        private RxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            scheduler = new TestScheduler();
+            requests = new HashMap<>();
+            property = new RxProperty<>("RxProperty");
+            property.setAsyncValidator(new RxProperty.AsyncValidator<String>() {
+                @NonNull
+                @Override
+                public Single<List<String>> validate(@NonNull String value) {
+                    SingleSubject<List<String>> request = SingleSubject.create();
+                    requests.put(value, request);
+                    return request;
+                }
+
+                @Nullable
+                @Override
+                public String summarizeErrorMessages(@NonNull List<String> errorMessages) {
+                    return errorMessages.get(0);
+                }
+            }, 300, TimeUnit.MILLISECONDS, scheduler);
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+            requests.get("RxProperty").onSuccess(Collections.<String>emptyList());
+        }
+
+        @After
+        public void tearDown() {
+            if (property != null) {
+                property.dispose();
+                property = null;
+            }
+        }
+
+        @Test
+        public void validatesAfterDebounce() {
+            // when
+            property.set("");
+            scheduler.advanceTimeBy(299, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(requests.containsKey(""), is(false));
+
+            // when
+            scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+            requests.get("").onSuccess(Collections.singletonList("Empty"));
+
+            // then
+            assertThat(property.getErrorMessages(), is(Collections.singletonList("Empty")));
+            assertThat(property.getError().get(), is("Empty"));
+            assertThat(property.hasErrors(), is(true));
+        }
+
+        @Test
+        public void validatesOnlyLatestValueWithinDebounce() {
+            // when
+            property.set("R");
+            property.set("Rx");
+            property.set("RxJava");
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(requests.containsKey("R"), is(false));
+            assertThat(requests.containsKey("Rx"), is(false));
+            assertThat(requests.containsKey("RxJava"), is(true));
+        }
+
+        @Test
+        public void newValueCancelsInFlightValidation() {
+            // given
+            TestObserver<Boolean> hasErrorsObserver = property.onHasErrorsChanged().test();
+            property.set("");
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+            SingleSubject<List<String>> stale = requests.get("");
+
+            // when
+            property.set("RxJava");
+
+            // then
+            assertThat(stale.hasObservers(), is(false));
+
+            // when
+            stale.onSuccess(Collections.singletonList("Empty"));
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+            requests.get("RxJava").onSuccess(Collections.<String>emptyList());
+
+            // then
+            assertThat(property.hasErrors(), is(false));
+            hasErrorsObserver.assertNoValues().dispose();
+        }
+
+        @Test
+        public void treatsFailureAsError() {
+            // when
+            property.set("");
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+            requests.get("").onError(new IllegalStateException("Timeout"));
+
+            // then
+            assertThat(property.getErrorMessages(), is(Collections.singletonList("Timeout")));
+        }
+
+        @Test
+        public void setValidatorReplacesAsyncValidator() {
+            // given
+            property.set("");
+
+            // when
+            property.setValidator(EMPTY_FUNCTION_VALIDATOR);
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(requests.containsKey(""), is(false));
+            assertThat(property.getSummarizedErrorMessage(), is("Value must not be empty."));
+        }
+
+        @Test
+        public void doesNotValidateAfterDisposed() {
+            // given
+            property.set("");
+
+            // when
+            property.dispose();
+            scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+            // then
+            assertThat(requests.containsKey(""), is(false));
+        }
+    }
+
+    public static class DependentValidation {
+        private RxProperty<String> password;
+        private RxProperty<String> confirmation;
+        private AtomicInteger passwordCount;
+        private AtomicInteger confirmationCount;
+
+        @Before
+        public void setUp() {
+            password = new RxProperty<>("secret");
+            confirmation = new RxProperty<>("secret");
+            passwordCount = new AtomicInteger();
+            confirmationCount = new AtomicInteger();
+            password.setValidator(new RxProperty.SimpleValidator<String>() {
+                @Nullable
+                @Override
+                public String validate(@NonNull String value) {
+                    passwordCount.incrementAndGet();
+                    return value.isEmpty() ? "Empty" : null;
+                }
+            });
+            confirmation.setValidator(new RxProperty.SimpleValidator<String>() {
+                @Nullable
+                @Override
+                public String validate(@NonNull String value) {
+                    confirmationCount.incrementAndGet();
+                    return value.equals(password.get()) ? null : "Mismatch";
+                }
+            }, password);
+        }
+
+        @After
+        public void tearDown() {
+            password.dispose();
+            confirmation.dispose();
+        }
+
+        @Test
+        public void validatesOnceOnRegistration() {
+            // then
+            assertThat(confirmationCount.get(), is(1));
+        }
+
+        @Test
+        public void revalidatesWhenDependencyChanges() {
+            // when
+            password.set("changed");
+
+            // then
+            assertThat(confirmation.getSummarizedErrorMessage(), is("Mismatch"));
+
+            // when
+            confirmation.set("changed");
+
+            // then
+            assertThat(confirmation.hasErrors(), is(false));
+        }
+
+        @Test
+        public void doesNotRevalidateDependency() {
+            // when
+            confirmation.set("changed");
+
+            // then
+            assertThat(passwordCount.get(), is(1));
+            assertThat(confirmationCount.get(), is(2));
+        }
+
+        @Test
+        public void stopsTrackingWhenValidatorIsReplaced() {
+            // given
+            confirmation.setValidator((RxProperty.Validator<String>) null);
+
+            // when
+            password.set("changed");
+
+            // then
+            assertThat(confirmationCount.get(), is(1));
+            assertThat(confirmation.hasErrors(), is(false));
+        }
+
+        @Test
+        public void stopsTrackingWhenDisposed() {
+            // given
+            confirmation.dispose();
+
+            // when
+            password.set("changed");
+
+            // then
+            assertThat(confirmationCount.get(), is(1));
+        }
+    }
+
+    public static class Reset {
+        private RxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            property = new RxProperty<>("RxProperty");
+            property.setValidator(new RxProperty.SimpleValidator<String>() {
+                @Nullable
+                @Override
+                public String validate(@NonNull String value) {
+                    return value.isEmpty() ? "Empty" : null;
+                }
+            });
+            property.set("");
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void setsValueAndClearsErrorsWithoutValidation() {
+            // given
+            TestObserver<String> test = property.test();
+            assertThat(property.hasErrors(), is(true));
+
+            // when
+            property.reset("");
+
+            // then
+            assertThat(property.hasErrors(), is(false));
+            assertThat(property.getSummarizedErrorMessage(), is(""));
+            test.assertValues("");
+
+            // when
+            property.reset("Android");
+
+            // then
+            assertThat(property.get(), is("Android"));
+            assertThat(property.hasErrors(), is(false));
+            test.assertValues("", "Android");
+        }
+
+        @Test
+        public void validatesNewValueIfRequested() {
+            // given
+            property.reset("Android");
+
+            // when
+            property.reset("", true);
+
+            // then
+            assertThat(property.get(), is(""));
+            assertThat(property.getErrorMessages(), is(Collections.singletonList("Empty")));
+        }
+
+        @Test
+        public void keepsValidatorForNextChange() {
+            // given
+            property.reset("Android");
+
+            // when
+            property.set("");
+
+            // then
+            assertThat(property.hasErrors(), is(true));
+        }
+
+        @Test
+        public void defersValueAndClearingErrorsInTransaction() {
+            // given
+            TestObserver<String> test = property.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    property.reset("Android");
+                    property.reset("");
+
+                    // then
+                    assertThat(property.get(), is(""));
+                    assertThat(property.hasErrors(), is(true));
+                }
+            });
+
+            // then
+            assertThat(property.hasErrors(), is(false));
+            test.assertValues("");
+        }
+
+        @Test
+        public void validatesValueSetAfterResetInTransaction() {
+            // given
+            TestObserver<String> test = property.test();
+
+            // when
+            RxProperty.batch(new Runnable() {
+                @Override
+                public void run() {
+                    property.reset("Android");
+                    property.set("iOS");
+                }
+            });
+
+            // then
+            assertThat(property.get(), is("iOS"));
+            assertThat(property.hasErrors(), is(false));
+            test.assertValues("", "iOS");
+        }
+
+        @Test
+        public void dropsPendingAsyncValidation() {
+            // given
+            final SingleSubject<List<String>> request = SingleSubject.create();
+            property.setAsyncValidator(new RxProperty.AsyncValidator<String>() {
+                @NonNull
+                @Override
+                public Single<List<String>> validate(@NonNull String value) {
+                    return request;
+                }
+
+                @Nullable
+                @Override
+                public String summarizeErrorMessages(@NonNull List<String> errorMessages) {
+                    return errorMessages.get(0);
+                }
+            });
+
+            // when
+            property.reset("Android");
+            request.onSuccess(Collections.singletonList("Stale"));
+
+            // then
+            assertThat(property.hasErrors(), is(false));
+        }
+    }
+
     public static class Misc {
         @Rule
         public ExpectedException thrown = ExpectedException.none();
@@ -0,0 +1,221 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+public class ValidationCacheTest {
+
+    public static class InvalidArguments {
+        @Rule
+        public ExpectedException thrown = ExpectedException.none();
+
+        @Test
+        public void raisesIAEWhenMaxSizeIsNotPositive() {
+            thrown.expect(IllegalArgumentException.class);
+            thrown.expectMessage("maxSize must be positive.");
+
+            new ValidationCache<String>(0);
+        }
+
+        @Test
+        public void raisesIAEWhenMaxWeightIsNegative() {
+            thrown.expect(IllegalArgumentException.class);
+            thrown.expectMessage("maxWeight must not be negative.");
+
+            new ValidationCache<String>(1, -1, null);
+        }
+
+        @Test
+        public void raisesNPEWhenCacheIsNull() {
+            thrown.expect(NullPointerException.class);
+            thrown.expectMessage("cache must not be null.");
+
+            new RxProperty<>("")
+                    .setValidator(new CountingValidator(), (ValidationCache<String>) null);
+        }
+    }
+
+    public static class Eviction {
+        @Test
+        public void evictsLeastRecentlyUsedEntry() {
+            // given
+            ValidationCache<String> cache = new ValidationCache<>(2);
+            cache.put("a", null, "");
+            cache.put("b", null, "");
+            cache.get("a");
+
+            // when
+            cache.put("c", null, "");
+
+            // then
+            assertThat(cache.size(), is(2));
+            assertThat(cache.get("a"), is(notNullValue()));
+            assertThat(cache.get("b"), is(nullValue()));
+            assertThat(cache.get("c"), is(notNullValue()));
+        }
+
+        @Test
+        public void evictsByWeight() {
+            // given
+            ValidationCache<String> cache = new ValidationCache<>(10, 5,
+                    new ValidationCache.Weigher<String>() {
+                        @Override
+                        public long weigh(@NonNull String value, @NonNull List<String> errors) {
+                            return value.length();
+                        }
+                    });
+            cache.put("ab", null, "");
+            cache.put("cd", null, "");
+
+            // when
+            cache.put("efg", null, "");
+
+            // then
+            assertThat(cache.size(), is(2));
+            assertThat(cache.get("ab"), is(nullValue()));
+        }
+
+        @Test
+        public void countsHitsAndMisses() {
+            // given
+            ValidationCache<String> cache = new ValidationCache<>(2);
+            cache.put("a", null, "");
+
+            // when
+            cache.get("a");
+            cache.get("a");
+            cache.get("b");
+
+            // then
+            assertThat(cache.getHitCount(), is(2L));
+            assertThat(cache.getMissCount(), is(1L));
+        }
+    }
+
+    public static class WithRxProperty {
+        private CountingValidator validator;
+        private ValidationCache<String> cache;
+        private RxProperty<String> property;
+
+        @Before
+        public void setUp() {
+            validator = new CountingValidator();
+            cache = new ValidationCache<>(10);
+            property = new RxProperty<>("").setValidator(validator, cache);
+        }
+
+        @After
+        public void tearDown() {
+            property.dispose();
+        }
+
+        @Test
+        public void reusesResultForSameValue() {
+            // when
+            property.set("RxProperty");
+            property.set("");
+            property.set("RxProperty");
+
+            // then
+            assertThat(validator.count.get(), is(2));
+            assertThat(cache.getHitCount(), is(2L));
+            assertThat(property.hasErrors(), is(false));
+        }
+
+        @Test
+        public void restoresCachedErrors() {
+            // given
+            property.set("RxProperty");
+
+            // when
+            property.set("");
+
+            // then
+            assertThat(property.getErrorMessages(), is(Collections.singletonList("Empty")));
+            assertThat(property.getSummarizedErrorMessage(), is("Empty"));
+        }
+
+        @Test
+        public void runsValidatorAfterInvalidated() {
+            // when
+            cache.invalidateAll();
+            property.forceValidate();
+
+            // then
+            assertThat(validator.count.get(), is(2));
+        }
+    }
+
+    public static class WithThrowingSimpleValidator {
+        @Test
+        public void doesNotCacheException() {
+            // given
+            final AtomicInteger count = new AtomicInteger();
+            ValidationCache<String> cache = new ValidationCache<>(10);
+            RxProperty<String> property = new RxProperty<>("")
+                    .setValidator(new RxProperty.SimpleValidator<String>() {
+                        @Nullable
+                        @Override
+                        public String validate(@NonNull String value) {
+                            if (count.incrementAndGet() == 2) {
+                                throw new IllegalStateException("Unavailable");
+                            }
+                            return null;
+                        }
+                    }, cache);
+
+            // when
+            property.set("RxProperty");
+
+            // then
+            assertThat(property.getSummarizedErrorMessage(), is("Unavailable"));
+            assertThat(cache.get("RxProperty"), is(nullValue()));
+
+            // when
+            property.set("");
+            property.set("RxProperty");
+
+            // then
+            assertThat(count.get(), is(3));
+            assertThat(property.hasErrors(), is(false));
+
+            // after
+            property.dispose();
+        }
+    }
+
+    private static class CountingValidator implements RxProperty.Validator<String> {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public List<String> validate(@NonNull String value) {
+            count.incrementAndGet();
+            return value.isEmpty() ? Collections.singletonList("Empty") : null;
+        }
+
+        @Nullable
+        @Override
+        public String summarizeErrorMessages(@NonNull List<String> errorMessages) {
+            return errorMessages.get(0);
+        }
+    }
+}
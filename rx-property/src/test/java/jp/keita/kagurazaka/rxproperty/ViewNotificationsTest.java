@@ -0,0 +1,289 @@
+package jp.keita.kagurazaka.rxproperty;
+
+import android.databinding.ObservableField;
+import android.databinding.ObservableInt;
+import android.support.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import io.reactivex.functions.Function;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Enclosed.class)
+@SuppressWarnings("deprecation")
+public class ViewNotificationsTest {
+    private static final EnumSet<RxProperty.Mode> COALESCE = EnumSet.of(
+            RxProperty.Mode.DISTINCT_UNTIL_CHANGED,
+            RxProperty.Mode.RAISE_LATEST_VALUE_ON_SUBSCRIBE,
+            RxProperty.Mode.COALESCE_VIEW_NOTIFICATIONS
+    );
+
+    public static class Scheduler {
+        @After
+        public void tearDown() {
+            ViewNotifications.setScheduler(null);
+        }
+
+        @Test
+        public void replacesScheduler() {
+            // given
+            ManualScheduler scheduler = new ManualScheduler();
+
+            // when
+            ViewNotifications.setScheduler(scheduler);
+
+            // then
+            assertThat(ViewNotifications.getScheduler(), is((ViewNotificationScheduler) scheduler));
+        }
+    }
+
+    public static class Coalescing {
+        private ManualScheduler scheduler;
+        private RxProperty<String> property;
+        private TestObserver<String> fieldObserver;
+
+        @Before
+        public void setUp() {
+            scheduler = new ManualScheduler();
+            ViewNotifications.setScheduler(scheduler);
+            property = new RxProperty<>("John", COALESCE);
+            fieldObserver = observeField(property.getValue()).test();
+        }
+
+        @After
+        public void tearDown() {
+            fieldObserver.dispose();
+            property.dispose();
+            ViewNotifications.setScheduler(null);
+        }
+
+        @Test
+        public void notifiesBoundViewOnceAtNextTick() {
+            // when
+            property.set("Hans");
+            property.set("Karl");
+            property.set("Franz");
+
+            // then
+            fieldObserver.assertNoValues();
+            assertThat(scheduler.actions.size(), is(1));
+
+            // when
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertValue("Franz");
+        }
+
+        @Test
+        public void emitsEveryValueToRxObservers() {
+            // given
+            TestObserver<String> testObserver = property.test();
+
+            // when
+            property.set("Hans");
+            property.set("Karl");
+
+            // then
+            testObserver.assertValues("John", "Hans", "Karl").dispose();
+        }
+
+        @Test
+        public void doesNotScheduleWithoutViewUpdate() {
+            // when
+            property.setWithoutViewUpdate("Hans");
+
+            // then
+            assertThat(scheduler.actions.size(), is(0));
+        }
+
+        @Test
+        public void notifiesUpdatesAfterTickAtFollowingTick() {
+            // given
+            property.set("Hans");
+            scheduler.tick();
+
+            // when
+            property.set("Karl");
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertValues("Hans", "Karl");
+        }
+
+        @Test
+        public void sharesTickAmongProperties() {
+            // given
+            RxProperty<String> other = new RxProperty<>("Smith", COALESCE);
+            TestObserver<String> otherObserver = observeField(other.getValue()).test();
+
+            // when
+            property.set("Hans");
+            other.set("Schmidt");
+
+            // then
+            assertThat(scheduler.actions.size(), is(1));
+
+            // when
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertValue("Hans");
+            otherObserver.assertValue("Schmidt").dispose();
+            other.dispose();
+        }
+
+        @Test
+        public void doesNotNotifyDisposedProperty() {
+            // given
+            RxProperty<String> other = new RxProperty<>("Smith", COALESCE);
+            TestObserver<String> otherObserver = observeField(other.getValue()).test();
+            property.set("Hans");
+            other.set("Schmidt");
+
+            // when
+            property.dispose();
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertNoValues();
+            otherObserver.assertValue("Schmidt").dispose();
+            other.dispose();
+        }
+
+        @Test
+        public void notifiesImmediatelyWithoutMode() {
+            // given
+            RxProperty<String> other = new RxProperty<>("Smith");
+            TestObserver<String> otherObserver = observeField(other.getValue()).test();
+
+            // when
+            other.set("Schmidt");
+
+            // then
+            assertThat(scheduler.actions.size(), is(0));
+            otherObserver.assertValue("Schmidt").dispose();
+            other.dispose();
+        }
+    }
+
+    public static class OtherProperties {
+        private ManualScheduler scheduler;
+
+        @Before
+        public void setUp() {
+            scheduler = new ManualScheduler();
+            ViewNotifications.setScheduler(scheduler);
+        }
+
+        @After
+        public void tearDown() {
+            ViewNotifications.setScheduler(null);
+        }
+
+        @Test
+        public void coalescesReadOnlyRxProperty() {
+            // given
+            PublishSubject<String> source = PublishSubject.create();
+            ReadOnlyRxProperty<String> property = new ReadOnlyRxProperty<>(source, COALESCE);
+            TestObserver<String> fieldObserver = observeField(property.getValue()).test();
+            TestObserver<String> testObserver = property.test();
+
+            // when
+            source.onNext("Hans");
+            source.onNext("Karl");
+
+            // then
+            fieldObserver.assertNoValues();
+            testObserver.assertValues("Hans", "Karl").dispose();
+
+            // when
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertValue("Karl").dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void coalescesIntRxProperty() {
+            // given
+            IntRxProperty property = new IntRxProperty(0, COALESCE);
+            TestObserver<Integer> fieldObserver = Observe.propertyOf(property.getValue(), 0,
+                    new Function<ObservableInt, Integer>() {
+                        @Override
+                        public Integer apply(ObservableInt field) {
+                            return field.get();
+                        }
+                    }).test();
+
+            // when
+            property.set(1);
+            property.set(2);
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertValue(2).dispose();
+            property.dispose();
+        }
+
+        @Test
+        public void doesNotNotifyDisposedIntRxProperty() {
+            // given
+            IntRxProperty property = new IntRxProperty(0, COALESCE);
+            TestObserver<Integer> fieldObserver = Observe.propertyOf(property.getValue(), 0,
+                    new Function<ObservableInt, Integer>() {
+                        @Override
+                        public Integer apply(ObservableInt field) {
+                            return field.get();
+                        }
+                    }).test();
+            property.set(1);
+
+            // when
+            property.dispose();
+            scheduler.tick();
+
+            // then
+            fieldObserver.assertNoValues().dispose();
+        }
+    }
+
+    private static io.reactivex.Observable<String> observeField(ObservableField<String> field) {
+        return Observe.propertyOf(field, 0, new Function<ObservableField<String>, String>() {
+            @Override
+            public String apply(ObservableField<String> field) {
+                return field.get();
+            }
+        });
+    }
+
+    private static class ManualScheduler implements ViewNotificationScheduler {
+        final List<Runnable> actions = new ArrayList<>();
+
+        @Override
+        public void schedule(@NonNull Runnable action) {
+            actions.add(action);
+        }
+
+        void tick() {
+            List<Runnable> actions = new ArrayList<>(this.actions);
+            this.actions.clear();
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+    }
+}
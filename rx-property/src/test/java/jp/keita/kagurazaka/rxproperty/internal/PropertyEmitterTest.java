@@ -0,0 +1,233 @@
+package jp.keita.kagurazaka.rxproperty.internal;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.functions.Consumer;
+import io.reactivex.observers.TestObserver;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(Enclosed.class)
+public class PropertyEmitterTest {
+
+    public static class ReplayLatest {
+        @Test
+        public void emitsLatestValueOnSubscribe() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(true, "Initial");
+            emitter.onNext("Latest");
+
+            // then
+            emitter.test()
+                    .assertValue("Latest")
+                    .assertNotComplete()
+                    .dispose();
+        }
+
+        @Test
+        public void emitsNothingOnSubscribeWithoutLatestValue() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(true);
+
+            // then
+            emitter.test()
+                    .assertEmpty()
+                    .dispose();
+        }
+
+        @Test
+        public void emitsNothingOnSubscribeWhenReplayIsDisabled() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(false, "Initial");
+
+            // when
+            TestObserver<String> testObserver = emitter.test();
+            emitter.onNext("Next");
+
+            // then
+            testObserver.assertValue("Next")
+                    .assertNotComplete()
+                    .dispose();
+        }
+    }
+
+    public static class Termination {
+        @Test
+        public void emitsOnlyOnCompleteToLateObservers() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(true, "Initial");
+            emitter.onComplete();
+
+            // then
+            emitter.test().assertResult();
+            assertThat(emitter.isTerminated(), is(true));
+            assertThat(emitter.hasObservers(), is(false));
+        }
+
+        @Test
+        public void ignoresEventsAfterTermination() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(false);
+            TestObserver<String> testObserver = emitter.test();
+
+            // when
+            emitter.onError(new RuntimeException("Error"));
+            emitter.onNext("Ignored");
+            emitter.onComplete();
+
+            // then
+            testObserver.assertFailureAndMessage(RuntimeException.class, "Error");
+        }
+    }
+
+    public static class Dispatch {
+        @Test
+        public void disposedObserverIsRemoved() {
+            // given
+            PropertyEmitter<String> emitter = new PropertyEmitter<>(false);
+            TestObserver<String> first = emitter.test();
+            TestObserver<String> second = emitter.test();
+
+            // when
+            emitter.onNext("Both");
+            first.dispose();
+            emitter.onNext("Second only");
+
+            // then
+            first.assertValue("Both");
+            second.assertValues("Both", "Second only");
+            second.dispose();
+            assertThat(emitter.hasObservers(), is(false));
+        }
+
+        @Test
+        public void reentrantEmissionIsSerialized() {
+            // given
+            final PropertyEmitter<Integer> emitter = new PropertyEmitter<>(false);
+            final TestObserver<Integer> testObserver = new TestObserver<>();
+            emitter.subscribe(new Consumer<Integer>() {
+                @Override
+                public void accept(Integer value) {
+                    if (value < 3) {
+                        emitter.onNext(value + 1);
+                    }
+                }
+            });
+            emitter.subscribe(testObserver);
+
+            // when
+            emitter.onNext(1);
+
+            // then
+            testObserver.assertValues(1, 2, 3);
+        }
+
+        @Test
+        public void reentrantSubscriberStartsWithLatestValue() {
+            // given
+            final PropertyEmitter<String> emitter = new PropertyEmitter<>(true, "Initial");
+            final TestObserver<String> testObserver = new TestObserver<>();
+            emitter.subscribe(new Consumer<String>() {
+                @Override
+                public void accept(String value) {
+                    if (value.equals("Next")) {
+                        emitter.subscribe(testObserver);
+                    }
+                }
+            });
+
+            // when
+            emitter.onNext("Next");
+            emitter.onNext("Last");
+
+            // then
+            testObserver.assertValues("Next", "Last");
+        }
+
+        @Test
+        public void keepsDeliveringAfterObserverThrows() {
+            // given
+            final PropertyEmitter<Integer> emitter = new PropertyEmitter<>(false);
+            TestObserver<Integer> testObserver = new TestObserver<>();
+            emitter.subscribe(new TestObserver<Integer>() {
+                @Override
+                public void onNext(Integer value) {
+                    if (value == 1) {
+                        emitter.onNext(2);
+                        throw new IllegalStateException("Thrown by observer.");
+                    }
+                }
+            });
+            emitter.subscribe(testObserver);
+
+            // when
+            try {
+                emitter.onNext(1);
+                fail();
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage(), is("Thrown by observer."));
+            }
+            emitter.onNext(3);
+
+            // then
+            testObserver.assertValues(2, 3);
+        }
+
+        @Test
+        public void concurrentEmissionsAreAllDelivered() throws InterruptedException {
+            // given
+            final PropertyEmitter<Integer> emitter = new PropertyEmitter<>(false);
+            final AtomicInteger concurrentCalls = new AtomicInteger();
+            final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+            TestObserver<Integer> testObserver = new TestObserver<Integer>() {
+                @Override
+                public void onNext(Integer value) {
+                    int calls = concurrentCalls.incrementAndGet();
+                    if (calls > maxConcurrentCalls.get()) {
+                        maxConcurrentCalls.set(calls);
+                    }
+                    super.onNext(value);
+                    concurrentCalls.decrementAndGet();
+                }
+            };
+            emitter.subscribe(testObserver);
+
+            final int threadCount = 4;
+            final int count = 10000;
+            final CountDownLatch start = new CountDownLatch(1);
+            final CountDownLatch finish = new CountDownLatch(threadCount);
+            for (int i = 0; i < threadCount; ++i) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            for (int j = 0; j < count; ++j) {
+                                emitter.onNext(j);
+                            }
+                        } catch (InterruptedException e) {
+                            // Ignore the exception.
+                        } finally {
+                            finish.countDown();
+                        }
+                    }
+                }).start();
+            }
+
+            // when
+            start.countDown();
+            finish.await();
+
+            // then
+            testObserver.assertValueCount(threadCount * count);
+            assertThat(maxConcurrentCalls.get(), is(1));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import android.view.View;
 import android.widget.AdapterView;
 import android.widget.Spinner;
 
+import jp.keita.kagurazaka.rxproperty.IntRxProperty;
 import jp.keita.kagurazaka.rxproperty.RxProperty;
 
 /**
@@ -14,7 +15,7 @@ import jp.keita.kagurazaka.rxproperty.RxProperty;
 @SuppressWarnings("deprecation")
 public class RxPropertyBinders {
     @BindingAdapter("rxPropertySelectedItemIndex")
-    public static void setSelectedItemIndex(final Spinner spinner, final RxProperty<Integer> property) {
+    public static void setSelectedItemIndex(final Spinner spinner, final IntRxProperty property) {
         // View -> RxProperty
         spinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
@@ -32,10 +33,7 @@ public class RxPropertyBinders {
         final Observable.OnPropertyChangedCallback callback = new Observable.OnPropertyChangedCallback() {
             @Override
             public void onPropertyChanged(Observable observable, int i) {
-                final Integer position = property.getValue().get();
-                if (position != null) {
-                    spinner.setSelection(position);
-                }
+                spinner.setSelection(property.get());
             }
         };
         property.getValue().addOnPropertyChangedCallback(callback);
@@ -1,33 +1,29 @@
 package jp.keita.kagurazaka.rxproperty.sample
 
-import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.disposables.Disposable
+import jp.keita.kagurazaka.rxproperty.PropertyScope
 import jp.keita.kagurazaka.rxproperty.RxProperty
 import java.util.*
 
 abstract class ViewModelBase : Disposable {
-    protected val disposables = CompositeDisposable()
+    protected val scope = PropertyScope()
 
     override fun dispose() {
-        if (!isDisposed) {
-            disposables.clear()
-        }
+        scope.dispose()
     }
 
     override fun isDisposed(): Boolean {
-        return disposables.isDisposed
+        return scope.isDisposed
     }
 
     // for JavaBasicsViewModel
     protected fun addDisposables(vararg disposables: Disposable) {
-        for (s in disposables) {
-            this.disposables.add(s)
-        }
+        scope.addAll(*disposables)
     }
 
     // for KotlinBasicsViewModel
     inline fun <reified T : Disposable> T.asManaged(): T = this.apply {
-        disposables.add(this)
+        scope.add(this)
     }
 
     companion object {
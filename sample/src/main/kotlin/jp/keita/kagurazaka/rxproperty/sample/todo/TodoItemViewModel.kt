@@ -1,14 +1,15 @@
 package jp.keita.kagurazaka.rxproperty.sample.todo
 
 import io.reactivex.Observable
+import jp.keita.kagurazaka.rxproperty.BooleanRxProperty
 import jp.keita.kagurazaka.rxproperty.RxProperty
 import jp.keita.kagurazaka.rxproperty.sample.ViewModelBase
 
 class TodoItemViewModel constructor(
         val model: TodoItem = TodoItem(false, "")
 ) : ViewModelBase() {
-    val isDone: RxProperty<Boolean>
-            = RxProperty(model.isDone, DISABLE_RAISE_ON_SUBSCRIBE)
+    val isDone: BooleanRxProperty
+            = BooleanRxProperty(model.isDone, DISABLE_RAISE_ON_SUBSCRIBE)
             .asManaged()
 
     val title: RxProperty<String>
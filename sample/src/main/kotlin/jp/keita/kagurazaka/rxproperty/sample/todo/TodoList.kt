@@ -1,11 +1,14 @@
 package jp.keita.kagurazaka.rxproperty.sample.todo
 
-import android.databinding.ObservableArrayList
+import jp.keita.kagurazaka.rxproperty.RxListProperty
 
-class TodoList : ObservableArrayList<TodoItemViewModel>() {
-    fun replace(list: List<TodoItem>) {
-        clear()
-        addAll(list.map(::TodoItemViewModel))
+class TodoList : RxListProperty<TodoItemViewModel>() {
+    fun update(list: List<TodoItem>) {
+        // Reuse view models of remaining items so that only changed rows are rebound.
+        val current = associateByTo(HashMap()) { it.model }
+        val next = list.map { current.remove(it) ?: TodoItemViewModel(it) }
+        current.values.forEach { it.dispose() }
+        replace(next)
     }
 
     override fun clear() {
@@ -1,5 +1,6 @@
 package jp.keita.kagurazaka.rxproperty.sample.todo
 
+import jp.keita.kagurazaka.rxproperty.IntRxProperty
 import jp.keita.kagurazaka.rxproperty.NoParameter
 import jp.keita.kagurazaka.rxproperty.RxCommand
 import jp.keita.kagurazaka.rxproperty.RxProperty
@@ -13,7 +14,7 @@ class TodoViewModel : ViewModelBase() {
     val todoList: TodoList = TodoList()
     val todoListItem: ItemBinding<TodoItemViewModel> = ItemBinding.of(BR.todoListItemVM, R.layout.item_todo)
 
-    val viewModeIndex: RxProperty<Int> = RxProperty(0).asManaged()
+    val viewModeIndex: IntRxProperty = IntRxProperty(0).asManaged()
 
     val inputTodoItem: RxProperty<TodoItemViewModel>
             = RxProperty(TodoItemViewModel()).asManaged()
@@ -34,7 +35,7 @@ class TodoViewModel : ViewModelBase() {
                 2 -> TodoRepository.done
                 else -> throw IllegalStateException()
             }
-            todoList.replace(list)
+            todoList.update(list)
         }
 
         TodoRepository.onChanged